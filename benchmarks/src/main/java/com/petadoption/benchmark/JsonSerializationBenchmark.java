@@ -0,0 +1,73 @@
+package com.petadoption.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.petadoption.model.Adoption;
+import com.petadoption.model.Pet;
+import com.petadoption.model.TypeOfPet;
+import com.petadoption.model.User;
+import com.petadoption.model.enums.PetStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the JSON serialization of the Pet and Adoption responses with an ObjectMapper
+ * configured like Spring MVC's (Jackson2ObjectMapperBuilder defaults): a single pet, a
+ * single adoption (which embeds its pet and user) and the pet list of GET /api/pets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param("50")
+    public int listSize;
+
+    private ObjectWriter writer;
+    private Pet pet;
+    private Adoption adoption;
+    private List<Pet> pets;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writer();
+
+        TypeOfPet dog = new TypeOfPet("Dog", 1L);
+        pet = new Pet(1L, "Buddy", 2, PetStatus.AVAILABLE, dog, "Madrid");
+
+        User user = new User(1L, "John Doe", "123456789", "john.doe@example.com", Set.of("ROLE_USER"));
+        user.setUsername("john");
+        adoption = new Adoption(1L, pet, user, new Date(), "PENDING");
+
+        pets = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            pets.add(new Pet((long) i, "Pet " + i, i % 15, PetStatus.AVAILABLE, dog, "Madrid"));
+        }
+    }
+
+    @Benchmark
+    public byte[] pet() throws JsonProcessingException {
+        return writer.writeValueAsBytes(pet);
+    }
+
+    @Benchmark
+    public byte[] adoption() throws JsonProcessingException {
+        return writer.writeValueAsBytes(adoption);
+    }
+
+    @Benchmark
+    public byte[] petList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(pets);
+    }
+}
@@ -0,0 +1,84 @@
+package com.petadoption.benchmark;
+
+import com.petadoption.security.RoleClaimAuthorities;
+import com.petadoption.security.UserPrincipal;
+import com.petadoption.security.UserPrincipalAuthenticationToken;
+import com.petadoption.security.UserPrincipalJwtAuthenticationConverter;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.helpers.MessageFormatter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the per-request cost of turning a decoded access token into the request's
+ * authentication (UserPrincipalJwtAuthenticationConverter).
+
+ * {@code legacy} reproduces the former converter from SecurityConfig, which formatted all
+ * claims and the roles for two INFO log lines and mapped the roles to new authorities
+ * through a stream on every request; only the message formatting is reproduced, not the
+ * console output. {@code cached} is the current converter with the shared role mappings.
+ * Run with {@code -prof gc} to compare allocations per request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationConversionBenchmark {
+
+    private Jwt jwt;
+    private UserPrincipalJwtAuthenticationConverter converter;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.now();
+        jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .header("kid", "rsa-key")
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .subject("john")
+                .claim(UserPrincipalJwtAuthenticationConverter.USER_ID_CLAIM, 1L)
+                // Nimbus parses JSON arrays into ArrayLists
+                .claim(UserPrincipalJwtAuthenticationConverter.ROLES_CLAIM, new ArrayList<>(List.of("USER", "ADMIN")))
+                .claim(UserPrincipalJwtAuthenticationConverter.TOKEN_USE_CLAIM, UserPrincipalJwtAuthenticationConverter.ACCESS_TOKEN_USE)
+                .build();
+        converter = new UserPrincipalJwtAuthenticationConverter(new RoleClaimAuthorities(256));
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken legacy() {
+        Object uid = jwt.getClaim(UserPrincipalJwtAuthenticationConverter.USER_ID_CLAIM);
+        Long id = uid instanceof Number number ? number.longValue() : null;
+        List<String> principalRoles = jwt.getClaimAsStringList(UserPrincipalJwtAuthenticationConverter.ROLES_CLAIM);
+        UserPrincipal principal = new UserPrincipal(id, jwt.getSubject(), principalRoles != null ? principalRoles : List.of());
+
+        MessageFormatter.format("JWT Claims: {}", jwt.getClaims()).getMessage();
+        List<String> roles = jwt.getClaimAsStringList("roles");
+        if (roles == null) {
+            roles = List.of();
+        }
+        MessageFormatter.format("Roles from the token: {}", roles).getMessage();
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        return new UserPrincipalAuthenticationToken(jwt, principal, authorities);
+    }
+
+    @Benchmark
+    public AbstractAuthenticationToken cached() {
+        return converter.convert(jwt);
+    }
+}
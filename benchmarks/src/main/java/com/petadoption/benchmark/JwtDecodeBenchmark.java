@@ -0,0 +1,96 @@
+package com.petadoption.benchmark;
+
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.petadoption.security.CachingJwtDecoder;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.interfaces.RSAPrivateKey;
+import java.security.interfaces.RSAPublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of decoding an RS256 access token with the plain NimbusJwtDecoder
+ * (parse and verify the signature every time) and with the CachingJwtDecoder.
+
+ * {@code cachedRepeatedToken} is the common case of a client reusing its token;
+ * {@code cachedDistinctTokens} cycles through more tokens than the cache holds, so it
+ * shows the overhead added on a miss (digest and insertion) on top of the verification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtDecodeBenchmark {
+
+    private static final int DISTINCT_TOKENS = 1024;
+
+    private JwtDecoder nimbusDecoder;
+    private JwtDecoder cachingDecoder;
+    private JwtDecoder smallCachingDecoder;
+    private String token;
+    private String[] distinctTokens;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+        RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+
+        RSAKey rsaKey = new RSAKey.Builder(publicKey)
+                .privateKey((RSAPrivateKey) keyPair.getPrivate())
+                .keyID("rsa-key")
+                .build();
+        JwtEncoder encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(new JWKSet(rsaKey)));
+
+        nimbusDecoder = NimbusJwtDecoder.withPublicKey(publicKey).build();
+        cachingDecoder = new CachingJwtDecoder(NimbusJwtDecoder.withPublicKey(publicKey).build(), 10_000, Duration.ofHours(1), null);
+        smallCachingDecoder = new CachingJwtDecoder(NimbusJwtDecoder.withPublicKey(publicKey).build(), 16, Duration.ofHours(1), null);
+
+        token = encode(encoder, "john", 1L);
+        distinctTokens = new String[DISTINCT_TOKENS];
+        for (int i = 0; i < DISTINCT_TOKENS; i++) {
+            distinctTokens[i] = encode(encoder, "user" + i, (long) i);
+        }
+    }
+
+    @Benchmark
+    public Jwt nimbus() {
+        return nimbusDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt cachedRepeatedToken() {
+        return cachingDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt cachedDistinctTokens() {
+        next = (next + 1) & (DISTINCT_TOKENS - 1);
+        return smallCachingDecoder.decode(distinctTokens[next]);
+    }
+
+    private static String encode(JwtEncoder encoder, String username, Long userId) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .subject(username)
+                .claim("uid", userId)
+                .claim("roles", List.of("USER"))
+                .build();
+        return encoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+    }
+}
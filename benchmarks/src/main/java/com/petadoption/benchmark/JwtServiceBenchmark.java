@@ -0,0 +1,72 @@
+package com.petadoption.benchmark;
+
+import com.petadoption.benchmark.support.BenchmarkContexts;
+import com.petadoption.benchmark.support.ServiceBenchmarkConfig;
+import com.petadoption.dto.token.TokenPair;
+import com.petadoption.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the token operations of JwtService as login and refresh run them, with the
+ * application's keys and the refresh token revocation set on the benchmark database.
+
+ * {@code refreshTokens} follows a rotation chain: every call presents the refresh token
+ * returned by the previous one, as a well-behaved client does, so each call verifies a
+ * token, records it as used (one insert) and signs two new tokens.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final List<String> ROLES = List.of("USER");
+
+    private ConfigurableApplicationContext context;
+    private JwtService jwtService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("jwt-service", ServiceBenchmarkConfig.class);
+        jwtService = context.getBean(JwtService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class RotationChain {
+
+        String refreshToken;
+
+        @Setup(Level.Iteration)
+        public void login(JwtServiceBenchmark benchmark) {
+            refreshToken = benchmark.jwtService.generateRefreshToken(1L, "john", ROLES);
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(1L, "john", ROLES);
+    }
+
+    @Benchmark
+    public String generateRefreshToken() {
+        return jwtService.generateRefreshToken(1L, "john", ROLES);
+    }
+
+    @Benchmark
+    public TokenPair refreshTokens(RotationChain chain) {
+        TokenPair tokens = jwtService.refreshTokens(chain.refreshToken);
+        chain.refreshToken = tokens.refreshToken();
+        return tokens;
+    }
+}
@@ -0,0 +1,82 @@
+package com.petadoption.benchmark;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.gen.ECKeyGenerator;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares signing and verifying an access token per JWT algorithm supported by
+ * JwtConfig (RS256 with a 2048-bit key, ES256 on P-256), using the same Nimbus
+ * encoder and decoder setup as the application.
+
+ * Signing dominates login (two tokens per login), verifying dominates every other request
+ * on a verified-token cache miss.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtSigningBenchmark {
+
+    @Param({"RS256", "ES256"})
+    public String algorithm;
+
+    private JwtEncoder encoder;
+    private JwtDecoder decoder;
+    private JwsHeader header;
+    private JwtClaimsSet claims;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        JWSAlgorithm jwsAlgorithm = JWSAlgorithm.parse(algorithm);
+        JWK key = JWSAlgorithm.ES256.equals(jwsAlgorithm)
+                ? new ECKeyGenerator(Curve.P_256).keyID("bench").algorithm(jwsAlgorithm).generate()
+                : new RSAKeyGenerator(2048).keyID("bench").algorithm(jwsAlgorithm).generate();
+        JWKSet keys = new JWKSet(key);
+
+        encoder = new NimbusJwtEncoder(new ImmutableJWKSet<>(keys));
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(jwsAlgorithm, new ImmutableJWKSet<>(keys.toPublicJWKSet())));
+        processor.setJWTClaimsSetVerifier((claimsSet, context) -> {});
+        decoder = new NimbusJwtDecoder(processor);
+
+        header = JwsHeader.with(SignatureAlgorithm.from(algorithm)).keyId("bench").build();
+        Instant now = Instant.now();
+        claims = JwtClaimsSet.builder()
+                .issuer("self")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(3600))
+                .subject("john")
+                .claim("uid", 1L)
+                .claim("roles", List.of("USER"))
+                .build();
+        token = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return encoder.encode(JwtEncoderParameters.from(header, claims)).getTokenValue();
+    }
+
+    @Benchmark
+    public Jwt verify() {
+        return decoder.decode(token);
+    }
+}
@@ -0,0 +1,142 @@
+package com.petadoption.benchmark;
+
+import com.petadoption.benchmark.support.BenchmarkContexts;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time from launching the packaged application to it being ready to take
+ * traffic (the "Started PetAdoptionApplication" log line), for each build flavour:
+
+ * {@code jar}: the executable jar as built by default.
+ * {@code aot}: the same jar with the AOT-generated initializers ({@code -Dspring.aot.enabled=true}).
+ * {@code aot-cds}: the extracted jar with AOT and the AppCDS archive.
+ * {@code native}: the GraalVM native executable.
+
+ * {@code aot} and {@code aot-cds} require building the application with {@code ./mvnw -Pfast-startup package},
+ * which writes the extracted jar and the archive to target/fast-startup (the {@code jar}
+ * variant runs unchanged on that build, as AOT code is ignored unless enabled), and
+ * {@code native} requires {@code ./mvnw -Pnative native:compile}. Run a subset with
+ * {@code -p build=jar,native}. The resident set size of the process once ready is read from
+ * /proc (Linux only) and its median is printed at the end of each trial. Every
+ * invocation starts a fresh JVM that connects to the application database, or to
+ * {@code benchmark.datasource.url} when set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupTimeBenchmark {
+
+    private static final String READY_LINE = "Started PetAdoptionApplication";
+    private static final String JAR_NAME = "pet-adoption-0.0.1-SNAPSHOT-exec.jar";
+    private static final String NATIVE_NAME = "pet-adoption";
+
+    @Param({"jar", "aot", "aot-cds", "native"})
+    public String build;
+
+    private Process process;
+    private final List<Long> residentKilobytes = new ArrayList<>();
+
+    @Benchmark
+    public void timeToReady() throws IOException {
+        process = launch().start();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (line.contains(READY_LINE)) {
+                    recordResidentSetSize();
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("The application exited with code " + waitForExit() + " before being ready");
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() throws InterruptedException {
+        if (process != null) {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+            process = null;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void reportResidentSetSize() {
+        if (!residentKilobytes.isEmpty()) {
+            List<Long> sorted = residentKilobytes.stream().sorted().toList();
+            System.out.printf("%nResident set size once ready (%s): median %d MB over %d runs%n",
+                    build, sorted.get(sorted.size() / 2) / 1024, sorted.size());
+            residentKilobytes.clear();
+        }
+    }
+
+    private void recordResidentSetSize() {
+        Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    residentKilobytes.add(Long.parseLong(line.replaceAll("\\D", "")));
+                }
+            }
+        } catch (IOException e) {
+            // Not on Linux, only the time is reported
+        }
+    }
+
+    private ProcessBuilder launch() {
+        File target = new File(System.getProperty("benchmark.startup.target", "../target"));
+        File fastStartup = new File(target, "fast-startup");
+
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        switch (build) {
+            case "jar" -> command.addAll(List.of("-jar", new File(target, JAR_NAME).getAbsolutePath()));
+            case "aot" -> command.addAll(List.of("-Dspring.aot.enabled=true", "-jar", new File(target, JAR_NAME).getAbsolutePath()));
+            case "aot-cds" -> command.addAll(List.of("-XX:SharedArchiveFile=application.jsa", "-Dspring.aot.enabled=true", "-jar", JAR_NAME));
+            case "native" -> command.set(0, new File(target, NATIVE_NAME).getAbsolutePath());
+            default -> throw new IllegalArgumentException("Unknown build " + build);
+        }
+        command.addAll(List.of(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--logging.level.com.petadoption.PetAdoptionApplication=INFO"));
+        if (BenchmarkContexts.usesExternalDatabase()) {
+            command.addAll(List.of(
+                    "--spring.datasource.url=" + System.getProperty("benchmark.datasource.url"),
+                    "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", ""),
+                    "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", "")));
+        }
+
+        return new ProcessBuilder(command)
+                .directory("aot-cds".equals(build) ? fastStartup : target)
+                .redirectErrorStream(true);
+    }
+
+    private int waitForExit() {
+        try {
+            return process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        }
+    }
+}
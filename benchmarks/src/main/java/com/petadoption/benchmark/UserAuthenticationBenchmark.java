@@ -0,0 +1,71 @@
+package com.petadoption.benchmark;
+
+import com.petadoption.benchmark.support.BenchmarkContexts;
+import com.petadoption.benchmark.support.ServiceBenchmarkConfig;
+import com.petadoption.model.User;
+import com.petadoption.repository.UserRepository;
+import com.petadoption.security.UserPrincipal;
+import com.petadoption.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures UserService.authenticate, the service part of POST /api/auth/login: the cached
+ * profile lookup and the BCrypt check on the hashing executor, at the configured cost and
+ * at the costs given by {@code strength}.
+
+ * {@code wrongPassword} costs as much as a successful login, as BCrypt always runs in full.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class UserAuthenticationBenchmark {
+
+    private static final String USERNAME = "bench_user";
+    private static final String PASSWORD = "password123";
+
+    @Param({"10", "12"})
+    public int strength;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("user-authentication", ServiceBenchmarkConfig.class,
+                "--app.password.bcrypt-strength=" + strength);
+        userService = context.getBean(UserService.class);
+
+        User user = new User(null, "Bench User", "555-0000", "bench.user@example.com", Set.of("ROLE_USER"));
+        user.setUsername(USERNAME);
+        user.setPassword(context.getBean(PasswordEncoder.class).encode(PASSWORD));
+        context.getBean(UserRepository.class).save(user);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public UserPrincipal authenticate() {
+        return userService.authenticate(USERNAME, PASSWORD);
+    }
+
+    @Benchmark
+    public boolean wrongPassword() {
+        try {
+            userService.authenticate(USERNAME, "wrong-password");
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+}
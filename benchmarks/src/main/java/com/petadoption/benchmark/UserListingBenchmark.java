@@ -0,0 +1,96 @@
+package com.petadoption.benchmark;
+
+import com.petadoption.benchmark.support.BenchmarkContexts;
+import com.petadoption.benchmark.support.QueryCounters;
+import com.petadoption.benchmark.support.RepositoryBenchmarkConfig;
+import com.petadoption.dto.UserDTO;
+import com.petadoption.model.User;
+import com.petadoption.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the legacy user listing (load every User entity, then map to UserDTO) with
+ * the paginated projection query used by GET /api/users.
+
+ * Besides latency, the {@link QueryCounters} report how many SQL statements each
+ * operation issued, which exposes any per-row queries triggered by loading full entities.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class UserListingBenchmark {
+
+    private static final int SEED_CHUNK_SIZE = 5_000;
+
+    @Param("100000")
+    public int users;
+
+    @Param("50")
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+    private Statistics statistics;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("user-listing", RepositoryBenchmarkConfig.class,
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=500");
+        userRepository = context.getBean(UserRepository.class);
+        statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        List<User> chunk = new ArrayList<>(SEED_CHUNK_SIZE);
+        for (int i = 0; i < users; i++) {
+            User user = new User(null, "User " + i, "555-" + i, "user" + i + "@example.com", Set.of("ROLE_USER"));
+            user.setUsername("user" + i);
+            user.setPassword("{noop}password");
+            chunk.add(user);
+            if (chunk.size() == SEED_CHUNK_SIZE) {
+                userRepository.saveAll(chunk);
+                chunk.clear();
+            }
+        }
+        userRepository.saveAll(chunk);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<UserDTO> findAllThenMap(QueryCounters counters) {
+        long before = statistics.getPrepareStatementCount();
+        List<UserDTO> result = userRepository.findAll()
+                .stream()
+                .map(user -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getPhone()))
+                .toList();
+        counters.record(statistics.getPrepareStatementCount() - before);
+        return result;
+    }
+
+    @Benchmark
+    public Page<UserDTO> projectionPage(QueryCounters counters) {
+        int page = ThreadLocalRandom.current().nextInt(users / pageSize);
+        long before = statistics.getPrepareStatementCount();
+        Page<UserDTO> result = userRepository.findAllUserDTOs(PageRequest.of(page, pageSize, Sort.by("id")));
+        counters.record(statistics.getPrepareStatementCount() - before);
+        return result;
+    }
+}
@@ -0,0 +1,102 @@
+package com.petadoption.benchmark;
+
+import com.petadoption.benchmark.support.BenchmarkContexts;
+import com.petadoption.benchmark.support.RepositoryBenchmarkConfig;
+import com.petadoption.data.UserSearchIndexMigration;
+import com.petadoption.dto.UserDTO;
+import com.petadoption.model.enums.SearchMode;
+import com.petadoption.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the admin user search (GET /api/users/search) on a seeded table of a million users.
+
+ * The latency target is a p99 below 50 ms per page (query plus count) for both modes. It is
+ * only meaningful against PostgreSQL, where UserSearchIndexMigration creates the indexes, so
+ * run it with {@code -Dbenchmark.datasource.url=...} (see benchmarks/pom.xml); on H2 every
+ * search scans the table. The query plans are printed once after seeding to check that the
+ * indexes are used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    private static final int SEED_BATCH_SIZE = 10_000;
+
+    private static final String[] FIRST_NAMES = {"Maria", "Jose", "Lucia", "Martin", "Sofia", "Daniel", "Paula", "Hugo", "Elena", "Mateo"};
+    private static final String[] LAST_NAMES = {"Garcia", "Fernandez", "Lopez", "Martinez", "Sanchez", "Perez", "Gomez", "Ruiz", "Diaz", "Moreno"};
+    private static final String[] PREFIX_TERMS = {"mar", "lucia g", "user12345", "555-0042", "hugo"};
+    private static final String[] CONTAINS_TERMS = {"ndez", "user98765@", "tinez", "-77777", "rez 4"};
+
+    @Param("1000000")
+    public int users;
+
+    @Param({"PREFIX", "CONTAINS"})
+    public SearchMode mode;
+
+    @Param("20")
+    public int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private UserRepository userRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContexts.start("user-search", RepositoryBenchmarkConfig.class);
+        userRepository = context.getBean(UserRepository.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        List<Object[]> batch = new ArrayList<>(SEED_BATCH_SIZE);
+        for (int i = 0; i < users; i++) {
+            String name = FIRST_NAMES[i % FIRST_NAMES.length] + " " + LAST_NAMES[(i / FIRST_NAMES.length) % LAST_NAMES.length] + " " + i;
+            batch.add(new Object[]{name, String.format("555-%07d", i), "user" + i, "user" + i + "@example.com"});
+            if (batch.size() == SEED_BATCH_SIZE || i == users - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO app_user (name, phone, username, email, password, roles_mask) " +
+                        "VALUES (?, ?, ?, ?, '{noop}password', 1)", batch);
+                batch.clear();
+            }
+        }
+
+        // Indexes are built after the bulk load, which is faster than maintaining them per row
+        new UserSearchIndexMigration(jdbcTemplate, context.getBean(EntityManagerFactory.class)).migrate();
+        if (BenchmarkContexts.usesExternalDatabase()) {
+            jdbcTemplate.execute("ANALYZE app_user");
+            for (String term : new String[]{PREFIX_TERMS[0] + "%", "%" + CONTAINS_TERMS[0] + "%"}) {
+                System.out.println("Plan for '" + term + "':");
+                jdbcTemplate.queryForList("EXPLAIN SELECT id, name, email, phone FROM app_user " +
+                                "WHERE lower(name) LIKE ? OR lower(email) LIKE ? OR phone LIKE ? ORDER BY id LIMIT " + pageSize,
+                                String.class, term, term, term)
+                        .forEach(line -> System.out.println("  " + line));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<UserDTO> search() {
+        String[] terms = mode == SearchMode.PREFIX ? PREFIX_TERMS : CONTAINS_TERMS;
+        String term = terms[ThreadLocalRandom.current().nextInt(terms.length)].toLowerCase(Locale.ROOT);
+        String pattern = mode == SearchMode.PREFIX ? term + "%" : "%" + term + "%";
+        return userRepository.searchUserDTOs(pattern, PageRequest.of(0, pageSize, Sort.by("id")));
+    }
+}
@@ -0,0 +1,94 @@
+package com.petadoption.benchmark;
+
+import com.petadoption.model.Adoption;
+import com.petadoption.model.Pet;
+import com.petadoption.model.TypeOfPet;
+import com.petadoption.model.User;
+import com.petadoption.model.enums.PetStatus;
+import com.petadoption.validation.AdoptionValidators;
+import com.petadoption.validation.PetValidators;
+import com.petadoption.validation.UserValidators;
+import com.petadoption.validation.ValidationErrors;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Date;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-entity cost of the validation layer.
+
+ * {@code legacyUser*} reproduce the former UserService.validateUser, which recompiled the
+ * email regex through String.matches on every call and threw on the first error; they are
+ * kept here only as a baseline. Run with {@code -prof gc} to compare allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private static final String LEGACY_EMAIL_REGEX = "^[\\w-.]+@([\\w-]+.)+[\\w-]{2,4}$";
+
+    private User validUser;
+    private User invalidUser;
+    private Pet validPet;
+    private Adoption validAdoption;
+
+    @Setup
+    public void setUp() {
+        validUser = new User(1L, "John Doe", "123456789", "john.doe@example.com", Set.of("ROLE_USER"));
+        invalidUser = new User(1L, "", "", "not-an-email", Set.of("ROLE_USER"));
+        validPet = new Pet(1L, "Buddy", 2, PetStatus.AVAILABLE, new TypeOfPet("Dog", 1L), "Madrid");
+        validAdoption = new Adoption(1L, validPet, validUser, new Date(), "PENDING");
+    }
+
+    @Benchmark
+    public boolean legacyValidUser() {
+        return legacyValidateUser(validUser);
+    }
+
+    @Benchmark
+    public boolean legacyInvalidUser() {
+        return legacyValidateUser(invalidUser);
+    }
+
+    @Benchmark
+    public ValidationErrors validUser() {
+        return UserValidators.CREATE.validate(validUser);
+    }
+
+    @Benchmark
+    public ValidationErrors invalidUser() {
+        return UserValidators.CREATE.validate(invalidUser);
+    }
+
+    @Benchmark
+    public ValidationErrors validPet() {
+        return PetValidators.UPDATE.validate(validPet);
+    }
+
+    @Benchmark
+    public ValidationErrors validAdoption() {
+        return AdoptionValidators.DEFAULT.validate(validAdoption);
+    }
+
+    private static boolean legacyValidateUser(User user) {
+        try {
+            if (user.getName() == null || user.getName().isBlank()) {
+                throw new IllegalArgumentException("Name must not be null or empty");
+            }
+            if (user.getEmail() == null || user.getEmail().isBlank() || !user.getEmail().matches(LEGACY_EMAIL_REGEX)) {
+                throw new IllegalArgumentException("Email is invalid");
+            }
+            if (user.getPhone() == null || user.getPhone().isBlank()) {
+                throw new IllegalArgumentException("Phone must not be null or empty");
+            }
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
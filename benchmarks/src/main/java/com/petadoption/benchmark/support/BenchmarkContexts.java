@@ -0,0 +1,58 @@
+package com.petadoption.benchmark.support;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Starts Spring contexts for benchmarks against an in-memory H2 database running in
+ * PostgreSQL compatibility mode.
+
+ * When the system property {@code benchmark.datasource.url} is set, a real database is
+ * used instead (with {@code benchmark.datasource.username} and
+ * {@code benchmark.datasource.password}). Its schema is dropped and recreated, so it must
+ * be a database dedicated to benchmarks.
+
+ * The settings are passed as command line arguments because those take precedence over
+ * the application.properties packaged in the application jar (which points to the
+ * remote database).
+ */
+public final class BenchmarkContexts {
+
+    private BenchmarkContexts() {}
+
+    public static ConfigurableApplicationContext start(String databaseName, Class<?> configuration, String... extraArguments) {
+        List<String> arguments = new ArrayList<>(usesExternalDatabase()
+                ? List.of(
+                        "--spring.datasource.url=" + System.getProperty("benchmark.datasource.url"),
+                        "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", ""),
+                        "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""),
+                        "--spring.datasource.driver-class-name=org.postgresql.Driver")
+                : List.of(
+                        "--spring.datasource.url=jdbc:h2:mem:" + databaseName + ";DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver"));
+        arguments.addAll(List.of(
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.generate_statistics=true",
+                "--logging.level.root=WARN",
+                "--spring.main.banner-mode=off"
+        ));
+        arguments.addAll(Arrays.asList(extraArguments));
+
+        return new SpringApplicationBuilder(configuration)
+                .web(WebApplicationType.NONE)
+                .run(arguments.toArray(String[]::new));
+    }
+
+    public static boolean usesExternalDatabase() {
+        String url = System.getProperty("benchmark.datasource.url");
+        return url != null && !url.isBlank();
+    }
+}
@@ -0,0 +1,94 @@
+package com.petadoption.benchmark.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (target/jmh-result.json of two commits) and prints the
+ * change of every benchmark present in both, matched by benchmark name and parameters.
+
+ * A change counts as a regression when the score got worse (lower throughput, or higher
+ * time for the time-based modes) by more than the threshold and by more than the sum of
+ * both error margins, so noise within the confidence intervals is not reported. The exit
+ * code is 1 when there is any regression, so it can fail a CI step.
+
+ * Usage (from the repository root):
+ *   ./mvnw -f benchmarks/pom.xml exec:java -Dexec.mainClass=com.petadoption.benchmark.support.JmhResultDiff \
+ *       -Dexec.args="baseline.json benchmarks/target/jmh-result.json [threshold-percent]"
+ */
+public final class JmhResultDiff {
+
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    private JmhResultDiff() {}
+
+    record Result(String mode, double score, double error, String unit) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: JmhResultDiff <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+
+        Map<String, Result> baseline = read(new File(args[0]));
+        Map<String, Result> current = read(new File(args[1]));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, Result> entry : current.entrySet()) {
+            Result before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s%n", entry.getKey(), "-", entry.getValue().score(), "new");
+                continue;
+            }
+            Result after = entry.getValue();
+            double changePercent = (after.score() - before.score()) / before.score() * 100;
+            boolean higherIsBetter = "thrpt".equals(after.mode());
+            double worsePercent = higherIsBetter ? -changePercent : changePercent;
+            boolean significant = Math.abs(after.score() - before.score()) > before.error() + after.error();
+            boolean regression = worsePercent > threshold && significant;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%% %s%s%n", entry.getKey(), before.score(), after.score(),
+                    changePercent, after.unit(), regression ? "  REGRESSION" : "");
+        }
+        for (String removed : baseline.keySet()) {
+            if (!current.containsKey(removed)) {
+                System.out.printf("%-90s %14.3f %14s %9s%n", removed, baseline.get(removed).score(), "-", "removed");
+            }
+        }
+
+        System.out.printf("%n%d regression(s) above %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    static Map<String, Result> read(File file) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.get("benchmark").asText());
+            JsonNode params = run.get("params");
+            if (params != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> param = fields.next();
+                    key.append(key.indexOf(":") < 0 ? ":" : ",").append(param.getKey()).append('=').append(param.getValue().asText());
+                }
+            }
+            JsonNode metric = run.get("primaryMetric");
+            double error = metric.get("scoreError").asDouble(0);
+            results.put(key.toString(), new Result(run.get("mode").asText(), metric.get("score").asDouble(),
+                    Double.isNaN(error) ? 0 : error, metric.get("scoreUnit").asText()));
+        }
+        return results;
+    }
+}
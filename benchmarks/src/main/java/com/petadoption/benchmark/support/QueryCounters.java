@@ -0,0 +1,30 @@
+package com.petadoption.benchmark.support;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * JMH auxiliary counters reporting how many SQL statements the benchmarked operations issued.
+ * Divide {@code statements} by {@code invocations} to get the number of queries per operation.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class QueryCounters {
+
+    public long statements;
+    public long invocations;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        statements = 0;
+        invocations = 0;
+    }
+
+    public void record(long statementCount) {
+        statements += statementCount;
+        invocations++;
+    }
+}
@@ -0,0 +1,17 @@
+package com.petadoption.benchmark.support;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Minimal configuration exposing only the JPA entities and repositories of the application,
+ * for benchmarks that measure the persistence layer in isolation.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan("com.petadoption.model")
+@EnableJpaRepositories("com.petadoption.repository")
+public class RepositoryBenchmarkConfig {
+}
@@ -0,0 +1,24 @@
+package com.petadoption.benchmark.support;
+
+import com.petadoption.config.JwtConfig;
+import com.petadoption.config.PasswordEncoderConfig;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+
+/**
+ * Configuration running the application services (JwtService, UserService, ...) with their
+ * real JWT keys and password encoder on top of the repositories, without the web layer, for
+ * benchmarks that measure service-level operations against the benchmark database.
+ */
+@SpringBootConfiguration
+@EnableAutoConfiguration
+@EntityScan("com.petadoption.model")
+@EnableJpaRepositories("com.petadoption.repository")
+@ComponentScan("com.petadoption.service")
+@Import({JwtConfig.class, PasswordEncoderConfig.class})
+public class ServiceBenchmarkConfig {
+}
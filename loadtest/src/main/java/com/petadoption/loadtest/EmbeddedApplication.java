@@ -0,0 +1,82 @@
+package com.petadoption.loadtest;
+
+import com.petadoption.PetAdoptionApplication;
+import com.petadoption.model.TypeOfPet;
+import com.petadoption.repository.TypeOfPetRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the application in-process as a stand-in for a deployed instance: the real web
+ * layer on a random port, on an in-memory H2 database in PostgreSQL compatibility mode.
+
+ * The pet types are seeded directly, as the API has no endpoint to create them; users, the
+ * admin account and pets are created over HTTP by the setup phases, as for a remote instance.
+ * Being in the same JVM as the load generator, it competes with it for CPU, so its results
+ * are for comparing changes, not for sizing. H2 synchronizes internally, so with virtual threads
+ * it pins carriers where the PostgreSQL driver would not; compare thread modes against PostgreSQL.
+ */
+public final class EmbeddedApplication implements AutoCloseable {
+
+    private static final List<String> PET_TYPES = List.of("Dog", "Cat", "Hamster", "Tortoise");
+
+    private final ConfigurableApplicationContext context;
+
+    private EmbeddedApplication(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    public static EmbeddedApplication start(String adminKey, boolean virtualThreads) {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(PetAdoptionApplication.class).run(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN",
+                "--spring.main.banner-mode=off",
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--app.admin-key=" + adminKey);
+
+        TypeOfPetRepository typeOfPetRepository = context.getBean(TypeOfPetRepository.class);
+        PET_TYPES.forEach(name -> typeOfPetRepository.save(new TypeOfPet(name, null)));
+        return new EmbeddedApplication(context);
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    /**
+     * Returns the server-side metrics worth reporting next to the latencies: how often and how
+     * long virtual threads were pinned to their carrier (zero with platform threads).
+     */
+    public Map<String, Object> serverMetrics() {
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+        long pins = 0;
+        double pinnedMs = 0;
+        for (Timer timer : meterRegistry.find("virtual.threads.pinned").timers()) {
+            pins += timer.count();
+            pinnedMs += timer.totalTime(TimeUnit.MILLISECONDS);
+        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("virtualThreadPins", pins);
+        metrics.put("virtualThreadPinnedMs", pinnedMs);
+        return metrics;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+}
@@ -0,0 +1,123 @@
+package com.petadoption.loadtest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Parses the IntelliJ-style .http request collections of the repository (requests.http and
+ * src/main/resources/http_requests/*.http).
+
+ * Requests are separated by lines starting with "###", whose remaining text is the title.
+ * Within a request, comment lines ("#" or "//") before the request line are skipped, the
+ * request line is "METHOD URL [HTTP/x]", headers follow until the first blank line and the
+ * rest is the body. Trailing "// ..." comments on header lines are removed.
+ */
+public final class HttpFileParser {
+
+    private static final Set<String> METHODS = Set.of("GET", "POST", "PUT", "PATCH", "DELETE", "HEAD", "OPTIONS");
+    private static final Pattern REQUEST_LINE = Pattern.compile("^([A-Z]+)\\s+(\\S+)(\\s+HTTP/\\S+)?\\s*$");
+    private static final Pattern SCHEME_AND_HOST = Pattern.compile("^(https?://)?[^/]+");
+
+    private HttpFileParser() {}
+
+    /**
+     * Parses every .http file of the given files and directories.
+     */
+    public static List<RequestTemplate> parseAll(List<Path> locations) {
+        List<RequestTemplate> templates = new ArrayList<>();
+        for (Path location : locations) {
+            if (Files.isDirectory(location)) {
+                try (Stream<Path> files = Files.list(location)) {
+                    files.filter(file -> file.toString().endsWith(".http")).sorted().forEach(file -> templates.addAll(parse(file)));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            } else {
+                templates.addAll(parse(location));
+            }
+        }
+        return templates;
+    }
+
+    public static List<RequestTemplate> parse(Path file) {
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        List<RequestTemplate> templates = new ArrayList<>();
+        String source = file.getFileName().toString();
+        String title = "";
+        List<String> block = new ArrayList<>();
+        for (String line : lines) {
+            if (line.startsWith("###")) {
+                parseBlock(source, title, block).ifPresent(templates::add);
+                title = line.substring(3).trim();
+                block.clear();
+            } else {
+                block.add(line);
+            }
+        }
+        parseBlock(source, title, block).ifPresent(templates::add);
+        return templates;
+    }
+
+    private static Optional<RequestTemplate> parseBlock(String source, String title, List<String> block) {
+        int index = 0;
+        Matcher requestLine = null;
+        for (; index < block.size(); index++) {
+            String line = block.get(index).trim();
+            if (line.isEmpty() || line.startsWith("#") || line.startsWith("//")) {
+                continue;
+            }
+            Matcher matcher = REQUEST_LINE.matcher(line);
+            if (matcher.matches() && METHODS.contains(matcher.group(1))) {
+                requestLine = matcher;
+                index++;
+            }
+            break;
+        }
+        if (requestLine == null) {
+            return Optional.empty();
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>();
+        for (; index < block.size(); index++) {
+            String line = stripComment(block.get(index)).trim();
+            if (line.isEmpty()) {
+                index++;
+                break;
+            }
+            int colon = line.indexOf(':');
+            if (colon > 0) {
+                String name = line.substring(0, colon).trim();
+                if (!name.equalsIgnoreCase("Authorization")) {
+                    headers.put(name, line.substring(colon + 1).trim());
+                }
+            }
+        }
+
+        String body = String.join("\n", block.subList(Math.min(index, block.size()), block.size())).trim();
+        String path = SCHEME_AND_HOST.matcher(requestLine.group(2)).replaceFirst("");
+        return Optional.of(new RequestTemplate(source, title, requestLine.group(1),
+                path.isEmpty() ? "/" : path, headers, body.isEmpty() ? null : body));
+    }
+
+    private static String stripComment(String line) {
+        int comment = line.indexOf(" //");
+        return comment >= 0 ? line.substring(0, comment) : line;
+    }
+}
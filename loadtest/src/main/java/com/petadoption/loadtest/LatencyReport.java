@@ -0,0 +1,146 @@
+package com.petadoption.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects the outcome of every request per endpoint and of every session per scenario, in
+ * HDR histograms with microsecond resolution, while recording is on (after the warm-up).
+
+ * Endpoint latency is measured from sending the request to receiving the whole response.
+ * Scenario latency is measured from the session's scheduled arrival time, so any delay in
+ * starting it (client saturation) is included instead of hidden (coordinated omission).
+ */
+public final class LatencyReport {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+
+    private final Map<String, Stats> endpoints = new ConcurrentHashMap<>();
+    private final Map<String, Stats> scenarios = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean recording;
+    private volatile long recordingStartNanos;
+    private volatile long recordingEndNanos;
+
+    public void startRecording() {
+        recordingStartNanos = System.nanoTime();
+        recording = true;
+    }
+
+    public void stopRecording() {
+        recording = false;
+        recordingEndNanos = System.nanoTime();
+    }
+
+    public void recordRequest(String endpoint, long latencyNanos, int status, boolean error) {
+        if (recording) {
+            endpoints.computeIfAbsent(endpoint, name -> new Stats()).record(latencyNanos, status, error);
+        }
+    }
+
+    public void recordSession(String scenario, long latencyNanos, boolean error) {
+        if (recording) {
+            scenarios.computeIfAbsent(scenario, name -> new Stats()).record(latencyNanos, 0, error);
+        }
+    }
+
+    public void recordDropped() {
+        if (recording) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Writes summary.json (counts, throughput, error rates and percentiles in milliseconds) and
+     * one HdrHistogram percentile distribution (.hgrm, in milliseconds) per endpoint and scenario.
+     * Server metrics, when the application runs in-process, are written alongside.
+     */
+    public Map<String, Object> write(Path directory, Map<String, Object> settings, Map<String, Object> server,
+                                     ObjectMapper objectMapper) throws IOException {
+        Files.createDirectories(directory.resolve("histograms"));
+        double seconds = (recordingEndNanos - recordingStartNanos) / 1e9;
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("settings", settings);
+        summary.put("measuredSeconds", seconds);
+        summary.put("droppedSessions", dropped.sum());
+        if (!server.isEmpty()) {
+            summary.put("server", server);
+        }
+        summary.put("scenarios", section(scenarios, seconds, directory, "scenario-"));
+        summary.put("endpoints", section(endpoints, seconds, directory, "endpoint-"));
+
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(directory.resolve("summary.json").toFile(), summary);
+        return summary;
+    }
+
+    private static Map<String, Object> section(Map<String, Stats> stats, double seconds, Path directory, String prefix) throws IOException {
+        Map<String, Object> section = new TreeMap<>();
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            Stats value = entry.getValue();
+            Histogram histogram = value.histogram.copy();
+            long count = value.count.sum();
+            long errors = value.errors.sum();
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("count", count);
+            result.put("errors", errors);
+            result.put("errorRate", count == 0 ? 0 : (double) errors / count);
+            result.put("throughputPerSecond", seconds == 0 ? 0 : count / seconds);
+            result.put("p50Ms", millis(histogram.getValueAtPercentile(50)));
+            result.put("p90Ms", millis(histogram.getValueAtPercentile(90)));
+            result.put("p99Ms", millis(histogram.getValueAtPercentile(99)));
+            result.put("p999Ms", millis(histogram.getValueAtPercentile(99.9)));
+            result.put("maxMs", millis(histogram.getMaxValue()));
+            if (!value.statuses.isEmpty()) {
+                Map<String, Long> statuses = new TreeMap<>();
+                value.statuses.forEach((status, counter) -> statuses.put(status == -1 ? "failed" : Integer.toString(status), counter.sum()));
+                result.put("statuses", statuses);
+            }
+            section.put(entry.getKey(), result);
+
+            Path file = directory.resolve("histograms").resolve(prefix + entry.getKey().replaceAll("[^A-Za-z0-9._-]+", "_") + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        return section;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class Stats {
+
+        private final Histogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        // Status code -> responses; -1 counts requests that got no response
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+        private void record(long latencyNanos, int status, boolean error) {
+            histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+            count.increment();
+            if (error) {
+                errors.increment();
+            }
+            if (status != 0) {
+                statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+            }
+        }
+    }
+}
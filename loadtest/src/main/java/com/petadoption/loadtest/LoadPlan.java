@@ -0,0 +1,104 @@
+package com.petadoption.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The scenarios of a load test, read from a JSON file (loadtest/scenarios.json), whose steps
+ * refer to the requests of the .http collections as {@code "<file>#<title prefix>"}.
+
+ * Setup phases run once, in order, before the load starts. A phase repeated "users" times
+ * creates the pool of accounts: its variables and extracted values are kept per index, and
+ * every session binds the values of one random pool user. Values extracted by other phases
+ * become global variables. Scenarios are then started at random, proportionally to their weight.
+ */
+public record LoadPlan(List<Phase> setup, List<Scenario> scenarios) {
+
+    public static final String USERS_REPEAT = "users";
+    public static final String PETS_REPEAT = "pets";
+
+    public record Phase(String name, String repeat, Map<String, String> variables, List<Step> steps) {}
+
+    public record Scenario(String name, int weight, List<Step> steps) {}
+
+    /**
+     * @param label    the endpoint name in the report; derived from the method and path when absent.
+     * @param bearer   the variable holding the access token to send, if any.
+     * @param expected the accepted status codes; any 2xx when empty.
+     * @param extract  variables to set from the JSON response, as JSON pointers ("*" picks a random array element).
+     */
+    public record Step(RequestTemplate template, String label, String path, String body, String bearer,
+                       List<Integer> expected, Map<String, String> extract) {}
+
+    public static LoadPlan read(Path file, List<RequestTemplate> templates, ObjectMapper objectMapper) throws IOException {
+        JsonNode root = objectMapper.readTree(file.toFile());
+
+        List<Phase> setup = new ArrayList<>();
+        for (JsonNode phase : root.path("setup")) {
+            setup.add(new Phase(phase.path("name").asText("setup"), phase.path("repeat").asText("1"),
+                    strings(phase.path("variables")), steps(phase.path("steps"), templates, objectMapper)));
+        }
+
+        List<Scenario> scenarios = new ArrayList<>();
+        for (JsonNode scenario : root.path("scenarios")) {
+            scenarios.add(new Scenario(scenario.path("name").asText(), scenario.path("weight").asInt(1),
+                    steps(scenario.path("steps"), templates, objectMapper)));
+        }
+        if (scenarios.isEmpty()) {
+            throw new IllegalArgumentException("No scenarios defined in " + file);
+        }
+        return new LoadPlan(setup, scenarios);
+    }
+
+    private static List<Step> steps(JsonNode steps, List<RequestTemplate> templates, ObjectMapper objectMapper) throws IOException {
+        List<Step> result = new ArrayList<>();
+        for (JsonNode step : steps) {
+            RequestTemplate template = find(templates, step.path("request").asText());
+            JsonNode body = step.get("body");
+            String bodyText = body == null ? null : body.isTextual() ? body.asText() : objectMapper.writeValueAsString(body);
+
+            List<Integer> expected = new ArrayList<>();
+            step.path("expect").forEach(status -> expected.add(status.asInt()));
+
+            result.add(new Step(template, text(step, "label"), text(step, "path"), bodyText, text(step, "bearer"),
+                    List.copyOf(expected), strings(step.path("extract"))));
+        }
+        return result;
+    }
+
+    private static RequestTemplate find(List<RequestTemplate> templates, String reference) {
+        int separator = reference.indexOf('#');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Request reference must be <file>#<title prefix>: " + reference);
+        }
+        String source = reference.substring(0, separator);
+        String title = reference.substring(separator + 1);
+        return templates.stream()
+                .filter(template -> template.source().equals(source) && template.title().startsWith(title))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("No request '" + title + "' in " + source));
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static Map<String, String> strings(JsonNode object) {
+        Map<String, String> values = new LinkedHashMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            values.put(field.getKey(), field.getValue().asText());
+        }
+        return values;
+    }
+}
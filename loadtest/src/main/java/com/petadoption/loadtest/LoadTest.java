@@ -0,0 +1,243 @@
+package com.petadoption.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator for the Pet Adoption API.
+
+ * Sessions arrive as a Poisson process at {@code loadtest.rate} sessions per second: the
+ * arrival times are drawn up front from exponential gaps and do not wait for earlier sessions
+ * to finish, so a slow server faces a growing number of concurrent sessions instead of a
+ * slower load (as real users behave). Every session runs one scenario of the plan, picked by
+ * weight, on its own virtual thread. Arrivals beyond {@code loadtest.max-in-flight} concurrent
+ * sessions are dropped and counted.
+
+ * Settings (system properties): base-url (empty starts the application in-process, see
+ * {@link EmbeddedApplication}), threads (platform or virtual: the thread mode of the in-process
+ * application, only a label for a remote one), rate, duration and warmup (e.g. 90s, 2m), users and pets
+ * (sizes of the setup pools), admin-key, scenarios, http-files (comma separated files or
+ * directories), output, max-in-flight, request-timeout and seed, all prefixed with "loadtest.".
+ */
+public final class LoadTest {
+
+    private LoadTest() {}
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        String baseUrl = property("base-url", "");
+        double rate = Double.parseDouble(property("rate", "10"));
+        Duration duration = duration(property("duration", "1m"));
+        Duration warmup = duration(property("warmup", "10s"));
+        int users = Integer.parseInt(property("users", "20"));
+        int pets = Integer.parseInt(property("pets", "50"));
+        int maxInFlight = Integer.parseInt(property("max-in-flight", "10000"));
+        Duration requestTimeout = duration(property("request-timeout", "30s"));
+        long seed = Long.parseLong(property("seed", Long.toString(System.nanoTime())));
+        String adminKey = property("admin-key", "loadtest-admin-key");
+        String threads = property("threads", "platform");
+        if (!threads.equals("platform") && !threads.equals("virtual")) {
+            throw new IllegalArgumentException("loadtest.threads must be platform or virtual, not " + threads);
+        }
+        Path output = Path.of(property("output", "target/loadtest/" + threads));
+
+        List<RequestTemplate> templates = HttpFileParser.parseAll(Arrays.stream(property("http-files",
+                        "../src/main/resources/http_requests,../requests.http").split(","))
+                .map(String::trim).map(Path::of).toList());
+        LoadPlan plan = LoadPlan.read(Path.of(property("scenarios", "scenarios.json")), templates, objectMapper);
+
+        EmbeddedApplication embedded = null;
+        if (baseUrl.isBlank()) {
+            System.out.println("Starting the application in-process on H2...");
+            embedded = EmbeddedApplication.start(adminKey, threads.equals("virtual"));
+            baseUrl = embedded.baseUrl();
+        }
+
+        LatencyReport report = new LatencyReport();
+        Map<String, Object> server = new LinkedHashMap<>();
+        try (ExecutorService sessions = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(sessions)
+                    .build();
+            StepExecutor executor = new StepExecutor(client, baseUrl, requestTimeout, report, objectMapper);
+
+            Map<String, String> globals = new HashMap<>();
+            globals.put("runId", Long.toString(System.currentTimeMillis(), 36));
+            globals.put("adminKey", adminKey);
+            List<Map<String, String>> pool = setUp(plan, executor, globals, users, pets);
+
+            System.out.printf("Running %s at %.1f sessions/s for %s (plus %s warm-up) against %s%n",
+                    plan.scenarios().stream().map(LoadPlan.Scenario::name).toList(), rate, duration, warmup, baseUrl);
+            run(plan, executor, report, sessions, globals, pool, rate, warmup, duration, maxInFlight, new Random(seed));
+
+            sessions.shutdown();
+            if (!sessions.awaitTermination(requestTimeout.toSeconds() + 5, TimeUnit.SECONDS)) {
+                sessions.shutdownNow();
+            }
+            if (embedded != null) {
+                server.putAll(embedded.serverMetrics());
+            }
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("baseUrl", baseUrl);
+        settings.put("embedded", embedded != null);
+        settings.put("threads", threads);
+        settings.put("ratePerSecond", rate);
+        settings.put("duration", duration.toString());
+        settings.put("warmup", warmup.toString());
+        settings.put("users", users);
+        settings.put("pets", pets);
+        settings.put("seed", seed);
+        report.write(output, settings, server, objectMapper);
+        System.out.println("Report written to " + output.toAbsolutePath().resolve("summary.json"));
+    }
+
+    /**
+     * Runs the setup phases and returns the variables of every pool user.
+     */
+    private static List<Map<String, String>> setUp(LoadPlan plan, StepExecutor executor, Map<String, String> globals,
+                                                   int users, int pets) throws Exception {
+        List<Map<String, String>> pool = new ArrayList<>();
+        for (LoadPlan.Phase phase : plan.setup()) {
+            int repeat = switch (phase.repeat()) {
+                case LoadPlan.USERS_REPEAT -> users;
+                case LoadPlan.PETS_REPEAT -> pets;
+                default -> Integer.parseInt(phase.repeat());
+            };
+            System.out.printf("Setup: %s (x%d)%n", phase.name(), repeat);
+            for (int index = 0; index < repeat; index++) {
+                Map<String, String> variables = new HashMap<>(globals);
+                variables.put("index", Integer.toString(index));
+                for (Map.Entry<String, String> variable : phase.variables().entrySet()) {
+                    variables.put(variable.getKey(), StepExecutor.substitute(variable.getValue(), variables));
+                }
+                executor.run(phase.steps(), variables);
+
+                if (LoadPlan.USERS_REPEAT.equals(phase.repeat())) {
+                    variables.keySet().removeAll(globals.keySet());
+                    pool.add(variables);
+                } else if (repeat == 1) {
+                    variables.remove("index");
+                    globals.putAll(variables);
+                }
+            }
+        }
+        return pool;
+    }
+
+    private static void run(LoadPlan plan, StepExecutor executor, LatencyReport report, ExecutorService sessions,
+                            Map<String, String> globals, List<Map<String, String>> pool, double rate,
+                            Duration warmup, Duration duration, int maxInFlight, Random random) {
+        int totalWeight = plan.scenarios().stream().mapToInt(LoadPlan.Scenario::weight).sum();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger sessionIds = new AtomicInteger();
+
+        long start = System.nanoTime();
+        long recordFrom = start + warmup.toNanos();
+        long end = recordFrom + duration.toNanos();
+        boolean recording = false;
+        long next = start;
+        while (true) {
+            // Exponential gaps between arrivals make a Poisson process
+            next += (long) (-Math.log(1 - random.nextDouble()) / rate * 1e9);
+            if (next >= end) {
+                break;
+            }
+            long wait;
+            while ((wait = next - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!recording && next >= recordFrom) {
+                report.startRecording();
+                recording = true;
+            }
+
+            if (inFlight.get() >= maxInFlight) {
+                report.recordDropped();
+                continue;
+            }
+            LoadPlan.Scenario scenario = pick(plan.scenarios(), random.nextInt(totalWeight));
+            Map<String, String> variables = new HashMap<>(globals);
+            if (!pool.isEmpty()) {
+                variables.putAll(pool.get(random.nextInt(pool.size())));
+            }
+            variables.put("sessionId", globals.get("runId") + "_" + sessionIds.incrementAndGet());
+
+            long arrival = next;
+            inFlight.incrementAndGet();
+            sessions.execute(() -> {
+                boolean failed = false;
+                try {
+                    executor.run(scenario.steps(), variables);
+                } catch (StepExecutor.StepFailedException e) {
+                    failed = true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failed = true;
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+                report.recordSession(scenario.name(), System.nanoTime() - arrival, failed);
+            });
+        }
+        while (System.nanoTime() < end) {
+            LockSupport.parkNanos(end - System.nanoTime());
+        }
+        report.stopRecording();
+    }
+
+    private static LoadPlan.Scenario pick(List<LoadPlan.Scenario> scenarios, int ticket) {
+        for (LoadPlan.Scenario scenario : scenarios) {
+            ticket -= scenario.weight();
+            if (ticket < 0) {
+                return scenario;
+            }
+        }
+        return scenarios.get(scenarios.size() - 1);
+    }
+
+    private static String property(String name, String defaultValue) {
+        String value = System.getProperty("loadtest." + name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    // Accepts 500ms, 90s, 2m, 1h or ISO-8601 (PT2M)
+    static Duration duration(String value) {
+        String text = value.trim().toLowerCase();
+        if (text.startsWith("pt")) {
+            return Duration.parse(text.toUpperCase());
+        }
+        if (text.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(text.substring(0, text.length() - 2)));
+        }
+        long amount = Long.parseLong(text.substring(0, text.length() - 1));
+        return switch (text.charAt(text.length() - 1)) {
+            case 's' -> Duration.ofSeconds(amount);
+            case 'm' -> Duration.ofMinutes(amount);
+            case 'h' -> Duration.ofHours(amount);
+            default -> throw new IllegalArgumentException("Unknown duration " + value);
+        };
+    }
+}
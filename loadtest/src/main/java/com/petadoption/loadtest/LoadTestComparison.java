@@ -0,0 +1,82 @@
+package com.petadoption.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares two load test reports (summary.json), e.g. the same run with platform and with
+ * virtual threads, printing side by side the throughput, error rate and latency percentiles
+ * of every scenario and endpoint present in both, and the server metrics of each.
+
+ * Usage: LoadTestComparison &lt;baseline summary.json&gt; &lt;candidate summary.json&gt;
+ */
+public final class LoadTestComparison {
+
+    private static final List<String> METRICS = List.of("throughputPerSecond", "errorRate", "p50Ms", "p90Ms", "p99Ms", "p999Ms");
+
+    private LoadTestComparison() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LoadTestComparison <baseline summary.json> <candidate summary.json>");
+            System.exit(2);
+        }
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode baseline = objectMapper.readTree(Path.of(args[0]).toFile());
+        JsonNode candidate = objectMapper.readTree(Path.of(args[1]).toFile());
+
+        System.out.printf("Baseline:  %s%nCandidate: %s%n", label(baseline), label(candidate));
+        compareSection("Scenarios", baseline.path("scenarios"), candidate.path("scenarios"));
+        compareSection("Endpoints", baseline.path("endpoints"), candidate.path("endpoints"));
+
+        System.out.printf("%nDropped sessions: %d -> %d%n",
+                baseline.path("droppedSessions").asLong(), candidate.path("droppedSessions").asLong());
+        if (baseline.has("server") || candidate.has("server")) {
+            System.out.printf("Server: %s -> %s%n", baseline.path("server"), candidate.path("server"));
+        }
+    }
+
+    private static void compareSection(String title, JsonNode baseline, JsonNode candidate) {
+        System.out.printf("%n%s%n", title);
+        System.out.printf("%-45s %-20s %12s %12s %9s%n", "name", "metric", "baseline", "candidate", "change");
+        Iterator<Map.Entry<String, JsonNode>> entries = baseline.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            JsonNode other = candidate.get(entry.getKey());
+            if (other == null) {
+                System.out.printf("%-45s only in the baseline%n", entry.getKey());
+                continue;
+            }
+            for (String metric : METRICS) {
+                double before = entry.getValue().path(metric).asDouble();
+                double after = other.path(metric).asDouble();
+                System.out.printf("%-45s %-20s %12.3f %12.3f %9s%n", entry.getKey(), metric, before, after, change(before, after));
+            }
+        }
+        candidate.fieldNames().forEachRemaining(name -> {
+            if (!baseline.has(name)) {
+                System.out.printf("%-45s only in the candidate%n", name);
+            }
+        });
+    }
+
+    private static String change(double before, double after) {
+        if (before == 0) {
+            return after == 0 ? "0%" : "n/a";
+        }
+        return String.format("%+.1f%%", (after - before) / before * 100);
+    }
+
+    private static String label(JsonNode summary) {
+        JsonNode settings = summary.path("settings");
+        return String.format("%s threads, %s sessions/s for %s against %s",
+                settings.path("threads").asText("platform"), settings.path("ratePerSecond").asText(),
+                settings.path("duration").asText(), settings.path("baseUrl").asText());
+    }
+}
@@ -0,0 +1,12 @@
+package com.petadoption.loadtest;
+
+import java.util.Map;
+
+/**
+ * One request of an .http collection: its title (the text after "###"), method, path
+ * (with query, without scheme and host), headers and body. Authorization headers are not
+ * kept, as the collections hold stale example tokens; scenarios add the session's token.
+ */
+public record RequestTemplate(String source, String title, String method, String path,
+                              Map<String, String> headers, String body) {
+}
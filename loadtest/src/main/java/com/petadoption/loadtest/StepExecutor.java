@@ -0,0 +1,162 @@
+package com.petadoption.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Sends the steps of a scenario or setup phase, substituting {@code {{variable}}}
+ * placeholders, recording every request in the {@link LatencyReport} and setting the
+ * variables extracted from the responses. A step with an unexpected status (or no response)
+ * fails, and the rest of its session is skipped, as later steps depend on its result.
+ */
+public final class StepExecutor {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{\\{([A-Za-z0-9_.-]+)}}");
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Duration timeout;
+    private final LatencyReport report;
+    private final ObjectMapper objectMapper;
+
+    public StepExecutor(HttpClient client, String baseUrl, Duration timeout, LatencyReport report, ObjectMapper objectMapper) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.timeout = timeout;
+        this.report = report;
+        this.objectMapper = objectMapper;
+    }
+
+    public static final class StepFailedException extends Exception {
+        public StepFailedException(String message) {
+            super(message, null, false, false);
+        }
+    }
+
+    /**
+     * Runs the steps in order against the given variables, which receive the extracted values.
+     */
+    public void run(List<LoadPlan.Step> steps, Map<String, String> variables) throws StepFailedException, InterruptedException {
+        for (LoadPlan.Step step : steps) {
+            run(step, variables);
+        }
+    }
+
+    private void run(LoadPlan.Step step, Map<String, String> variables) throws StepFailedException, InterruptedException {
+        RequestTemplate template = step.template();
+        String path = step.path() != null ? step.path() : template.path();
+        String body = step.body() != null ? step.body() : template.body();
+        String endpoint = step.label() != null ? step.label() : endpointName(template.method(), path);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + substitute(path, variables)))
+                .timeout(timeout)
+                .method(template.method(), body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(substitute(body, variables)));
+        for (Map.Entry<String, String> header : template.headers().entrySet()) {
+            if (!header.getKey().equalsIgnoreCase("Content-Length") && !header.getKey().equalsIgnoreCase("Host")) {
+                request.header(header.getKey(), substitute(header.getValue(), variables));
+            }
+        }
+        if (step.bearer() != null) {
+            request.header("Authorization", "Bearer " + require(variables, step.bearer()));
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<String> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            report.recordRequest(endpoint, System.nanoTime() - start, -1, true);
+            throw new StepFailedException(endpoint + ": " + e);
+        }
+        long latency = System.nanoTime() - start;
+
+        int status = response.statusCode();
+        boolean accepted = step.expected().isEmpty() ? status / 100 == 2 : step.expected().contains(status);
+        report.recordRequest(endpoint, latency, status, !accepted);
+        if (!accepted) {
+            throw new StepFailedException(endpoint + " returned " + status + ": " + abbreviate(response.body()));
+        }
+
+        if (!step.extract().isEmpty()) {
+            JsonNode json;
+            try {
+                json = objectMapper.readTree(response.body());
+            } catch (IOException e) {
+                throw new StepFailedException(endpoint + " did not return JSON");
+            }
+            for (Map.Entry<String, String> extract : step.extract().entrySet()) {
+                JsonNode value = select(json, extract.getValue());
+                if (value == null || value.isMissingNode() || value.isNull()) {
+                    throw new StepFailedException(endpoint + " response has no " + extract.getValue());
+                }
+                variables.put(extract.getKey(), value.asText());
+            }
+        }
+    }
+
+    public static String substitute(String text, Map<String, String> variables) throws StepFailedException {
+        if (text == null || text.indexOf('{') < 0) {
+            return text;
+        }
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        StringBuilder result = new StringBuilder();
+        while (matcher.find()) {
+            matcher.appendReplacement(result, Matcher.quoteReplacement(require(variables, matcher.group(1))));
+        }
+        matcher.appendTail(result);
+        return result.toString();
+    }
+
+    // "POST /api/adoption/{{adoptionId}}/approve" and "POST /api/adoption/7/approve" both become "POST /api/adoption/{id}/approve"
+    static String endpointName(String method, String path) {
+        String withoutQuery = path.contains("?") ? path.substring(0, path.indexOf('?')) : path;
+        String normalized = NUMERIC_SEGMENT.matcher(PLACEHOLDER.matcher(withoutQuery).replaceAll("0")).replaceAll("/{id}");
+        return method + " " + normalized;
+    }
+
+    // JSON pointer where a "*" segment picks a random element of an array
+    private static JsonNode select(JsonNode json, String pointer) {
+        JsonNode node = json;
+        for (String segment : pointer.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (segment.equals("*")) {
+                if (!node.isArray() || node.isEmpty()) {
+                    return null;
+                }
+                node = node.get(ThreadLocalRandom.current().nextInt(node.size()));
+            } else {
+                node = node.isArray() ? node.path(Integer.parseInt(segment)) : node.path(segment);
+            }
+        }
+        return node;
+    }
+
+    private static String require(Map<String, String> variables, String name) throws StepFailedException {
+        String value = variables.get(name);
+        if (value == null) {
+            throw new StepFailedException("Variable " + name + " is not set");
+        }
+        return value;
+    }
+
+    private static String abbreviate(String body) {
+        return body == null || body.length() <= 200 ? body : body.substring(0, 200) + "...";
+    }
+}
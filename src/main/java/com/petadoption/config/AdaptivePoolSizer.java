@@ -0,0 +1,121 @@
+package com.petadoption.config;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional sizer that grows and shrinks the maximum size of every Hikari pool within bounds,
+ * from the waits and hold times observed by {@link ConnectionPoolMonitor} over each interval.
+ * Enabled with app.db-pool.adaptive.enabled=true.
+
+ * The hold time of a connection is used as the database response latency: it is mostly spent
+ * waiting on statements. Each pool keeps a baseline (the lowest average hold time seen, drifting
+ * up slowly so lasting changes are learned). At every interval, in this order:
+ * - if holds are slower than the baseline by more than the latency tolerance, the database is
+ *   the bottleneck and more connections would only queue inside it, so the pool shrinks;
+ * - if requests waited longer than the target wait on average, or timed out, the pool grows;
+ * - if the waits are negligible and the busiest moment left at least one step of connections
+ *   unused, the pool shrinks.
+ * Intervals with fewer acquisitions than the minimum sample are ignored. Removed connections
+ * are retired by Hikari as they become idle (idle-timeout), not interrupted.
+ */
+@Component
+@ConditionalOnProperty(name = "app.db-pool.adaptive.enabled", havingValue = "true")
+public class AdaptivePoolSizer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    // How fast the baseline forgets a lower hold time, per interval
+    private static final double BASELINE_DRIFT = 1.05;
+
+    private final ConnectionPoolMonitor connectionPoolMonitor;
+    private final int minimumSize;
+    private final int maximumSize;
+    private final int step;
+    private final double targetWaitMs;
+    private final double latencyTolerance;
+    private final long minimumSamples;
+    private final Map<String, Double> baselineHoldMs = new ConcurrentHashMap<>();
+
+    public AdaptivePoolSizer(ConnectionPoolMonitor connectionPoolMonitor,
+                             @Value("${app.db-pool.adaptive.minimum-size:5}") int minimumSize,
+                             @Value("${app.db-pool.adaptive.maximum-size:30}") int maximumSize,
+                             @Value("${app.db-pool.adaptive.step:2}") int step,
+                             @Value("${app.db-pool.adaptive.target-wait:10ms}") Duration targetWait,
+                             @Value("${app.db-pool.adaptive.latency-tolerance:1.5}") double latencyTolerance,
+                             @Value("${app.db-pool.adaptive.minimum-samples:20}") long minimumSamples) {
+        if (minimumSize < 1 || maximumSize < minimumSize || step < 1) {
+            throw new IllegalArgumentException("Adaptive pool sizing needs 1 <= minimum-size <= maximum-size and a positive step");
+        }
+        this.connectionPoolMonitor = connectionPoolMonitor;
+        this.minimumSize = minimumSize;
+        this.maximumSize = maximumSize;
+        this.step = step;
+        this.targetWaitMs = targetWait.toNanos() / 1e6;
+        this.latencyTolerance = latencyTolerance;
+        this.minimumSamples = minimumSamples;
+    }
+
+    @Scheduled(fixedDelayString = "${app.db-pool.adaptive.interval:PT10S}", initialDelayString = "${app.db-pool.adaptive.interval:PT10S}")
+    public void resize() {
+        for (ConnectionPoolMonitor.PoolUsage pool : connectionPoolMonitor.pools()) {
+            HikariDataSource dataSource = pool.dataSource();
+            ConnectionPoolMonitor.Window window = pool.drain();
+            if (dataSource == null) {
+                continue;
+            }
+            HikariConfigMXBean config = dataSource.getHikariConfigMXBean();
+            int current = config.getMaximumPoolSize();
+            int target = target(pool.poolName(), current, window);
+            if (target != current) {
+                if (config.getMinimumIdle() > target) {
+                    config.setMinimumIdle(target);
+                }
+                config.setMaximumPoolSize(target);
+                logger.info("Resized connection pool {} from {} to {} (average wait {} ms, average hold {} ms, baseline hold {} ms, {} timeouts, peak {} borrowed)",
+                        pool.poolName(), current, target, round(window.averageWaitMs()), round(window.averageHoldMs()),
+                        round(baselineHoldMs(pool.poolName())), window.timeouts(), window.peakBorrowed());
+            }
+        }
+    }
+
+    /**
+     * The new maximum size of a pool from the window of its last interval, updating the pool's
+     * baseline hold time. Does not touch the pool, so it can be driven with made-up windows.
+     */
+    int target(String poolName, int current, ConnectionPoolMonitor.Window window) {
+        if (window.acquisitions() < minimumSamples) {
+            return current;
+        }
+        double holdMs = window.averageHoldMs();
+        double baseline = baselineHoldMs.merge(poolName, holdMs, (previous, observed) -> Math.min(observed, previous * BASELINE_DRIFT));
+
+        int target = current;
+        if (holdMs > baseline * latencyTolerance) {
+            target = current - step;
+        } else if (window.averageWaitMs() > targetWaitMs || window.timeouts() > 0) {
+            target = current + step;
+        } else if (window.averageWaitMs() < targetWaitMs / 4 && window.peakBorrowed() <= current - step) {
+            target = current - step;
+        }
+        return Math.max(minimumSize, Math.min(maximumSize, target));
+    }
+
+    double baselineHoldMs(String poolName) {
+        return baselineHoldMs.getOrDefault(poolName, Double.NaN);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
@@ -0,0 +1,65 @@
+package com.petadoption.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wires the connection pool instrumentation described in {@link ConnectionPoolMonitor}.
+
+ * Beans defined in this class:
+ * - ConnectionPoolMonitor: installed into every HikariDataSource before its pool starts.
+ * - An advisor around every @Service method, ordered before the transaction interceptor, that
+ *   makes the outermost service method on the thread the owner of the connections it takes.
+ * - RequestConnectionWaitFilter: the per-request pool wait, registered ahead of the security
+ *   filters so it covers the whole request.
+ */
+@Configuration
+public class ConnectionPoolMetricsConfig {
+
+    @Bean
+    public static ConnectionPoolMonitor connectionPoolMonitor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ConnectionPoolMonitor(meterRegistry);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor connectionOwnerAdvisor() {
+        Map<Method, String> names = new ConcurrentHashMap<>();
+        MethodInterceptor interceptor = invocation -> {
+            String name = names.computeIfAbsent(invocation.getMethod(), method -> ClassUtils.getUserClass(
+                    invocation.getThis() != null ? invocation.getThis().getClass() : method.getDeclaringClass()).getSimpleName() + "." + method.getName());
+            ConnectionUsageContext.Usage usage = ConnectionUsageContext.enterMethod(name);
+            try {
+                return invocation.proceed();
+            } finally {
+                ConnectionUsageContext.exitMethod(usage);
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true), interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestConnectionWaitFilter> requestConnectionWaitFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestConnectionWaitFilter> registration = new FilterRegistrationBean<>(new RequestConnectionWaitFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
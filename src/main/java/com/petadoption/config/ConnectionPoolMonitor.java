@@ -0,0 +1,205 @@
+package com.petadoption.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Instruments every Hikari pool of the application, attributing its usage to the service
+ * method that took the connection (see {@link ConnectionUsageContext}).
+
+ * Installed as the pool's MetricsTrackerFactory before the pool starts, it keeps the standard
+ * hikaricp.* meters (by delegating to Micrometer's tracker) and adds, tagged with the pool and
+ * the owning method: "db.connection.wait" (time waiting for a connection), "db.connection.hold"
+ * (time from taking a connection to returning it) and "db.connection.timeouts". The
+ * "db.pool.saturation" gauge is (active + pending) / maximum connections: above 1 requests
+ * are queueing for a connection.
+
+ * Hikari reports acquisition and release on the calling thread, so the attribution costs one
+ * thread-local lookup per connection. It also keeps per-pool counters for the last sampling
+ * window, read by {@link AdaptivePoolSizer}.
+ */
+public class ConnectionPoolMonitor implements BeanPostProcessor, MetricsTrackerFactory {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, HikariDataSource> dataSources = new ConcurrentHashMap<>();
+    private final Map<String, PoolUsage> pools = new ConcurrentHashMap<>();
+
+    public ConnectionPoolMonitor(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            instrument(dataSource, beanName);
+        }
+        return bean;
+    }
+
+    /**
+     * Instruments a pool that is not a bean of its own (e.g. a read replica pool). Must be
+     * called before the pool starts, i.e. before its first connection is requested.
+     *
+     * @param defaultPoolName the pool name to use if none is configured.
+     */
+    public void instrument(HikariDataSource dataSource, String defaultPoolName) {
+        if (dataSource.getMetricRegistry() == null
+                && (dataSource.getMetricsTrackerFactory() == null || dataSource.getMetricsTrackerFactory() instanceof MicrometerMetricsTrackerFactory)) {
+            if (dataSource.getPoolName() == null) {
+                dataSource.setPoolName(defaultPoolName);
+            }
+            dataSource.setMetricsTrackerFactory(this);
+            dataSources.put(dataSource.getPoolName(), dataSource);
+        }
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        MeterRegistry registry = meterRegistry.getObject();
+        IMetricsTracker delegate = new MicrometerMetricsTrackerFactory(registry).create(poolName, poolStats);
+        PoolUsage usage = new PoolUsage(poolName, dataSources.get(poolName), registry, delegate);
+        pools.put(poolName, usage);
+
+        Gauge.builder("db.pool.saturation", poolStats,
+                        stats -> stats.getMaxConnections() == 0 ? 0 : (double) (stats.getActiveConnections() + stats.getPendingThreads()) / stats.getMaxConnections())
+                .description("Active connections plus threads waiting for one, relative to the maximum pool size")
+                .tag("pool", poolName)
+                .register(registry);
+        return usage;
+    }
+
+    Collection<PoolUsage> pools() {
+        return pools.values();
+    }
+
+    /**
+     * Counters of one pool over a sampling window.
+     */
+    record Window(long acquisitions, double averageWaitMs, long releases, double averageHoldMs, long timeouts, int peakBorrowed) {}
+
+    static final class PoolUsage implements IMetricsTracker {
+
+        private final String poolName;
+        private final HikariDataSource dataSource;
+        private final MeterRegistry registry;
+        private final IMetricsTracker delegate;
+        private final Map<String, MethodMeters> methods = new ConcurrentHashMap<>();
+
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder waitNanos = new LongAdder();
+        private final LongAdder releases = new LongAdder();
+        private final LongAdder holdMillis = new LongAdder();
+        private final LongAdder timeouts = new LongAdder();
+        private final AtomicInteger borrowed = new AtomicInteger();
+        private final AtomicInteger peakBorrowed = new AtomicInteger();
+
+        private PoolUsage(String poolName, HikariDataSource dataSource, MeterRegistry registry, IMetricsTracker delegate) {
+            this.poolName = poolName;
+            this.dataSource = dataSource;
+            this.registry = registry;
+            this.delegate = delegate;
+        }
+
+        String poolName() {
+            return poolName;
+        }
+
+        // Null when the pool was not created by a HikariDataSource bean
+        HikariDataSource dataSource() {
+            return dataSource;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            meters(ConnectionUsageContext.currentMethod()).waitTimer.record(elapsedAcquiredNanos, TimeUnit.NANOSECONDS);
+            ConnectionUsageContext.recordWait(elapsedAcquiredNanos);
+            acquisitions.increment();
+            waitNanos.add(elapsedAcquiredNanos);
+            int current = borrowed.incrementAndGet();
+            peakBorrowed.accumulateAndGet(current, Math::max);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+            meters(ConnectionUsageContext.currentMethod()).holdTimer.record(elapsedBorrowedMillis, TimeUnit.MILLISECONDS);
+            releases.increment();
+            holdMillis.add(elapsedBorrowedMillis);
+            borrowed.decrementAndGet();
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            delegate.recordConnectionTimeout();
+            meters(ConnectionUsageContext.currentMethod()).timeouts.increment();
+            timeouts.increment();
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+
+        /**
+         * Returns the counters since the previous call and starts a new window.
+         */
+        Window drain() {
+            long acquired = acquisitions.sumThenReset();
+            long waited = waitNanos.sumThenReset();
+            long released = releases.sumThenReset();
+            long held = holdMillis.sumThenReset();
+            int peak = peakBorrowed.getAndSet(borrowed.get());
+            return new Window(acquired, acquired == 0 ? 0 : waited / 1e6 / acquired,
+                    released, released == 0 ? 0 : (double) held / released, timeouts.sumThenReset(), peak);
+        }
+
+        private MethodMeters meters(String method) {
+            MethodMeters meters = methods.get(method);
+            return meters != null ? meters : methods.computeIfAbsent(method, name -> new MethodMeters(registry, poolName, name));
+        }
+    }
+
+    private static final class MethodMeters {
+
+        private final Timer waitTimer;
+        private final Timer holdTimer;
+        private final Counter timeouts;
+
+        private MethodMeters(MeterRegistry registry, String pool, String method) {
+            this.waitTimer = Timer.builder("db.connection.wait")
+                    .description("Time spent waiting for a pooled connection")
+                    .tags("pool", pool, "method", method)
+                    .register(registry);
+            this.holdTimer = Timer.builder("db.connection.hold")
+                    .description("Time a pooled connection was held before being returned")
+                    .tags("pool", pool, "method", method)
+                    .register(registry);
+            this.timeouts = Counter.builder("db.connection.timeouts")
+                    .description("Connection requests that timed out waiting for the pool")
+                    .tags("pool", pool, "method", method)
+                    .register(registry);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.petadoption.config;
+
+/**
+ * Thread-bound attribution of connection pool usage: the service method that owns the
+ * connections taken on the current thread, and the time the current request spent waiting
+ * for them.
+
+ * The outermost service method wins, since it spans the transaction that holds the connection.
+ * A request context is opened by {@link RequestConnectionWaitFilter}; outside of requests
+ * (scheduled jobs, background writers) the context only lives while a service method runs.
+ */
+final class ConnectionUsageContext {
+
+    static final String UNATTRIBUTED = "none";
+
+    private static final ThreadLocal<Usage> CURRENT = new ThreadLocal<>();
+
+    static final class Usage {
+
+        private final boolean request;
+        private String method;
+        private long waitNanos;
+        private int acquisitions;
+
+        private Usage(boolean request) {
+            this.request = request;
+        }
+
+        long waitNanos() {
+            return waitNanos;
+        }
+
+        int acquisitions() {
+            return acquisitions;
+        }
+    }
+
+    private ConnectionUsageContext() {}
+
+    static Usage beginRequest() {
+        Usage usage = new Usage(true);
+        CURRENT.set(usage);
+        return usage;
+    }
+
+    static void endRequest() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Makes the method the owner of the connections taken on this thread, unless an outer
+     * service method already owns them.
+     *
+     * @return the usage to pass to {@link #exitMethod(Usage)}, null if nothing changed.
+     */
+    static Usage enterMethod(String method) {
+        Usage usage = CURRENT.get();
+        if (usage == null) {
+            usage = new Usage(false);
+            CURRENT.set(usage);
+        }
+        if (usage.method != null) {
+            return null;
+        }
+        usage.method = method;
+        return usage;
+    }
+
+    static void exitMethod(Usage usage) {
+        if (usage == null) {
+            return;
+        }
+        usage.method = null;
+        if (!usage.request) {
+            CURRENT.remove();
+        }
+    }
+
+    static String currentMethod() {
+        Usage usage = CURRENT.get();
+        return usage == null || usage.method == null ? UNATTRIBUTED : usage.method;
+    }
+
+    static void recordWait(long nanos) {
+        Usage usage = CURRENT.get();
+        if (usage != null) {
+            usage.waitNanos += nanos;
+            usage.acquisitions++;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.petadoption.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the hits and misses of the Hibernate second-level cache regions (see
+ * application.conf) and of the query cache, from the Hibernate statistics
+ * (hibernate.generate_statistics=true).
+
+ * Per region: "hibernate.cache.hits" and "hibernate.cache.misses" counters and the
+ * "hibernate.cache.hit.ratio" gauge (hits / lookups since startup, 0 before the first lookup).
+ * The query cache as a whole is reported under region="query-cache". The regions are listed
+ * here because Hibernate only creates a query region the first time it is used.
+ */
+@Component
+public class HibernateCacheMetrics implements MeterBinder {
+
+    static final List<String> REGIONS = List.of("type-of-pet", "pet", "user", "pet-catalog");
+
+    private static final String QUERY_CACHE = "query-cache";
+
+    private final Statistics statistics;
+
+    public HibernateCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (String region : REGIONS) {
+            register(registry, region,
+                    stats -> hits(region(stats, region)),
+                    stats -> misses(region(stats, region)));
+        }
+        register(registry, QUERY_CACHE, Statistics::getQueryCacheHitCount, Statistics::getQueryCacheMissCount);
+    }
+
+    private void register(MeterRegistry registry, String region, ToDoubleFunction<Statistics> hits, ToDoubleFunction<Statistics> misses) {
+        FunctionCounter.builder("hibernate.cache.hits", statistics, hits)
+                .description("Second-level or query cache lookups answered by the cache")
+                .tag("region", region)
+                .register(registry);
+        FunctionCounter.builder("hibernate.cache.misses", statistics, misses)
+                .description("Second-level or query cache lookups that went to the database")
+                .tag("region", region)
+                .register(registry);
+        Gauge.builder("hibernate.cache.hit.ratio", statistics, stats -> {
+                    double hit = hits.applyAsDouble(stats);
+                    double lookups = hit + misses.applyAsDouble(stats);
+                    return lookups == 0 ? 0 : hit / lookups;
+                })
+                .description("Share of the lookups answered by the cache since startup")
+                .tag("region", region)
+                .register(registry);
+    }
+
+    // Null until the region is created: Hibernate rejects statistics requests for unknown regions
+    private static CacheRegionStatistics region(Statistics statistics, String region) {
+        return Arrays.asList(statistics.getSecondLevelCacheRegionNames()).contains(region)
+                ? statistics.getCacheRegionStatistics(region) : null;
+    }
+
+    private static double hits(CacheRegionStatistics region) {
+        return region == null ? 0 : region.getHitCount();
+    }
+
+    private static double misses(CacheRegionStatistics region) {
+        return region == null ? 0 : region.getMissCount();
+    }
+}
@@ -1,140 +1,184 @@
 package com.petadoption.config;
 
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.Curve;
+import com.nimbusds.jose.jwk.ECKey;
+import com.nimbusds.jose.jwk.JWK;
 import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
 import com.nimbusds.jose.jwk.RSAKey;
 import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
 import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
 import com.nimbusds.jose.proc.SecurityContext;
-import jakarta.annotation.PostConstruct;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.petadoption.security.CachingJwtDecoder;
+import com.petadoption.security.JwtSigningKeys;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
 import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPrivateKey;
+import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 
 /**
- * Configuration class for JSON Web Token (JWT) handling using RSA public and private keys.
- * This class is responsible for initializing RSA keys, as well as creating beans for
- * JWT encoding and decoding.
+ * Configuration class for JSON Web Token (JWT) handling using the keys configured in
+ * {@link JwtProperties}. This class is responsible for loading the keys, as well as
+ * creating beans for JWT encoding and decoding.
+
+ * Without configured keys it falls back to the RSA key pair in resources/keys, with kid
+ * "rsa-key", so existing deployments keep signing and verifying as before.
  */
 @Configuration
+@EnableConfigurationProperties(JwtProperties.class)
 public class JwtConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtConfig.class);
 
-    private RSAPublicKey publicKey;
-    private RSAPrivateKey privateKey;
+    private static final String DEFAULT_KEY_ID = "rsa-key";
 
     /**
-     * Initializes RSA private and public keys for use in JWT handling.
-     * This method is marked with the {@code @PostConstruct} annotation, meaning it will
-     * be invoked automatically after the bean's properties have been initialized by the
-     * Spring container.
-     * The method performs the following steps:
-     * 1. Reads the private key from a Base64-encoded PEM file located in the resource directory.
-     * 2. Reads the public key from a Base64-encoded PEM file located in the resource directory.
-     * 3. Decodes the Base64-encoded keys and converts them into RSA key objects using the
-     *    {@code KeyFactory} with an {@code RSA} algorithm.
-     * 4. Stores the decoded RSA keys as fields for use in JWT encoding and decoding.
-     * If the key files cannot be read, or there is an issue processing the keys, the method
-     * logs the error and throws an {@link IllegalStateException}, preventing the application
-     * from starting.
-
-     * This method is critical for ensuring the secure handling of JWTs by providing the RSA keys
-     * required for token signing and verification.
-
-     * @throws IllegalStateException if the RSA key files cannot be loaded or processed
-     */
-    @PostConstruct
-    public void initKeys() {
-        try {
-            // Read private key from resources
-            ClassPathResource privateKeyResource = new ClassPathResource("keys/private_key_base64.pem");
-            String privateKeyContent = Files.readString(privateKeyResource.getFile().toPath(), StandardCharsets.UTF_8);
-            privateKeyContent = privateKeyContent.trim();
+     * Loads every configured key into a {@link JWKSet} and selects the active signing key.
 
-            // Read public key from resources
-            ClassPathResource publicKeyResource = new ClassPathResource("keys/public_key_base64.pem");
-            String publicKeyContent = Files.readString(publicKeyResource.getFile().toPath(), StandardCharsets.UTF_8);
-            publicKeyContent = publicKeyContent.trim();
-
-            // Decode Base64 keys to RSA objects
-            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
-
-            this.privateKey = (RSAPrivateKey) keyFactory.generatePrivate(
-                    new PKCS8EncodedKeySpec(Base64.getDecoder().decode(privateKeyContent))
-            );
-            this.publicKey = (RSAPublicKey) keyFactory.generatePublic(
-                    new X509EncodedKeySpec(Base64.getDecoder().decode(publicKeyContent))
-            );
-
-            logger.info("RSA keys successfully loaded from resources/keys");
+     * Keys are read through {@link Resource#getInputStream()}, so they can be packaged inside
+     * the application jar. If a key file cannot be read, or there is an issue processing it,
+     * an {@link IllegalStateException} prevents the application from starting.
+     *
+     * @return the keys of the application, with the active one selected.
+     */
+    @Bean
+    public JwtSigningKeys jwtSigningKeys(JwtProperties properties) {
+        List<JwtProperties.Key> configuredKeys = properties.getKeys();
+        if (configuredKeys.isEmpty()) {
+            JwtProperties.Key legacyKey = new JwtProperties.Key();
+            legacyKey.setId(DEFAULT_KEY_ID);
+            legacyKey.setPrivateKey(new ClassPathResource("keys/private_key_base64.pem"));
+            legacyKey.setPublicKey(new ClassPathResource("keys/public_key_base64.pem"));
+            configuredKeys = List.of(legacyKey);
+        }
 
-        } catch (IOException e) {
-            logger.error("Error reading RSA key files from resources directory", e);
-            throw new IllegalStateException("RSA keys could not be loaded", e);
-        } catch (Exception e) {
-            logger.error("Error processing RSA keys", e);
-            throw new IllegalStateException("Could not initialize RSA keys", e);
+        List<JWK> keys = new ArrayList<>();
+        for (JwtProperties.Key key : configuredKeys) {
+            keys.add(toJwk(key));
         }
+
+        JwtSigningKeys signingKeys = new JwtSigningKeys(new JWKSet(keys), properties.getActiveKeyId());
+        logger.info("Loaded {} JWT keys, signing with '{}'", keys.size(), properties.getActiveKeyId());
+        return signingKeys;
     }
 
     /**
      * Creates and configures a {@link JwtEncoder} bean used for encoding JWT tokens.
 
-     * The method initializes the encoder using RSA public and private keys. These keys are
-     * constructed into an {@link RSAKey} object, which is included in a {@link JWKSet}.
-     * A {@link JWKSource} is then created from the JWKSet and used to instantiate the
-     * {@link NimbusJwtEncoder}.
-
-     * This encoder is essential for generating JWT tokens signed using the configured RSA keys.
+     * The encoder receives every key; the header built by {@link JwtSigningKeys#activeHeader()}
+     * (algorithm and kid) selects the one that signs.
      *
      * @return a configured instance of {@link JwtEncoder}.
      */
     @Bean
-    public JwtEncoder jwtEncoder() {
-        logger.info("Initializing the JWT Encoder with RSA keys...");
-
-        // Build RSAKey based on read keys
-        RSAKey rsaKey = new RSAKey.Builder(publicKey)
-                .privateKey(privateKey)
-                .keyID("rsa-key")
-                .build();
-
-        // Create a JWKSet and initialize the encoder (JwtEncoder)
-        JWKSet jwkSet = new JWKSet(rsaKey);
-        JWKSource<SecurityContext> jwkSource = new ImmutableJWKSet<>(jwkSet);
-
+    public JwtEncoder jwtEncoder(JwtSigningKeys signingKeys) {
+        logger.info("Initializing the JWT Encoder...");
+        JWKSource<SecurityContext> jwkSource = new ImmutableJWKSet<>(signingKeys.getKeys());
         return new NimbusJwtEncoder(jwkSource);
     }
 
     /**
      * Provides a configured {@link JwtDecoder} bean for decoding JWT tokens.
-     * This method initializes the decoder using RSA public keys. The public key
-     * is used to validate the signature of the JWT token, ensuring its authenticity.
-     * The decoder utilizes the {@link NimbusJwtDecoder} library to handle the
-     * decoding process and to interpret the token's claims.
-     * Logging is included to indicate the initialization of the JWT decoder with the RSA keys.
-     * @return a configured instance of {@link JwtDecoder} capable of decoding JWT tokens
-     * using a provided RSA public key.
+     * The key verifying a token is chosen by the token's "kid" and must match its algorithm,
+     * so tokens signed with any configured key (for example, the previous one during a
+     * rotation) are accepted.
+
+     * Unless app.jwt-cache.enabled is false, the decoder is wrapped in a {@link CachingJwtDecoder},
+     * so a token reused across requests has its signature verified only once.
+     * @return a configured instance of {@link JwtDecoder}.
      */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        logger.info("Initializing the JWT Decoder with RSA keys...");
-        // Create the decoder using only the public key
-        return NimbusJwtDecoder.withPublicKey(publicKey).build();
+    public JwtDecoder jwtDecoder(JwtSigningKeys signingKeys,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.jwt-cache.enabled:true}") boolean cacheEnabled,
+                                 @Value("${app.jwt-cache.maximum-size:10000}") long cacheMaximumSize,
+                                 @Value("${app.jwt-cache.maximum-time-to-live:1h}") Duration cacheMaximumTimeToLive) {
+        logger.info("Initializing the JWT Decoder...");
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(signingKeys.getVerificationAlgorithms(),
+                new ImmutableJWKSet<>(signingKeys.getKeys().toPublicJWKSet())));
+        // Claims are validated by Spring's JwtValidators, as in NimbusJwtDecoder.withPublicKey
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+
+        JwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        return cacheEnabled
+                ? new CachingJwtDecoder(decoder, cacheMaximumSize, cacheMaximumTimeToLive, meterRegistry)
+                : decoder;
+    }
+
+    private static JWK toJwk(JwtProperties.Key key) {
+        JWSAlgorithm algorithm = JWSAlgorithm.parse(key.getAlgorithm());
+        try {
+            if (JWSAlgorithm.Family.RSA.contains(algorithm)) {
+                KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+                RSAKey.Builder builder = new RSAKey.Builder((RSAPublicKey) readPublicKey(keyFactory, key.getPublicKey()));
+                if (key.getPrivateKey() != null) {
+                    builder.privateKey((RSAPrivateKey) readPrivateKey(keyFactory, key.getPrivateKey()));
+                }
+                return builder.keyID(key.getId()).algorithm(algorithm).keyUse(KeyUse.SIGNATURE).build();
+            }
+            if (JWSAlgorithm.ES256.equals(algorithm)) {
+                KeyFactory keyFactory = KeyFactory.getInstance("EC");
+                ECKey.Builder builder = new ECKey.Builder(Curve.P_256, (ECPublicKey) readPublicKey(keyFactory, key.getPublicKey()));
+                if (key.getPrivateKey() != null) {
+                    builder.privateKey((ECPrivateKey) readPrivateKey(keyFactory, key.getPrivateKey()));
+                }
+                return builder.keyID(key.getId()).algorithm(algorithm).keyUse(KeyUse.SIGNATURE).build();
+            }
+        } catch (IOException e) {
+            logger.error("Error reading the files of JWT key '{}'", key.getId(), e);
+            throw new IllegalStateException("JWT key '" + key.getId() + "' could not be loaded", e);
+        } catch (Exception e) {
+            logger.error("Error processing JWT key '{}'", key.getId(), e);
+            throw new IllegalStateException("Could not initialize JWT key '" + key.getId() + "'", e);
+        }
+        throw new IllegalStateException("Unsupported JWT algorithm '" + key.getAlgorithm() + "' for key '" + key.getId() + "'");
+    }
+
+    private static PublicKey readPublicKey(KeyFactory keyFactory, Resource resource) throws Exception {
+        return keyFactory.generatePublic(new X509EncodedKeySpec(readDer(resource)));
+    }
+
+    private static PrivateKey readPrivateKey(KeyFactory keyFactory, Resource resource) throws Exception {
+        return keyFactory.generatePrivate(new PKCS8EncodedKeySpec(readDer(resource)));
+    }
+
+    // Base64 content, ignoring PEM header lines and whitespace
+    private static byte[] readDer(Resource resource) throws IOException {
+        try (InputStream input = resource.getInputStream()) {
+            String content = new String(input.readAllBytes(), StandardCharsets.US_ASCII)
+                    .replaceAll("-----[A-Z ]+-----", "")
+                    .replaceAll("\\s", "");
+            return Base64.getDecoder().decode(content);
+        }
     }
 }
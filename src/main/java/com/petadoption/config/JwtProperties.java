@@ -0,0 +1,84 @@
+package com.petadoption.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.io.Resource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Signing keys for the JWTs issued by the application, bound from "app.jwt.*".
+
+ * Every configured key is published on /.well-known/jwks.json and accepted when verifying
+ * tokens, selected by the token's "kid". Only the key named by active-key-id signs new
+ * tokens, with that key's algorithm. Rotating keys without downtime means adding the new
+ * key, switching active-key-id to it, and removing the old key once the tokens signed
+ * with it have expired (seven days, the refresh token lifetime). Keys without a private
+ * key are accepted for verification only.
+
+ * Keys are read as Base64 encoded DER (PKCS#8 private, X.509 public), with or without
+ * PEM header lines.
+ */
+@ConfigurationProperties(prefix = "app.jwt")
+public class JwtProperties {
+
+    private String activeKeyId = "rsa-key";
+    private List<Key> keys = new ArrayList<>();
+
+    public String getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public void setActiveKeyId(String activeKeyId) {
+        this.activeKeyId = activeKeyId;
+    }
+
+    public List<Key> getKeys() {
+        return keys;
+    }
+
+    public void setKeys(List<Key> keys) {
+        this.keys = keys;
+    }
+
+    public static class Key {
+
+        private String id;
+        private String algorithm = "RS256";
+        private Resource privateKey;
+        private Resource publicKey;
+
+        public String getId() {
+            return id;
+        }
+
+        public void setId(String id) {
+            this.id = id;
+        }
+
+        // RS256 or ES256 (P-256 keys)
+        public String getAlgorithm() {
+            return algorithm;
+        }
+
+        public void setAlgorithm(String algorithm) {
+            this.algorithm = algorithm;
+        }
+
+        public Resource getPrivateKey() {
+            return privateKey;
+        }
+
+        public void setPrivateKey(Resource privateKey) {
+            this.privateKey = privateKey;
+        }
+
+        public Resource getPublicKey() {
+            return publicKey;
+        }
+
+        public void setPublicKey(Resource publicKey) {
+            this.publicKey = publicKey;
+        }
+    }
+}
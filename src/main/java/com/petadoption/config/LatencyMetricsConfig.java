@@ -0,0 +1,82 @@
+package com.petadoption.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency timers for the phases of a request that the standard meters do not split out.
+ * Percentile histograms, expected ranges and the Prometheus endpoint are configured with the
+ * management.* properties.
+
+ * Beans defined in this class:
+ * - An advisor around every @Service method recording the "service.method" timer, tagged with
+ *   the class, the method and the exception thrown ("none" on success). It runs inside the
+ *   connection owner advisor of {@link ConnectionPoolMetricsConfig} and outside the transaction
+ *   interceptor, so the time includes opening and committing the transaction. Nested service
+ *   calls are recorded too, each under its own name.
+ * - TimedJacksonHttpMessageConverter: replaces Boot's JSON converter to record the
+ *   "http.server.serialization" timer, see that class.
+
+ * The other phases come from meters Spring registers on its own: "http.server.requests" per
+ * endpoint, "spring.data.repository.invocations" per repository method (database), and
+ * "spring.security.filterchains" and "spring.security.authorizations" (security).
+ */
+@Configuration
+public class LatencyMetricsConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceMethodTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+        MethodInterceptor interceptor = invocation -> {
+            long start = System.nanoTime();
+            try {
+                Object result = invocation.proceed();
+                successTimers.computeIfAbsent(invocation.getMethod(), method -> serviceTimer(meterRegistry.getObject(), owner(invocation.getThis(), method), method, "none"))
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return result;
+            } catch (Throwable ex) {
+                serviceTimer(meterRegistry.getObject(), owner(invocation.getThis(), invocation.getMethod()), invocation.getMethod(), ex.getClass().getSimpleName())
+                        .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                throw ex;
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Service.class, true), interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return advisor;
+    }
+
+    @Bean
+    public TimedJacksonHttpMessageConverter timedJacksonHttpMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+
+    private static Class<?> owner(Object target, Method method) {
+        return ClassUtils.getUserClass(target != null ? target.getClass() : method.getDeclaringClass());
+    }
+
+    private static Timer serviceTimer(MeterRegistry registry, Class<?> owner, Method method, String exception) {
+        return Timer.builder("service.method")
+                .description("Time spent in a service method, including its transaction")
+                .tags("class", owner.getSimpleName(), "method", method.getName(), "exception", exception)
+                .register(registry);
+    }
+}
@@ -0,0 +1,58 @@
+package com.petadoption.config;
+
+import com.petadoption.dto.UserDTO;
+import com.petadoption.dto.UserIdentityDTO;
+import com.petadoption.dto.UserProfile;
+import com.petadoption.model.*;
+import com.petadoption.model.enums.PetStatus;
+import com.petadoption.model.enums.Role;
+import com.petadoption.model.enums.SearchMode;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Registers the reflection and resource hints the GraalVM native image (the "native" Maven
+ * profile) needs beyond what Spring AOT infers on its own.
+
+ * Hibernate reads and writes the entity fields reflectively and instantiates the DTOs of the
+ * JPQL constructor expressions ("SELECT new ...") by reflection. The JWT keys under keys/ are
+ * loaded as classpath resources by JwtConfig, and the Caffeine JCache provider reads the cache
+ * regions from application.conf. The Nimbus signers and verifiers are created directly, not
+ * reflectively, so they need no hints.
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.PetAdoptionRuntimeHints.class)
+public class NativeImageConfig {
+
+    static final List<Class<?>> ENTITIES = List.of(
+            Adoption.class, AdoptionStatusHistory.class, Pet.class, TypeOfPet.class, User.class, RevokedRefreshToken.class);
+
+    static final List<Class<?>> ENUMS = List.of(PetStatus.class, Role.class, SearchMode.class);
+
+    static final List<Class<?>> QUERY_PROJECTIONS = List.of(UserDTO.class, UserIdentityDTO.class, UserProfile.class);
+
+    static class PetAdoptionRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            ENTITIES.forEach(entity -> hints.reflection().registerType(entity,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS));
+            ENUMS.forEach(type -> hints.reflection().registerType(type,
+                    MemberCategory.DECLARED_FIELDS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS));
+            QUERY_PROJECTIONS.forEach(projection -> hints.reflection().registerType(projection,
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                    MemberCategory.INVOKE_PUBLIC_METHODS));
+
+            hints.resources().registerPattern("keys/*.pem");
+            hints.resources().registerPattern("application.conf");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.petadoption.config;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -9,12 +10,16 @@ import org.springframework.security.crypto.password.PasswordEncoder;
  * Configuration class for setting up password encoding in the application.
  * This class defines a bean for PasswordEncoder using BCryptPasswordEncoder.
  * It ensures secure encoding of passwords before they are stored or used for authentication.
+
+ * The cost (log2 of the number of rounds) is set with app.password.bcrypt-strength.
+ * Existing hashes with another cost keep working and are rehashed on the next login,
+ * see PasswordHashingService.
  */
 @Configuration
 public class PasswordEncoderConfig {
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.password.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
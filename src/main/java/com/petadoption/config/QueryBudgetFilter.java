@@ -0,0 +1,86 @@
+package com.petadoption.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements each HTTP request issues on its thread (see {@link QueryCounter})
+ * and checks them against the budget of its endpoint (see {@link QueryBudgetProperties}).
+
+ * The count is recorded in the "db.request.statements" distribution, tagged with the matched
+ * URI pattern. A request over its budget increments "db.request.budget.exceeded" and logs a
+ * warning; a request running the same statement repeatedly (an N+1 load, typically one select
+ * per row of a list) logs a warning with that statement.
+
+ * The count and the budget are also left in the request attributes below, so tests can assert
+ * the number of statements of a request.
+ */
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".statements";
+    public static final String BUDGET_ATTRIBUTE = QueryBudgetFilter.class.getName() + ".budget";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final QueryBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    QueryBudgetFilter(QueryBudgetProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.Statements statements = QueryCounter.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCounter.end();
+            check(request, statements);
+        }
+    }
+
+    private void check(HttpServletRequest request, QueryCounter.Statements statements) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        int budget = properties.budgetFor(request.getMethod(), uri);
+        request.setAttribute(STATEMENTS_ATTRIBUTE, statements.total());
+        request.setAttribute(BUDGET_ATTRIBUTE, budget);
+        if (statements.total() == 0) {
+            return;
+        }
+
+        DistributionSummary.builder("db.request.statements")
+                .description("SQL statements issued by a request")
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(statements.total());
+        if (statements.total() > budget) {
+            Counter.builder("db.request.budget.exceeded")
+                    .description("Requests that issued more SQL statements than the budget of their endpoint")
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warn("{} {} issued {} SQL statements, over its budget of {}", request.getMethod(), uri, statements.total(), budget);
+        }
+        Map.Entry<String, Integer> repeated = statements.mostRepeated();
+        if (repeated.getValue() >= properties.getRepeatedStatementThreshold()) {
+            logger.warn("{} {} ran the same SQL statement {} times, likely an N+1 load: {}",
+                    request.getMethod(), uri, repeated.getValue(), repeated.getKey());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.petadoption.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Query budgets per endpoint, bound from "app.query-budget.*", see {@link QueryBudgetFilter}.
+
+ * Budgets are keyed by HTTP method and URI pattern, as in
+ * app.query-budget.endpoints.GET[/api/pets/{id}]=2 (the brackets keep the pattern as is).
+ * Endpoints without a budget get the default one.
+ */
+@ConfigurationProperties(prefix = "app.query-budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+    private int defaultBudget = 10;
+    private int repeatedStatementThreshold = 5;
+    private Map<String, Map<String, Integer>> endpoints = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getDefaultBudget() {
+        return defaultBudget;
+    }
+
+    public void setDefaultBudget(int defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+
+    // Times the same statement may run in one request before it is reported as a likely N+1 load
+    public int getRepeatedStatementThreshold() {
+        return repeatedStatementThreshold;
+    }
+
+    public void setRepeatedStatementThreshold(int repeatedStatementThreshold) {
+        this.repeatedStatementThreshold = repeatedStatementThreshold;
+    }
+
+    public Map<String, Map<String, Integer>> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Map<String, Integer>> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    /**
+     * Returns the budget of an endpoint, the default one if it has none.
+     *
+     * @param method the HTTP method, in any case.
+     * @param uriPattern the matched URI pattern, e.g. "/api/pets/{id}".
+     */
+    public int budgetFor(String method, String uriPattern) {
+        for (Map.Entry<String, Map<String, Integer>> entry : endpoints.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(method)) {
+                Integer budget = entry.getValue().get(uriPattern);
+                if (budget != null) {
+                    return budget;
+                }
+            }
+        }
+        return defaultBudget;
+    }
+}
@@ -0,0 +1,62 @@
+package com.petadoption.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a request is being
+ * served (see {@link QueryBudgetFilter}), to enforce per-endpoint query budgets and spot N+1
+ * loads.
+
+ * Installed as Hibernate's StatementInspector, so every statement is counted: queries, eager
+ * and lazy association loads, inserts, updates and deletes (a JDBC batch counts once).
+ * Second-level cache hits issue no statement and are not counted, nor are statements run on
+ * other threads (e.g. by the adoption history writer).
+ */
+final class QueryCounter implements StatementInspector {
+
+    private static final ThreadLocal<Statements> CURRENT = new ThreadLocal<>();
+
+    static final class Statements {
+
+        private final Map<String, Integer> countsBySql = new HashMap<>();
+        private int total;
+
+        int total() {
+            return total;
+        }
+
+        // The statement run most often and how many times, null if there were none
+        Map.Entry<String, Integer> mostRepeated() {
+            Map.Entry<String, Integer> most = null;
+            for (Map.Entry<String, Integer> entry : countsBySql.entrySet()) {
+                if (most == null || entry.getValue() > most.getValue()) {
+                    most = entry;
+                }
+            }
+            return most;
+        }
+    }
+
+    static Statements begin() {
+        Statements statements = new Statements();
+        CURRENT.set(statements);
+        return statements;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Statements statements = CURRENT.get();
+        if (statements != null) {
+            statements.total++;
+            statements.countsBySql.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+}
@@ -0,0 +1,89 @@
+package com.petadoption.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to read replicas when app.read-replicas.enabled=true.
+ * Without it the auto-configured DataSource is used and everything goes to the primary.
+
+ * The application DataSource becomes a LazyConnectionDataSourceProxy over the primary pool:
+ * it only fetches a physical connection at the first statement, by which time a
+ * @Transactional(readOnly = true) transaction has marked the connection read-only, and then
+ * takes it from the {@link ReadReplicaDataSource} instead of the primary. Read-write
+ * transactions, and read-only ones joining them, stay on the primary.
+
+ * Beans defined in this class:
+ * - primaryDataSource: the primary pool, configured from spring.datasource.* as before.
+ * - readReplicaDataSource: one read-only pool per replica, with health-based failover.
+ * - readYourWritesTracker: sends a user's reads to the primary for a while after their writes.
+ * - dataSource: the routing proxy, used by JPA and JdbcTemplate.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.read-replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(ReadReplicaProperties properties) {
+        return new ReadYourWritesTracker(properties.getReadYourWritesWindow(), properties.getMaxStickyUsers());
+    }
+
+    @Bean
+    public ReadReplicaDataSource readReplicaDataSource(HikariDataSource primaryDataSource, ReadReplicaProperties properties,
+                                                       DataSourceProperties dataSourceProperties, ReadYourWritesTracker readYourWritesTracker,
+                                                       ConnectionPoolMonitor connectionPoolMonitor, MeterRegistry meterRegistry) {
+        if (properties.getInstances().isEmpty()) {
+            throw new IllegalStateException("app.read-replicas.enabled is set but no app.read-replicas.instances are configured");
+        }
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < properties.getInstances().size(); i++) {
+            ReadReplicaProperties.Instance instance = properties.getInstances().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName(instance.getName() != null ? instance.getName() : "replica-" + (i + 1));
+            pool.setJdbcUrl(instance.getUrl());
+            pool.setUsername(instance.getUsername() != null ? instance.getUsername() : dataSourceProperties.determineUsername());
+            pool.setPassword(instance.getPassword() != null ? instance.getPassword() : dataSourceProperties.determinePassword());
+            pool.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            pool.setMaximumPoolSize(properties.getMaximumPoolSize());
+            pool.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+            pool.setReadOnly(true);
+            // Start even if a replica is down; reads go to the primary until it answers
+            pool.setInitializationFailTimeout(-1);
+            connectionPoolMonitor.instrument(pool, pool.getPoolName());
+            pools.add(pool);
+        }
+        return new ReadReplicaDataSource(primaryDataSource, pools, readYourWritesTracker,
+                properties.getHealthCheckTimeout(), properties.getMaxLag(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReadReplicaDataSource readReplicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readReplicaDataSource);
+        // Known up front, so no connection is opened just to read them
+        dataSource.setDefaultAutoCommit(primaryDataSource.isAutoCommit());
+        dataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        return dataSource;
+    }
+}
@@ -0,0 +1,178 @@
+package com.petadoption.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource for read-only transactions: hands out connections of a healthy read replica,
+ * in round robin, and falls back to the primary when no replica can serve the read.
+
+ * The primary is used instead of a replica when:
+ * - the current user committed a write within the read-your-writes window (sticky);
+ * - every replica is out of rotation, or failed to give a connection (unavailable).
+ * A replica that can not be reached is taken out of rotation right away, while an exhausted
+ * replica pool only sends that one read elsewhere. The periodic health check puts a replica
+ * back once it answers again (and, if max-lag is set, has caught up).
+
+ * Metrics: "db.replica.routing" (read-only connections by target and reason) and
+ * "db.replica.available" (1 while a replica is in rotation), tagged with the replica name.
+ */
+public class ReadReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    // Seconds since the last replayed transaction, 0 when the replica has replayed everything it received
+    private static final String LAG_QUERY = "SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker readYourWrites;
+    private final int healthCheckTimeoutSeconds;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter stickyReads;
+    private final Counter unavailableReads;
+
+    public ReadReplicaDataSource(DataSource primary, List<HikariDataSource> replicaPools, ReadYourWritesTracker readYourWrites,
+                                 Duration healthCheckTimeout, Duration maxLag, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.readYourWrites = readYourWrites;
+        this.healthCheckTimeoutSeconds = (int) Math.max(1, healthCheckTimeout.toSeconds());
+        this.maxLag = maxLag;
+        this.replicas = replicaPools.stream().map(pool -> new Replica(pool, meterRegistry)).toList();
+        this.stickyReads = routingCounter(meterRegistry, PRIMARY, "sticky");
+        this.unavailableReads = routingCounter(meterRegistry, PRIMARY, "unavailable");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (readYourWrites.isSticky()) {
+            stickyReads.increment();
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(1, replicas.size()));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.available) {
+                continue;
+            }
+            try {
+                Connection connection = replica.pool.getConnection();
+                replica.routed.increment();
+                return connection;
+            } catch (SQLTransientConnectionException e) {
+                // Without a cause the pool was only exhausted, the replica itself is fine
+                if (e.getCause() != null) {
+                    replica.markUnavailable(e.getMessage());
+                }
+            } catch (SQLException e) {
+                replica.markUnavailable(e.getMessage());
+            }
+        }
+        unavailableReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Read replica connections use the configured credentials");
+    }
+
+    /**
+     * Checks every replica and updates its place in the rotation.
+     */
+    @Scheduled(fixedDelayString = "${app.read-replicas.health-check-interval:PT5S}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            String problem = probe(replica);
+            if (problem == null) {
+                replica.markAvailable();
+            } else {
+                replica.markUnavailable(problem);
+            }
+        }
+    }
+
+    // Null when the replica is healthy, otherwise the reason it is not
+    private String probe(Replica replica) {
+        try (Connection connection = replica.pool.getConnection()) {
+            if (!connection.isValid(healthCheckTimeoutSeconds)) {
+                return "connection is not valid";
+            }
+            if (maxLag.isZero()) {
+                return null;
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(healthCheckTimeoutSeconds);
+                try (ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                    double lagSeconds = resultSet.next() ? resultSet.getDouble(1) : 0;
+                    return lagSeconds * 1000 > maxLag.toMillis() ? "replication lag of " + Math.round(lagSeconds * 1000) + " ms" : null;
+                }
+            }
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("db.replica.routing")
+                .description("Connections handed out for read-only transactions, by target and reason")
+                .tags("target", target, "reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private final Counter routed;
+        private volatile boolean available = true;
+
+        private Replica(HikariDataSource pool, MeterRegistry meterRegistry) {
+            this.pool = pool;
+            this.routed = routingCounter(meterRegistry, pool.getPoolName(), "replica");
+            Gauge.builder("db.replica.available", this, replica -> replica.available ? 1 : 0)
+                    .description("Whether the read replica is in rotation (1) or reads skip it (0)")
+                    .tag("replica", pool.getPoolName())
+                    .register(meterRegistry);
+        }
+
+        private void markAvailable() {
+            if (!available) {
+                available = true;
+                logger.info("Read replica {} is back in rotation", pool.getPoolName());
+            }
+        }
+
+        private void markUnavailable(String reason) {
+            if (available) {
+                available = false;
+                logger.warn("Read replica {} taken out of rotation, reads fall back to the primary: {}", pool.getPoolName(), reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.petadoption.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replicas serving read-only transactions, bound from "app.read-replicas.*".
+ * Only used when app.read-replicas.enabled=true, see {@link ReadReplicaConfig}.
+
+ * Every instance gets its own connection pool, sized and timed out independently of the
+ * primary's. Instances without credentials use the primary's (spring.datasource.*).
+ * A replica is taken out of rotation when it does not answer the health check, or when
+ * max-lag is set and its replication lag exceeds it. Users who committed a write within the
+ * read-your-writes window read from the primary; a zero window disables stickiness.
+ */
+@ConfigurationProperties(prefix = "app.read-replicas")
+public class ReadReplicaProperties {
+
+    private boolean enabled;
+    private List<Instance> instances = new ArrayList<>();
+    private int maximumPoolSize = 10;
+    private Duration connectionTimeout = Duration.ofSeconds(1);
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+    private Duration maxLag = Duration.ZERO;
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    private long maxStickyUsers = 100_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<Instance> getInstances() {
+        return instances;
+    }
+
+    public void setInstances(List<Instance> instances) {
+        this.instances = instances;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    public void setMaximumPoolSize(int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    // Kept short, so reads fail over to the primary quickly when a replica stops answering
+    public Duration getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    public void setConnectionTimeout(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public Duration getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    public void setHealthCheckInterval(Duration healthCheckInterval) {
+        this.healthCheckInterval = healthCheckInterval;
+    }
+
+    public Duration getHealthCheckTimeout() {
+        return healthCheckTimeout;
+    }
+
+    public void setHealthCheckTimeout(Duration healthCheckTimeout) {
+        this.healthCheckTimeout = healthCheckTimeout;
+    }
+
+    // Zero disables the replication lag check (PostgreSQL only)
+    public Duration getMaxLag() {
+        return maxLag;
+    }
+
+    public void setMaxLag(Duration maxLag) {
+        this.maxLag = maxLag;
+    }
+
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    public long getMaxStickyUsers() {
+        return maxStickyUsers;
+    }
+
+    public void setMaxStickyUsers(long maxStickyUsers) {
+        this.maxStickyUsers = maxStickyUsers;
+    }
+
+    public static class Instance {
+
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+
+        // Pool name and metrics tag, "replica-<n>" by default
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.petadoption.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petadoption.security.CurrentUser;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.time.Duration;
+
+/**
+ * Remembers the users who recently committed a write, so their following reads go to the
+ * primary instead of a replica that may not have replayed the write yet.
+
+ * Registered with the transaction manager as a TransactionExecutionListener: every committed
+ * read-write transaction marks the authenticated user of the current thread for the
+ * read-your-writes window. Anonymous writes (e.g. registering) mark nobody. Entries expire on
+ * their own and the number of tracked users is bounded.
+ */
+public class ReadYourWritesTracker implements TransactionExecutionListener {
+
+    private final Cache<Long, Boolean> recentWriters;
+    private final boolean enabled;
+
+    public ReadYourWritesTracker(Duration window, long maxUsers) {
+        this.enabled = !window.isZero() && !window.isNegative();
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(enabled ? window : Duration.ofMillis(1))
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        if (enabled && commitFailure == null && transaction.isNewTransaction() && !transaction.isReadOnly()) {
+            CurrentUser.id().ifPresent(id -> recentWriters.put(id, Boolean.TRUE));
+        }
+    }
+
+    /**
+     * Whether the current user committed a write within the window.
+     */
+    public boolean isSticky() {
+        return enabled && CurrentUser.id().map(id -> recentWriters.getIfPresent(id) != null).orElse(false);
+    }
+}
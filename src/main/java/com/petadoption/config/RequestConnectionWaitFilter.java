@@ -0,0 +1,47 @@
+package com.petadoption.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the total time each HTTP request spent waiting for pooled connections, as the
+ * "db.pool.request.wait" timer tagged with the matched URI pattern. Requests that took no
+ * connection are not recorded, so the distribution shows what pool contention adds to the
+ * requests that use the database.
+ */
+class RequestConnectionWaitFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    RequestConnectionWaitFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConnectionUsageContext.Usage usage = ConnectionUsageContext.beginRequest();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConnectionUsageContext.endRequest();
+            if (usage.acquisitions() > 0) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Timer.builder("db.pool.request.wait")
+                        .description("Time a request spent waiting for pooled connections, over all the connections it took")
+                        .tag("uri", pattern != null ? pattern.toString() : "UNKNOWN")
+                        .register(meterRegistry)
+                        .record(usage.waitNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.petadoption.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled methods, used for periodic housekeeping such as evicting
+ * idle login throttling counters.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,10 +1,14 @@
 package com.petadoption.config;
 
-import com.petadoption.model.User;
+import com.petadoption.dto.UserProfile;
+import com.petadoption.security.RoleClaimAuthorities;
+import com.petadoption.security.UserPrincipal;
+import com.petadoption.security.UserPrincipalJwtAuthenticationConverter;
 import com.petadoption.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -16,16 +20,8 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
-import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-
-
-import java.util.List;
-import java.util.stream.Collectors;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 /**
  * SecurityConfig is a Spring Security configuration class that defines
@@ -44,8 +40,8 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
  * - AuthenticationProvider: Handles authentication using a custom user details service
  *   and a password encoder.
 
- * The class also includes a custom implementation of JwtAuthenticationConverter to
- * extract roles and set them in the authentication object from the JWT token.
+ * The class also configures a UserPrincipalJwtAuthenticationConverter to extract the user
+ * id, username and roles from the JWT token and set them in the authentication object.
  */
 @Configuration
 @EnableWebSecurity
@@ -57,12 +53,15 @@ public class SecurityConfig {
     private final UserService userService;
     private final PasswordEncoder passwordEncoder;
     private final JwtDecoder jwtDecoder;
+    private final int roleMappingCacheSize;
 
     @Autowired
-    public SecurityConfig(UserService userService, PasswordEncoder passwordEncoder, JwtDecoder jwtDecoder) {
+    public SecurityConfig(UserService userService, PasswordEncoder passwordEncoder, JwtDecoder jwtDecoder,
+                          @Value("${app.role-mapping-cache.maximum-size:256}") int roleMappingCacheSize) {
         this.userService = userService;
         this.passwordEncoder = passwordEncoder;
         this.jwtDecoder = jwtDecoder;
+        this.roleMappingCacheSize = roleMappingCacheSize;
     }
 
     /**
@@ -93,10 +92,16 @@ public class SecurityConfig {
                         .requestMatchers("/actuator/info").permitAll()
                         .requestMatchers("/actuator/mappings").permitAll()
                         .requestMatchers("/actuator/metrics").hasRole("ADMIN")
+                        // Scraped by Prometheus without a token; the management port only listens on an internal address
+                        .requestMatchers("/actuator/prometheus").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/.well-known/jwks.json").permitAll()
                         .requestMatchers("/api/auth/register").permitAll()
                         .requestMatchers("/api/auth/login").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/api/auth/availability").permitAll()
                         .requestMatchers("/api/token/refresh").permitAll()
+                        .requestMatchers("/api/token/revoke").permitAll()
                         .requestMatchers(HttpMethod.GET, "/api/adoption/{id}").hasAnyRole("ADMIN", "USER")
+                        .requestMatchers(HttpMethod.GET, "/api/adoption/{id}/history").hasAnyRole("ADMIN", "USER")
                         .requestMatchers(HttpMethod.POST, "/api/adoption/{id}/approve").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.POST, "/api/adoption/{id}/reject").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/adoption/{id}").authenticated()
@@ -116,42 +121,16 @@ public class SecurityConfig {
 
 
     /**
-     * Creates and configures a {@link JwtAuthenticationConverter} that extracts roles
-     * from the JWT token using the "roles" claim and maps them to Spring Security's
-     * granted authorities with the "ROLE_" prefix.
-
-     * The converter uses a {@link JwtGrantedAuthoritiesConverter} to translate the
-     * roles claim into granted authorities, ensuring proper logging of the JWT claims
-     * and extracted*/
-    private JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-
-        // Configure the JwtGrantedAuthoritiesConverter
-        JwtGrantedAuthoritiesConverter grantedAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
-
-        // Associate the Claim "roles" to the prefix "ROLE_" (but we will review below to avoid duplicates)
-        grantedAuthoritiesConverter.setAuthoritiesClaimName("roles");
-        grantedAuthoritiesConverter.setAuthorityPrefix("");
-
-        // We configure the conversion process and avoid the duplicate prefix
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            logger.info("JWT Claims: {}", jwt.getClaims());
-
-            // We extract the roles from the JWT (using "roles" like Claim)
-            List<String> roles = jwt.getClaimAsStringList("roles");
-            if (roles == null) {
-                roles = List.of(); // If there are no roles, we return an empty array
-            }
-            logger.info("Roles from the token: {}", roles);
+     * Creates the converter that turns a validated JWT into the request's authentication.
+     * The principal is a {@link UserPrincipal} holding the user id, username and roles from
+     * the token claims, so authorization rules need no database access.
 
-            // We ensure that each role has a "ROLE_" prefix
-            return roles.stream()
-                    .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role) // Avoid duplicate prefix
-                    .map(SimpleGrantedAuthority::new) // Converts to GrantedAuthority
-                    .collect(Collectors.toList()); // Form the complete list of GrantedAuthority
-        });
-
-        return converter;
+     * Authorities come from the "roles" claim, mapped to Spring Security's granted
+     * authorities with the "ROLE_" prefix. Each distinct set of roles is mapped once and
+     * the result is shared, as this runs on every authenticated request.
+     */
+    private UserPrincipalJwtAuthenticationConverter jwtAuthenticationConverter() {
+        return new UserPrincipalJwtAuthenticationConverter(new RoleClaimAuthorities(roleMappingCacheSize));
     }
 
 
@@ -170,14 +149,14 @@ public class SecurityConfig {
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(username -> {
-            User user = userService.getUserByUsername(username);
+            UserProfile user = userService.getUserProfile(username);
             if (user == null) {
                 throw new UsernameNotFoundException("User not found");
             }
             return new org.springframework.security.core.userdetails.User(
-                    user.getUsername(),
-                    user.getPassword(),
-                    user.getAuthorities() // Roles extracted from the user
+                    user.username(),
+                    user.passwordHash(),
+                    user.authorities() // Roles extracted from the user
             );
         });
         authProvider.setPasswordEncoder(passwordEncoder);
@@ -0,0 +1,149 @@
+package com.petadoption.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reports virtual threads pinned to their carrier thread, active only when virtual threads
+ * are enabled (spring.threads.virtual.enabled=true).
+
+ * A virtual thread that blocks inside a synchronized block or a native frame can not unmount,
+ * so it keeps its carrier (one of only as many as there are CPUs) blocked with it. The JDK
+ * reports every such pin as a jdk.VirtualThreadPinned JFR event; this monitor consumes them
+ * in-process from a JFR event stream, with stack traces, for pins longer than the threshold.
+
+ * Every pin is recorded in the "virtual.threads.pinned" timer, tagged with the code location
+ * that pinned (the first frame outside the JDK, typically a JDBC driver or library lock).
+ * The first pin of each location is logged with its stack trace at WARN, later ones at DEBUG.
+ * Locations beyond the configured maximum share the tag "other", bounding the tag cardinality.
+ * Failures to start a virtual thread (jdk.VirtualThreadSubmitFailed) are counted in
+ * "virtual.threads.submit.failed".
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+    private static final String OTHER_SITE = "other";
+    private static final List<String> JDK_PACKAGES = List.of("java.", "javax.", "jdk.", "sun.");
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final int maxReportedSites;
+    private final Map<String, Timer> sites = new ConcurrentHashMap<>();
+    private final Counter submitFailures;
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${app.virtual-threads.pinning-threshold:20ms}") Duration threshold,
+                                       @Value("${app.virtual-threads.max-reported-sites:100}") int maxReportedSites) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+        this.maxReportedSites = maxReportedSites;
+        this.submitFailures = Counter.builder("virtual.threads.submit.failed")
+                .description("Virtual threads that could not be started or unparked")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        try {
+            RecordingStream recording = new RecordingStream();
+            recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+            recording.enable(SUBMIT_FAILED_EVENT).withStackTrace();
+            recording.onEvent(PINNED_EVENT, this::onPinned);
+            recording.onEvent(SUBMIT_FAILED_EVENT, this::onSubmitFailed);
+            recording.startAsync();
+            stream = recording;
+            logger.info("Reporting virtual threads pinned for longer than {}", threshold);
+        } catch (RuntimeException e) {
+            // e.g. a native image built without JFR support
+            logger.warn("Could not start the virtual thread pinning monitor, pins will not be reported", e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        String site = site(event.getStackTrace());
+        boolean first = !sites.containsKey(site);
+        Timer timer = sites.computeIfAbsent(site, tag -> Timer.builder("virtual.threads.pinned")
+                .description("Time virtual threads stayed pinned to their carrier thread while blocked")
+                .tag("site", tag)
+                .register(meterRegistry));
+        timer.record(event.getDuration());
+
+        if (first) {
+            logger.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), site, stackTrace(event.getStackTrace()));
+        } else {
+            logger.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(), site);
+        }
+    }
+
+    private void onSubmitFailed(RecordedEvent event) {
+        submitFailures.increment();
+        logger.error("Could not submit a virtual thread to its scheduler: {}{}", event.getString("exceptionMessage"), stackTrace(event.getStackTrace()));
+    }
+
+    private String site(RecordedStackTrace stackTrace) {
+        String site = OTHER_SITE;
+        if (stackTrace != null && !stackTrace.getFrames().isEmpty()) {
+            RecordedFrame location = stackTrace.getFrames().stream()
+                    .filter(RecordedFrame::isJavaFrame)
+                    .filter(frame -> JDK_PACKAGES.stream().noneMatch(frame.getMethod().getType().getName()::startsWith))
+                    .findFirst()
+                    .orElse(stackTrace.getFrames().get(0));
+            site = location.getMethod().getType().getName() + "." + location.getMethod().getName();
+        }
+        if (!sites.containsKey(site) && sites.size() >= maxReportedSites) {
+            return OTHER_SITE;
+        }
+        return site;
+    }
+
+    private static String stackTrace(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        StringBuilder text = new StringBuilder();
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            text.append(System.lineSeparator()).append("\tat ")
+                    .append(frame.getMethod().getType().getName()).append('.').append(frame.getMethod().getName())
+                    .append(" line ").append(frame.getLineNumber());
+        }
+        return text.toString();
+    }
+}
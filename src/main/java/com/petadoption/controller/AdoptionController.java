@@ -1,8 +1,14 @@
 package com.petadoption.controller;
 
+import com.petadoption.dto.PageDTO;
+import com.petadoption.dto.adoption.AdoptionStatusHistoryDTO;
 import com.petadoption.model.Adoption;
+import com.petadoption.service.AdoptionHistoryService;
 import com.petadoption.service.AdoptionService;
 import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -19,9 +25,11 @@ import java.util.Optional;
 public class AdoptionController {
 
     private final AdoptionService adoptionService;
+    private final AdoptionHistoryService adoptionHistoryService;
 
-    public AdoptionController(AdoptionService adoptionService) {
+    public AdoptionController(AdoptionService adoptionService, AdoptionHistoryService adoptionHistoryService) {
         this.adoptionService = adoptionService;
+        this.adoptionHistoryService = adoptionHistoryService;
     }
 
     // Register a new adoption
@@ -79,4 +87,13 @@ public class AdoptionController {
         Adoption rejectedAdoption = adoptionService.rejectAdoption(id);
         return new ResponseEntity<>(rejectedAdoption, HttpStatus.OK);
     }
+
+    // Get the status history of an adoption, oldest first (only admin or owner can access this)
+    @PreAuthorize("hasRole('ADMIN') or @adoptionSecurityService.isOwner(authentication, #id)")
+    @GetMapping("/{id}/history")
+    public ResponseEntity<PageDTO<AdoptionStatusHistoryDTO>> getAdoptionHistory(@PathVariable Long id,
+                                                                                @PageableDefault(size = 20, sort = "changedAt") Pageable pageable) {
+        Page<AdoptionStatusHistoryDTO> history = adoptionHistoryService.getHistory(id, pageable);
+        return new ResponseEntity<>(PageDTO.of(history), HttpStatus.OK);
+    }
 }
@@ -1,14 +1,23 @@
 package com.petadoption.controller;
 
+import com.petadoption.customexceptions.auth.HashingCapacityExceededException;
+import com.petadoption.customexceptions.user.UserAlreadyExistsException;
 import com.petadoption.dto.auth.LoginDTO;
 import com.petadoption.dto.auth.RegisterDTO;
 import com.petadoption.model.User;
+import com.petadoption.security.LoginThrottle;
+import com.petadoption.security.UserPrincipal;
 import com.petadoption.service.JwtService;
+import com.petadoption.service.UserAvailabilityService;
 import com.petadoption.service.UserService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -20,6 +29,9 @@ import java.util.Optional;
 
  * This controller interacts with the `JwtService` to generate tokens and the `UserService`
  * to manage user authentication and registration logic.
+
+ * Login attempts are counted in the "logins" counter, tagged "success" or "failure" (wrong
+ * credentials); attempts rejected by the throttle are counted by login.throttle.blocked instead.
  */
 @RestController
 @RequestMapping("/api/auth")
@@ -27,10 +39,32 @@ public class AuthController {
 
     private final JwtService jwtService;
     private final UserService userService;
+    private final UserAvailabilityService userAvailabilityService;
+    private final LoginThrottle loginThrottle;
+    private final Counter loginsSucceeded;
+    private final Counter loginsFailed;
 
-    public AuthController(JwtService jwtService, UserService userService) {
+    public AuthController(JwtService jwtService, UserService userService, UserAvailabilityService userAvailabilityService,
+                          LoginThrottle loginThrottle, MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userService = userService;
+        this.userAvailabilityService = userAvailabilityService;
+        this.loginThrottle = loginThrottle;
+        this.loginsSucceeded = loginCounter(meterRegistry, "success");
+        this.loginsFailed = loginCounter(meterRegistry, "failure");
+    }
+
+    @GetMapping("/availability")
+    public ResponseEntity<Map<String, Object>> availability(@RequestParam Optional<String> username,
+                                                            @RequestParam Optional<String> email) {
+        if (username.isEmpty() && email.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "A username or an email is required"));
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        username.ifPresent(value -> response.put("usernameAvailable", userAvailabilityService.isUsernameAvailable(value)));
+        email.ifPresent(value -> response.put("emailAvailable", userAvailabilityService.isEmailAvailable(value)));
+        return ResponseEntity.ok(response);
     }
 
     @PostMapping("/register")
@@ -58,23 +92,42 @@ public class AuthController {
             );
 
             return ResponseEntity.status(201).body(response);
+        } catch (UserAlreadyExistsException ex) {
+            return ResponseEntity.status(409).body(Map.of("error", ex.getMessage()));
+        } catch (HashingCapacityExceededException ex) {
+            throw ex; // 429, see GlobalExceptionHandler
         } catch (Exception ex) {
             return ResponseEntity.status(400).body(Map.of("error", ex.getMessage()));
         }
     }
 
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@Valid @RequestBody LoginDTO payload) {
+    public ResponseEntity<Map<String, String>> login(@Valid @RequestBody LoginDTO payload, HttpServletRequest request) {
         String username = payload.getUsername();
         String password = payload.getPassword();
+        String clientAddress = request.getRemoteAddr();
+
+        // Rejects abusive attempts (429) before any password hash is computed
+        loginThrottle.checkAllowed(username, clientAddress);
 
+        // Validate credentials with UserService
+        UserPrincipal principal;
         try {
-            // Validate credentials with UserService
-            List<String> roles = userService.authenticate(username, password);
+            principal = userService.authenticate(username, password);
+        } catch (HashingCapacityExceededException ex) {
+            throw ex; // 429, see GlobalExceptionHandler
+        } catch (RuntimeException ex) {
+            loginThrottle.recordFailure(username, clientAddress);
+            loginsFailed.increment();
+            return ResponseEntity.status(401).body(Map.of("error", ex.getMessage()));
+        }
+        loginThrottle.recordSuccess(username);
+        loginsSucceeded.increment();
 
+        try {
             // Generate Access and Refresh Tokens
-            String accessToken = jwtService.generateToken(username, roles);
-            String refreshToken = jwtService.generateRefreshToken(username, roles);
+            String accessToken = jwtService.generateToken(principal.getId(), principal.getUsername(), principal.getRoles());
+            String refreshToken = jwtService.generateRefreshToken(principal.getId(), principal.getUsername(), principal.getRoles());
 
             return ResponseEntity.ok(Map.of(
                     "accessToken", accessToken,
@@ -84,4 +137,11 @@ public class AuthController {
             return ResponseEntity.status(401).body(Map.of("error", ex.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    private static Counter loginCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("logins")
+                .description("Login attempts by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.petadoption.controller;
+
+import com.petadoption.security.JwtSigningKeys;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Publishes the public JWT keys of the application as a JSON Web Key Set, so other
+ * services can verify its tokens locally, picking the key by the token's "kid".
+ * During a key rotation both the new and the previous key are listed.
+ */
+@RestController
+public class JwksController {
+
+    private final JwtSigningKeys signingKeys;
+
+    public JwksController(JwtSigningKeys signingKeys) {
+        this.signingKeys = signingKeys;
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(signingKeys.toPublicJwks());
+    }
+}
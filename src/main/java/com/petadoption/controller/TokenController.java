@@ -1,6 +1,7 @@
 package com.petadoption.controller;
 
 import com.petadoption.dto.token.RefreshTokenRequestDTO;
+import com.petadoption.dto.token.TokenPair;
 import com.petadoption.service.JwtService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -14,7 +15,9 @@ import java.util.Map;
  * specifically for refreshing access tokens using a provided refresh token.
 
  * This controller exposes an endpoint that accepts a refresh token in the request body
- * and returns a new access token if the provided refresh token is valid and not expired.
+ * and returns a new access token, together with a new refresh token replacing the used one,
+ * if the provided refresh token is valid, not expired and not used before. A second endpoint
+ * revokes a refresh token and every token rotated from it (logout).
  * It leverages the {@code JwtService} to perform the token-refresh logic.
 
  * This controller is mapped to the path "/api/token".
@@ -31,14 +34,15 @@ public class TokenController {
 
     /**
      * Handles the HTTP POST request for refreshing an access token using a provided refresh token.
-     * Validates the refresh token from the request body, and if valid, generates and returns a new access token.
+     * Validates the refresh token from the request body, and if valid, generates and returns a new access token
+     * and a new refresh token. The given refresh token can not be used again.
      * Returns an appropriate response status and message in case of invalid input, expired token, or unexpected errors.
      *
      * @param refreshTokenRequest the request body containing the refresh token required for generating a new access token.
      *                            The refresh token must not be null or blank, as it is essential for authorization.
-     * @return a ResponseEntity containing a new access token in the response body if the refresh token is valid.
+     * @return a ResponseEntity containing a new access token and refresh token in the response body if the refresh token is valid.
      *         Returns HTTP 400 (BAD_REQUEST) if the refresh token is missing or invalid.
-     *         Returns HTTP 403 (FORBIDDEN) if the refresh token is expired or invalid.
+     *         Returns HTTP 403 (FORBIDDEN) if the refresh token is expired, invalid, revoked or already used.
      *         Returns HTTP 500 (INTERNAL_SERVER_ERROR) if an unexpected error occurs.
      */
     @PostMapping("/refresh")
@@ -51,10 +55,43 @@ public class TokenController {
         }
 
         try {
-            // Generate a new Access Token from the Refresh Token
-            String newAccessToken = jwtService.refreshAccessToken(refreshToken);
+            // Generate a new Access Token from the Refresh Token, rotating the Refresh Token
+            TokenPair tokens = jwtService.refreshTokens(refreshToken);
+
+            return ResponseEntity.ok(Map.of(
+                    "accessToken", tokens.accessToken(),
+                    "refreshToken", tokens.refreshToken()
+            ));
+        } catch (JwtException ex) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Invalid or expired refresh token"));
+        } catch (Exception ex) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "An unexpected error occurred"));
+        }
+    }
+
+    /**
+     * Handles the HTTP POST request for revoking a refresh token, for instance on logout.
+     * Every refresh token of the same login, including the ones rotated from it, stops working.
+     *
+     * @param refreshTokenRequest the request body containing the refresh token to revoke.
+     * @return HTTP 204 (NO_CONTENT) once the token is revoked.
+     *         Returns HTTP 400 (BAD_REQUEST) if the refresh token is missing.
+     *         Returns HTTP 403 (FORBIDDEN) if the refresh token is expired or invalid.
+     */
+    @PostMapping("/revoke")
+    public ResponseEntity<?> revokeToken(@RequestBody RefreshTokenRequestDTO refreshTokenRequest) {
+        String refreshToken = refreshTokenRequest.getRefreshToken();
 
-            return ResponseEntity.ok(Map.of("accessToken", newAccessToken));
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(Map.of("error", "Refresh token is required"));
+        }
+
+        try {
+            jwtService.revokeRefreshToken(refreshToken);
+            return ResponseEntity.noContent().build();
         } catch (JwtException ex) {
             return ResponseEntity.status(HttpStatus.FORBIDDEN)
                     .body(Map.of("error", "Invalid or expired refresh token"));
@@ -1,17 +1,23 @@
 package com.petadoption.controller;
 
 import com.petadoption.customexceptions.user.UserNotFoundException;
+import com.petadoption.dto.PageDTO;
 import com.petadoption.dto.UserDTO;
+import com.petadoption.dto.user.UserPurgeRequestDTO;
 import com.petadoption.model.User;
+import com.petadoption.model.enums.SearchMode;
 import com.petadoption.service.UserService;
+import jakarta.validation.Valid;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 /**
  * The UserController class provides endpoints
@@ -34,15 +40,26 @@ public class UserController {
         this.userService = userService;
     }
 
-    //Get all users
+    //Get all users, one page at a time (e.g. ?page=0&size=20&sort=name,asc)
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<UserDTO>> getAllUsers() {
-        List<UserDTO> users = userService.getAllUsers()
-                .stream()
-                .map(user -> new UserDTO(user.getId(), user.getName(), user.getEmail(), user.getPhone()))
-                .collect(Collectors.toList());
-        return new ResponseEntity<>(users, HttpStatus.OK);
+    public ResponseEntity<PageDTO<UserDTO>> getAllUsers(@PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        Page<UserDTO> users = userService.getUserPage(pageable);
+        return new ResponseEntity<>(PageDTO.of(users), HttpStatus.OK);
+    }
+
+    //Search users by name, email or phone (e.g. ?q=jo&mode=prefix or ?q=example&mode=contains)
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> searchUsers(@RequestParam("q") String query,
+                                         @RequestParam(defaultValue = "prefix") String mode,
+                                         @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        try {
+            Page<UserDTO> users = userService.searchUsers(query, SearchMode.fromName(mode), pageable);
+            return new ResponseEntity<>(PageDTO.of(users), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+        }
     }
 
     //Get user by ID
@@ -79,5 +96,12 @@ public class UserController {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
     }
-}
 
+    //Purge many users and their adoptions, committing in chunks
+    @PostMapping("/purge")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> purgeUsers(@Valid @RequestBody UserPurgeRequestDTO request) {
+        int deleted = userService.purgeUsers(request.getUserIds());
+        return new ResponseEntity<>(Map.of("requested", request.getUserIds().size(), "deleted", deleted), HttpStatus.OK);
+    }
+}
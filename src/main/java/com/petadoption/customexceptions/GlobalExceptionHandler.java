@@ -1,10 +1,12 @@
 package com.petadoption.customexceptions;
 
-import com.petadoption.customexceptions.adoption.AdoptionIdValidationException;
+import com.petadoption.customexceptions.auth.HashingCapacityExceededException;
+import com.petadoption.customexceptions.auth.LoginThrottledException;
 import com.petadoption.customexceptions.adoption.AdoptionNotFoundException;
-import com.petadoption.customexceptions.adoption.AdoptionStatusException;
 import com.petadoption.customexceptions.pet.*;
 import com.petadoption.customexceptions.user.*;
+import com.petadoption.customexceptions.validation.EntityValidationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -41,24 +43,9 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
     }
 
-    @ExceptionHandler(UserNameValidationException.class)
-    public ResponseEntity<String> handleUserNameValidationException(UserNameValidationException e) {
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-    }
-
-    @ExceptionHandler(UserEmailValidationException.class)
-    public ResponseEntity<String> handleUserEmailValidationException(UserEmailValidationException e) {
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-    }
-
-    @ExceptionHandler(UserPhoneValidationException.class)
-    public ResponseEntity<String> handleUserPhoneValidationException(UserPhoneValidationException e) {
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-    }
-
-    @ExceptionHandler(UserIdValidationException.class)
-    public ResponseEntity<String> handleUserIdValidationException(UserIdValidationException e) {
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(UserAlreadyExistsException.class)
+    public ResponseEntity<String> handleUserAlreadyExistsException(UserAlreadyExistsException e) {
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.CONFLICT);
     }
 
     //Pet Exception Handler
@@ -73,36 +60,34 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
-    @ExceptionHandler(PetNameValidationException.class)
-    public ResponseEntity<String> handlePetNameValidationException(PetNameValidationException e) {
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-    }
-
-    @ExceptionHandler(PetAgeValidationException.class)
-    public ResponseEntity<String> handlePetAgeValidationException(PetAgeValidationException e) {
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-    }
-
-    @ExceptionHandler(PetAvailabilityValidationException.class)
-    public ResponseEntity<String> handlePetAvailabilityValidationException(PetAvailabilityValidationException e) {
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
-    }
+    //Adoption Exception Handler
 
     @ExceptionHandler(AdoptionNotFoundException.class)
     public ResponseEntity<String> handleAdoptionNotFoundException(AdoptionNotFoundException e) {
         return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
     }
 
-    //Adoption Exception Handler
+    //Auth Exception Handler
 
-    @ExceptionHandler(AdoptionIdValidationException.class)
-    public ResponseEntity<String> handleAdoptionIdValidationException(AdoptionIdValidationException e) {
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(HashingCapacityExceededException.class)
+    public ResponseEntity<Map<String, String>> handleHashingCapacityExceededException(HashingCapacityExceededException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", e.getMessage()));
     }
 
-    @ExceptionHandler(AdoptionStatusException.class)
-    public ResponseEntity<String> handleAdoptionStatusException(AdoptionStatusException e) {
-        return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<Map<String, String>> handleLoginThrottledException(LoginThrottledException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(Map.of("error", e.getMessage()));
+    }
+
+    //Validation Exception Handler
+
+    @ExceptionHandler(EntityValidationException.class)
+    public ResponseEntity<Map<String, String>> handleEntityValidationException(EntityValidationException e) {
+        return new ResponseEntity<>(e.getFieldErrors(), HttpStatus.BAD_REQUEST);
     }
 
     //Generic Exception Handler
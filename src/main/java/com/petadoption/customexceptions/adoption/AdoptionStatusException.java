@@ -1,8 +0,0 @@
-package com.petadoption.customexceptions.adoption;
-
-public class AdoptionStatusException extends AdoptionNotFoundException{
-
-    public AdoptionStatusException(String message) {
-        super(message);
-    }
-}
@@ -0,0 +1,12 @@
+package com.petadoption.customexceptions.auth;
+
+/**
+ * Thrown when the password hashing executor is saturated and can not take another
+ * hash within the configured wait time. It is answered with 429 Too Many Requests.
+ */
+public class HashingCapacityExceededException extends RuntimeException {
+
+    public HashingCapacityExceededException(String message) {
+        super(message);
+    }
+}
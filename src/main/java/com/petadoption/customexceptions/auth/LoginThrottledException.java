@@ -0,0 +1,19 @@
+package com.petadoption.customexceptions.auth;
+
+/**
+ * Thrown when a login attempt is rejected because its username or client address
+ * has failed too many times recently. It is answered with 429 Too Many Requests.
+ */
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
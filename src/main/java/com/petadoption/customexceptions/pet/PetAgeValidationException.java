@@ -1,8 +0,0 @@
-package com.petadoption.customexceptions.pet;
-
-public class PetAgeValidationException extends PetNotFoundException {
-
-    public PetAgeValidationException(String message) {
-        super(message);
-    }
-}
@@ -0,0 +1,8 @@
+package com.petadoption.customexceptions.user;
+
+public class UserAlreadyExistsException extends RuntimeException {
+
+    public UserAlreadyExistsException(String message) {
+        super(message);
+    }
+}
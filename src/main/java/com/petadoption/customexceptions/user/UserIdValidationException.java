@@ -1,8 +0,0 @@
-package com.petadoption.customexceptions.user;
-
-public class UserIdValidationException extends UserNotFoundException {
-
-    public UserIdValidationException(String message) {
-        super(message);
-    }
-}
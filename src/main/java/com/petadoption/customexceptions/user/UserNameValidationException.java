@@ -1,8 +0,0 @@
-package com.petadoption.customexceptions.user;
-
-public class UserNameValidationException extends UserNotFoundException {
-
-    public UserNameValidationException(String message) {
-        super(message);
-    }
-}
@@ -0,0 +1,17 @@
+package com.petadoption.customexceptions.validation;
+
+import java.util.Map;
+
+public class EntityValidationException extends RuntimeException {
+
+    private final Map<String, String> fieldErrors;
+
+    public EntityValidationException(Map<String, String> fieldErrors) {
+        super("Validation failed: " + fieldErrors);
+        this.fieldErrors = fieldErrors;
+    }
+
+    public Map<String, String> getFieldErrors() {
+        return fieldErrors;
+    }
+}
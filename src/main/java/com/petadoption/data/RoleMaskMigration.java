@@ -0,0 +1,57 @@
+package com.petadoption.data;
+
+import com.petadoption.model.enums.Role;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * One-time data migration from the legacy "user_roles" collection table to the
+ * "roles_mask" column of "app_user".
+
+ * It runs after the EntityManagerFactory has been created (so Hibernate has already added
+ * the new column) and before the web server accepts requests. Only users whose mask is
+ * still 0 and that have legacy role rows are updated, so running it again is a no-op.
+ * The legacy table is left in place and can be dropped once the migration has been verified.
+ */
+@Component
+public class RoleMaskMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(RoleMaskMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // The EntityManagerFactory is only injected to guarantee the schema is up to date first
+    public RoleMaskMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        Integer legacyTables = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM information_schema.tables WHERE lower(table_name) = 'user_roles'", Integer.class);
+        if (legacyTables == null || legacyTables == 0) {
+            return;
+        }
+
+        // Each role owns a distinct bit, so the sum of the distinct bits equals their bitwise OR
+        String bitOfRole = Arrays.stream(Role.values())
+                .map(role -> "WHEN '" + role.getAuthorityName() + "' THEN " + role.getBit())
+                .collect(Collectors.joining(" ", "CASE r.role ", " ELSE 0 END"));
+
+        int migratedUsers = jdbcTemplate.update(
+                "UPDATE app_user SET roles_mask = (" +
+                        "SELECT COALESCE(SUM(DISTINCT " + bitOfRole + "), 0) FROM user_roles r WHERE r.user_id = app_user.id) " +
+                        "WHERE roles_mask = 0 AND EXISTS (SELECT 1 FROM user_roles r WHERE r.user_id = app_user.id)");
+
+        if (migratedUsers > 0) {
+            logger.info("Migrated roles of {} users from user_roles to app_user.roles_mask", migratedUsers);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.petadoption.data;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Creates the PostgreSQL indexes behind the admin user search (UserRepository.searchUserDTOs).
+
+ * Each searched expression gets two indexes: a B-tree with text_pattern_ops, which serves
+ * prefix matches of any length, and a GIN trigram index (pg_trgm), which serves substring
+ * matches. Hibernate's schema update can not create expression or operator-class indexes,
+ * so they are created here with IF NOT EXISTS, which makes running it again a no-op.
+ * Other databases (such as the in-memory H2 used by the benchmarks) are skipped.
+ */
+@Component
+public class UserSearchIndexMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchIndexMigration.class);
+
+    private static final List<String> PREFIX_INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_app_user_name_prefix ON app_user (lower(name) text_pattern_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_app_user_email_prefix ON app_user (lower(email) text_pattern_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_app_user_phone_prefix ON app_user (phone text_pattern_ops)"
+    );
+
+    private static final List<String> TRIGRAM_INDEXES = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_app_user_name_trgm ON app_user USING gin (lower(name) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_app_user_email_trgm ON app_user USING gin (lower(email) gin_trgm_ops)",
+            "CREATE INDEX IF NOT EXISTS idx_app_user_phone_trgm ON app_user USING gin (phone gin_trgm_ops)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // The EntityManagerFactory is only injected to guarantee the schema is up to date first
+    public UserSearchIndexMigration(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equalsIgnoreCase(database)) {
+            return;
+        }
+
+        PREFIX_INDEXES.forEach(jdbcTemplate::execute);
+
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        } catch (DataAccessException e) {
+            // Without the extension, contains searches still work but scan the table
+            logger.warn("Could not enable pg_trgm, substring user search will not be indexed: {}", e.getMessage());
+            return;
+        }
+        TRIGRAM_INDEXES.forEach(jdbcTemplate::execute);
+    }
+}
@@ -0,0 +1,17 @@
+package com.petadoption.dto;
+
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+/**
+ * One page of a listing as it is returned to clients: its content and its position in the
+ * whole listing. Endpoints return it instead of a Spring Data Page, whose JSON form is not
+ * stable and fails to serialize for unpaged results.
+ */
+public record PageDTO<T>(List<T> content, int number, int size, long totalElements, int totalPages) {
+
+    public static <T> PageDTO<T> of(Page<T> page) {
+        return new PageDTO<>(page.getContent(), page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages());
+    }
+}
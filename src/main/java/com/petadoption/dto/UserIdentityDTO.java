@@ -0,0 +1,8 @@
+package com.petadoption.dto;
+
+/**
+ * Lightweight projection of the identifying fields of a user (id, username and email),
+ * used to scan the user table in pages without loading full entities.
+ */
+public record UserIdentityDTO(Long id, String username, String email) {
+}
@@ -0,0 +1,23 @@
+package com.petadoption.dto;
+
+import com.petadoption.model.enums.Role;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+/**
+ * The part of a user needed to authenticate and authorize it: id, username, password hash
+ * and roles. It is the value kept by the user profile cache, so it is immutable and holds
+ * no lazy JPA state.
+ */
+public record UserProfile(Long id, String username, String passwordHash, int rolesMask) {
+
+    // "ROLE_*" names, as returned by User.getRoles()
+    public List<String> roles() {
+        return List.copyOf(Role.namesOf(rolesMask));
+    }
+
+    public List<GrantedAuthority> authorities() {
+        return Role.authoritiesOf(rolesMask);
+    }
+}
@@ -0,0 +1,16 @@
+package com.petadoption.dto.adoption;
+
+import com.petadoption.model.AdoptionStatusHistory;
+
+import java.util.Date;
+
+/**
+ * A status transition of an adoption as returned by the history endpoint.
+ */
+public record AdoptionStatusHistoryDTO(Long adoptionId, String fromStatus, String toStatus, String actor, Date changedAt) {
+
+    public static AdoptionStatusHistoryDTO of(AdoptionStatusHistory entry) {
+        return new AdoptionStatusHistoryDTO(entry.getAdoptionId(), entry.getFromStatus(), entry.getToStatus(),
+                entry.getActor(), entry.getChangedAt());
+    }
+}
@@ -0,0 +1,7 @@
+package com.petadoption.dto.token;
+
+/**
+ * An access token together with the refresh token that replaces the one just used.
+ * Refresh tokens are rotated on every refresh, so clients must store the new one.
+ */
+public record TokenPair(String accessToken, String refreshToken) {}
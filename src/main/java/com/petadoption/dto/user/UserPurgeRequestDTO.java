@@ -0,0 +1,23 @@
+package com.petadoption.dto.user;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) representing a request to purge many user accounts at once.
+ * Each user is removed together with its adoptions; ids that do not exist are ignored.
+ */
+public class UserPurgeRequestDTO {
+
+    @NotEmpty(message = "At least one user id is required")
+    private List<Long> userIds;
+
+    public List<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(List<Long> userIds) {
+        this.userIds = userIds;
+    }
+}
@@ -0,0 +1,97 @@
+package com.petadoption.model;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Represents a single status transition of an adoption.
+ * Entries are append-only: they are written once by the asynchronous history writer
+ * and never updated, so the adoption id is stored as a plain column instead of a
+ * relationship, keeping the log valid even if the adoption itself is removed later.
+ */
+@Entity
+@Table(name = "adoption_status_history",
+        indexes = @Index(name = "idx_adoption_history_adoption_changed", columnList = "adoption_id, changed_at"))
+public class AdoptionStatusHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "adoption_id", nullable = false, updatable = false)
+    private Long adoptionId;
+
+    @Column(name = "from_status", updatable = false)
+    private String fromStatus;
+
+    @Column(name = "to_status", nullable = false, updatable = false)
+    private String toStatus;
+
+    @Column(name = "actor", updatable = false)
+    private String actor;
+
+    @Column(name = "changed_at", nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date changedAt;
+
+    public AdoptionStatusHistory() {}
+
+    public AdoptionStatusHistory(Long adoptionId, String fromStatus, String toStatus, String actor, Date changedAt) {
+        this.adoptionId = adoptionId;
+        this.fromStatus = fromStatus;
+        this.toStatus = toStatus;
+        this.actor = actor;
+        this.changedAt = changedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getAdoptionId() {
+        return adoptionId;
+    }
+
+    public String getFromStatus() {
+        return fromStatus;
+    }
+
+    public String getToStatus() {
+        return toStatus;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public Date getChangedAt() {
+        return changedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        AdoptionStatusHistory that = (AdoptionStatusHistory) o;
+        return Objects.equals(id, that.id) && Objects.equals(adoptionId, that.adoptionId) && Objects.equals(fromStatus, that.fromStatus) && Objects.equals(toStatus, that.toStatus) && Objects.equals(actor, that.actor) && Objects.equals(changedAt, that.changedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, adoptionId, fromStatus, toStatus, actor, changedAt);
+    }
+
+    @Override
+    public String toString() {
+        return "AdoptionStatusHistory{" +
+                "id=" + id +
+                ", adoptionId=" + adoptionId +
+                ", fromStatus='" + fromStatus + '\'' +
+                ", toStatus='" + toStatus + '\'' +
+                ", actor='" + actor + '\'' +
+                ", changedAt=" + changedAt +
+                '}';
+    }
+}
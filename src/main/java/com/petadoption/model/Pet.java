@@ -1,17 +1,30 @@
 package com.petadoption.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.petadoption.model.enums.PetStatus;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.Objects;
 
 /**
  * Represents a Pet entity in the system, with details such as name, age, status,
  * type of pet, and location. This class is annotated as an entity for persistence.
+
+ * Pets are kept in the read-write "pet" second-level cache region, which Hibernate updates
+ * when a transaction changing a pet commits (e.g. approving or rejecting an adoption).
+ * The region is local to each instance, so other instances may serve the old pet until
+ * its entry expires (30 seconds, see application.conf).
+ * An adoption may reference its pet through a Hibernate proxy, whose internals are left out
+ * of the JSON; PetService loads the pet and its type before the response is written.
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pet")
 public class Pet {
 
     @Id
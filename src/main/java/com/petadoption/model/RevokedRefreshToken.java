@@ -0,0 +1,41 @@
+package com.petadoption.model;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * An entry of the refresh token revocation set.
+ * The id is either the jti of a refresh token that was already rotated (used once) or the
+ * id of a token family that was revoked as a whole (logout or detected reuse). Both are
+ * random UUIDs, so they share one table. An entry is only needed while the tokens it
+ * refers to can still be presented, so it is pruned once expiresAt has passed.
+ */
+@Entity
+@Table(name = "revoked_refresh_token",
+        indexes = @Index(name = "idx_revoked_refresh_token_expires_at", columnList = "expires_at"))
+public class RevokedRefreshToken {
+
+    @Id
+    @Column(name = "token_id", length = 36, nullable = false, updatable = false)
+    private String tokenId;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date expiresAt;
+
+    public RevokedRefreshToken() {}
+
+    public RevokedRefreshToken(String tokenId, Date expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Date getExpiresAt() {
+        return expiresAt;
+    }
+}
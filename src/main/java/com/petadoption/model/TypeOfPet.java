@@ -1,9 +1,13 @@
 package com.petadoption.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,8 +17,15 @@ import java.util.Objects;
  * Represents the type or category of a pet, such as dog, cat, bird, etc.
  * This class is an entity that can be persisted in a database.
  * It contains information about the type's unique identifier and name.
+
+ * Types are reference data that is only ever inserted, so they are kept in the read-only
+ * "type-of-pet" second-level cache region; updating one would fail. A pet assembled from the
+ * cache may reference its type through a Hibernate proxy, whose internals are left out of the JSON.
  */
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY, region = "type-of-pet")
 public class TypeOfPet {
 
     @Id
@@ -1,27 +1,38 @@
 package com.petadoption.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.petadoption.model.enums.Role;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Represents a user entity in the system. This class is mapped to the "app_user" database table.
  * A user has an ID, name, phone, username, email, password, and roles, which represent
  * the permissions or authority levels assigned to the user.
 
+ * Roles are stored as a bitmask in the "roles_mask" column (see {@link Role}), so loading
+ * a user never needs a join or a second query for its roles. {@link #getRoles()} and
+ * {@link #getAuthorities()} still expose them as "ROLE_*" names and authorities.
+
+ * Users are kept in the read-write "user" second-level cache region. Bulk JPQL updates and
+ * deletes of users (password rehash, purge) invalidate the whole region. The region is local
+ * to each instance, so other instances may serve the old user for up to 30 seconds.
+
  * This entity is used for managing user authentication and authorization.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 @Table(name = "app_user")
 public class User {
 
@@ -44,16 +55,13 @@ public class User {
     @Column(name = "password", nullable = false)
     private String password;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
-    @Column(name = "role")
-    private Set<String> roles = new HashSet<>();
+    @JsonIgnore
+    @Column(name = "roles_mask", nullable = false, columnDefinition = "integer default 0")
+    private int rolesMask;
 
 
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return roles.stream()
-                .map(SimpleGrantedAuthority::new) // We convert each role to a valid authority
-                .collect(Collectors.toList());
+        return Role.authoritiesOf(rolesMask); // Shared immutable authorities for this combination of roles
     }
 
     public User() {}
@@ -63,7 +71,7 @@ public class User {
         this.name = name;
         this.phone = phone;
         this.email = email;
-        this.roles = roles;
+        this.rolesMask = Role.toMask(roles);
     }
 
     public Long getId() {
@@ -99,11 +107,36 @@ public class User {
     }
 
     public Set<String> getRoles() {
-        return roles;
+        return Role.namesOf(rolesMask);
     }
 
     public void setRoles(Set<String> roles) {
-        this.roles = roles;
+        this.rolesMask = Role.toMask(roles);
+    }
+
+    @JsonIgnore
+    public Set<Role> getRoleSet() {
+        return Role.fromMask(rolesMask);
+    }
+
+    public boolean hasRole(Role role) {
+        return (rolesMask & role.getBit()) != 0;
+    }
+
+    public void grantRole(Role role) {
+        this.rolesMask |= role.getBit();
+    }
+
+    public void revokeRole(Role role) {
+        this.rolesMask &= ~role.getBit();
+    }
+
+    public int getRolesMask() {
+        return rolesMask;
+    }
+
+    public void setRolesMask(int rolesMask) {
+        this.rolesMask = rolesMask;
     }
 
     public String getUsername() {
@@ -131,12 +164,12 @@ public class User {
                 && Objects.equals(name, user.name)
                 && Objects.equals(email, user.email)
                 && Objects.equals(phone, user.phone)
-                && Objects.equals(roles, user.roles);
+                && rolesMask == user.rolesMask;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, name, email, phone, roles);
+        return Objects.hash(id, name, email, phone, rolesMask);
     }
 
     @Override
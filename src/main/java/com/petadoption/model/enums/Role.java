@@ -0,0 +1,154 @@
+package com.petadoption.model.enums;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Enum representing the roles a user can hold.
+ * Roles are stored on the user row as a bitmask (see {@code User.rolesMask}), each role
+ * owning one fixed bit. The bit values are persisted, so they must never be reordered
+ * or reused; new roles take the next free bit.
+
+ * The names and authorities for every possible mask are computed once, so converting
+ * a mask back to Spring Security authorities does not allocate.
+ */
+public enum Role {
+    USER(1),
+    ADMIN(1 << 1);
+
+    private static final int ALL_ROLES_MASK;
+    private static final List<Set<String>> NAMES_BY_MASK = new ArrayList<>();
+    private static final List<List<GrantedAuthority>> AUTHORITIES_BY_MASK = new ArrayList<>();
+
+    static {
+        int allRoles = 0;
+        for (Role role : values()) {
+            allRoles |= role.bit;
+        }
+        ALL_ROLES_MASK = allRoles;
+
+        for (int mask = 0; mask <= ALL_ROLES_MASK; mask++) {
+            Set<String> names = new LinkedHashSet<>();
+            List<GrantedAuthority> authorities = new ArrayList<>();
+            for (Role role : values()) {
+                if ((mask & role.bit) != 0) {
+                    names.add(role.authorityName);
+                    authorities.add(role.authority);
+                }
+            }
+            NAMES_BY_MASK.add(Set.copyOf(names));
+            AUTHORITIES_BY_MASK.add(List.copyOf(authorities));
+        }
+    }
+
+    private final int bit;
+    private final String authorityName;
+    private final GrantedAuthority authority;
+
+    Role(int bit) {
+        this.bit = bit;
+        this.authorityName = "ROLE_" + name();
+        this.authority = new SimpleGrantedAuthority(authorityName);
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    /**
+     * @return the Spring Security authority name of the role, e.g. "ROLE_ADMIN".
+     */
+    public String getAuthorityName() {
+        return authorityName;
+    }
+
+    public GrantedAuthority getAuthority() {
+        return authority;
+    }
+
+    /**
+     * Resolves a role from its authority name ("ROLE_ADMIN") or its plain name ("ADMIN").
+     *
+     * @throws IllegalArgumentException if the name does not match any role.
+     */
+    public static Role fromName(String name) {
+        if (name == null) {
+            throw new IllegalArgumentException("Role name must not be null");
+        }
+        return Role.valueOf(plainName(name));
+    }
+
+    /**
+     * @return the role name without the "ROLE_" prefix, e.g. "ADMIN" for "ROLE_ADMIN" or "ADMIN".
+     */
+    public static String plainName(String name) {
+        return name.startsWith("ROLE_") ? name.substring("ROLE_".length()) : name;
+    }
+
+    /**
+     * Role names as tokens and principals carry them: without the "ROLE_" prefix and without
+     * duplicates, in their original order.
+     *
+     * @return an immutable list of the plain names; null and non-string names are skipped.
+     */
+    public static List<String> plainNames(Collection<?> names) {
+        Set<String> plainNames = new LinkedHashSet<>();
+        if (names != null) {
+            for (Object name : names) {
+                if (name instanceof String roleName) {
+                    plainNames.add(plainName(roleName));
+                }
+            }
+        }
+        return List.copyOf(plainNames);
+    }
+
+    public static int toMask(Collection<String> roleNames) {
+        int mask = 0;
+        if (roleNames != null) {
+            for (String roleName : roleNames) {
+                mask |= fromName(roleName).bit;
+            }
+        }
+        return mask;
+    }
+
+    public static int maskOf(Set<Role> roles) {
+        int mask = 0;
+        for (Role role : roles) {
+            mask |= role.bit;
+        }
+        return mask;
+    }
+
+    public static Set<Role> fromMask(int mask) {
+        Set<Role> roles = EnumSet.noneOf(Role.class);
+        for (Role role : values()) {
+            if ((mask & role.bit) != 0) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * @return the immutable, shared set of authority names ("ROLE_USER", ...) for the mask.
+     */
+    public static Set<String> namesOf(int mask) {
+        return NAMES_BY_MASK.get(mask & ALL_ROLES_MASK);
+    }
+
+    /**
+     * @return the immutable, shared list of granted authorities for the mask.
+     */
+    public static List<GrantedAuthority> authoritiesOf(int mask) {
+        return AUTHORITIES_BY_MASK.get(mask & ALL_ROLES_MASK);
+    }
+}
@@ -0,0 +1,37 @@
+package com.petadoption.model.enums;
+
+import java.util.Locale;
+
+/**
+ * Enum representing how a search term is matched against text columns.
+
+ * The possible modes are:
+ * - PREFIX: The value starts with the term.
+ * - CONTAINS: The term appears anywhere in the value. Terms shorter than three
+ *   characters can not use the trigram indexes, so they are rejected.
+ */
+public enum SearchMode {
+    PREFIX(1),
+    CONTAINS(3);
+
+    private final int minimumTermLength;
+
+    SearchMode(int minimumTermLength) {
+        this.minimumTermLength = minimumTermLength;
+    }
+
+    public int getMinimumTermLength() {
+        return minimumTermLength;
+    }
+
+    /**
+     * Case-insensitive lookup, so request parameters like "prefix" are accepted.
+     */
+    public static SearchMode fromName(String name) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown search mode: " + name);
+        }
+    }
+}
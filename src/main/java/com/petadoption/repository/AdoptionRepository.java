@@ -2,11 +2,14 @@ package com.petadoption.repository;
 
 import com.petadoption.model.Adoption;
 import com.petadoption.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,8 +23,21 @@ import java.util.Optional;
 @Repository
 public interface AdoptionRepository extends JpaRepository<Adoption, Long> {
 
+    // Fetches the pet, its type and the user in the same select: the listing serializes all of them
+    @Override
+    @EntityGraph(attributePaths = {"pet", "pet.typeOfPet", "user"})
+    List<Adoption> findAll();
+
     @Query("SELECT a FROM Adoption a JOIN FETCH a.user WHERE a.adoptionId = :adoptionId")
     Optional<Adoption> findByIdWithUser(@Param("adoptionId") Long adoptionId);
     List<Adoption> findByPetId(Long petId);
 
+    // Reads only the owner's foreign key, without loading the adoption or its user
+    @Query("SELECT a.user.id FROM Adoption a WHERE a.adoptionId = :adoptionId")
+    Optional<Long> findOwnerIdById(@Param("adoptionId") Long adoptionId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Adoption a WHERE a.user.id IN :userIds")
+    int deleteByUserIds(@Param("userIds") Collection<Long> userIds);
+
 }
@@ -0,0 +1,18 @@
+package com.petadoption.repository;
+
+import com.petadoption.model.AdoptionStatusHistory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository interface for reading the append-only adoption status history.
+ * Writes are grouped in batches by AdoptionHistoryService, so this interface only
+ * exposes the paginated per-adoption lookup used by the history endpoint.
+ */
+@Repository
+public interface AdoptionStatusHistoryRepository extends JpaRepository<AdoptionStatusHistory, Long> {
+
+    Page<AdoptionStatusHistory> findByAdoptionId(Long adoptionId, Pageable pageable);
+}
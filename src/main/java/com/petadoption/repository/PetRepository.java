@@ -2,10 +2,15 @@ package com.petadoption.repository;
 
 import com.petadoption.model.Pet;
 import com.petadoption.model.enums.PetStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing Pet entities in the database.
@@ -14,10 +19,28 @@ import java.util.List;
 
  * This interface is used primarily in services such as PetService and AdoptionService,
  * where business logic related to Pets interacts with the database layer.
+
+ * The catalog queries are cached in the "pet-catalog" query cache region. Only the ids are
+ * cached (the pets come from the "pet" entity region), and any write to the pet table
+ * invalidates the cached results.
+
+ * Pets are always read with their type, which every response includes: the JSON is written
+ * after the transaction ends, when a type proxy could no longer be loaded.
  */
 @Repository
 public interface PetRepository extends JpaRepository<Pet, Long> {
 
+    @Override
+    @EntityGraph(attributePaths = "typeOfPet")
+    Optional<Pet> findById(Long id);
+
+    @EntityGraph(attributePaths = "typeOfPet")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "pet-catalog")})
     List<Pet> findByLocation(String location);
+
+    @EntityGraph(attributePaths = "typeOfPet")
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "pet-catalog")})
     List<Pet> findByStatus(PetStatus status);
 }
@@ -0,0 +1,69 @@
+package com.petadoption.repository;
+
+import com.petadoption.model.RevokedRefreshToken;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Repository for the persisted refresh token revocation set.
+ * The table is shared by every instance of the application, so it is the authority on
+ * revocations; the in-memory filter of RefreshTokenRevocationService only knows what its
+ * own instance has seen.
+ */
+@Repository
+public interface RevokedRefreshTokenRepository extends JpaRepository<RevokedRefreshToken, String> {
+
+    /**
+     * Adds an id to the set unless it is already there.
+     * The insert is atomic, so when the same refresh token is rotated twice concurrently
+     * exactly one caller gets 1 and the other one sees the reuse.
+     *
+     * Declares the table it writes to: a native statement without query spaces makes
+     * Hibernate invalidate every second-level cache region.
+     *
+     * @return 1 if the id was added, 0 if it was already revoked.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "revoked_refresh_token"))
+    @Query(value = "INSERT INTO revoked_refresh_token (token_id, expires_at) VALUES (:tokenId, :expiresAt) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("tokenId") String tokenId, @Param("expiresAt") Date expiresAt);
+
+    /**
+     * Marks a refresh token as used, unless it already was or its family has been revoked.
+     * The family is checked by the same statement, so a revocation done by any instance is
+     * seen without an extra query.
+     *
+     * @return 1 if the token was marked as used, 0 if it was already used or its family is revoked.
+     */
+    @Modifying
+    @Transactional
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "revoked_refresh_token"))
+    @Query(value = "INSERT INTO revoked_refresh_token (token_id, expires_at) "
+            + "SELECT CAST(:tokenId AS VARCHAR(36)), CAST(:expiresAt AS TIMESTAMP) "
+            + "WHERE NOT EXISTS (SELECT 1 FROM revoked_refresh_token WHERE token_id = :familyId) "
+            + "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertUnlessFamilyRevoked(@Param("tokenId") String tokenId, @Param("familyId") String familyId,
+                                  @Param("expiresAt") Date expiresAt);
+
+    @Query("SELECT r.tokenId FROM RevokedRefreshToken r WHERE r.tokenId > :afterId AND r.expiresAt > :now ORDER BY r.tokenId")
+    List<String> findActiveIdsAfter(@Param("afterId") String afterId, @Param("now") Date now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedRefreshToken r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Date now);
+}
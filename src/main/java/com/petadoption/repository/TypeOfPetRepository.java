@@ -1,9 +1,14 @@
 package com.petadoption.repository;
 
 import com.petadoption.model.TypeOfPet;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 /**
  * Repository interface for managing {@link TypeOfPet} entities.
  * This interface extends {@link JpaRepository} to provide standard
@@ -18,4 +23,10 @@ import org.springframework.stereotype.Repository;
  */
 @Repository
 public interface TypeOfPetRepository extends JpaRepository<TypeOfPet, Long> {
+
+    // Cached in the "pet-catalog" query cache region, the types themselves in "type-of-pet"
+    @Override
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "pet-catalog")})
+    List<TypeOfPet> findAll();
 }
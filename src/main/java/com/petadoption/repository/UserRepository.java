@@ -1,9 +1,20 @@
 package com.petadoption.repository;
 
+import com.petadoption.dto.UserDTO;
+import com.petadoption.dto.UserIdentityDTO;
+import com.petadoption.dto.UserProfile;
 import com.petadoption.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,4 +33,41 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
+    boolean existsByUsername(String username);
+    boolean existsByEmail(String email);
+
+    // Builds the DTOs directly in the query, so roles are never loaded for listings
+    @Query(value = "SELECT new com.petadoption.dto.UserDTO(u.id, u.name, u.email, u.phone) FROM User u",
+            countQuery = "SELECT count(u) FROM User u")
+    Page<UserDTO> findAllUserDTOs(Pageable pageable);
+
+    // The pattern must already be lower-case and escaped with '!'; on PostgreSQL the
+    // expressions match the indexes created by UserSearchIndexMigration
+    @Query(value = "SELECT new com.petadoption.dto.UserDTO(u.id, u.name, u.email, u.phone) FROM User u " +
+            "WHERE lower(u.name) LIKE :pattern ESCAPE '!' OR lower(u.email) LIKE :pattern ESCAPE '!' OR u.phone LIKE :pattern ESCAPE '!'",
+            countQuery = "SELECT count(u) FROM User u " +
+                    "WHERE lower(u.name) LIKE :pattern ESCAPE '!' OR lower(u.email) LIKE :pattern ESCAPE '!' OR u.phone LIKE :pattern ESCAPE '!'")
+    Page<UserDTO> searchUserDTOs(@Param("pattern") String pattern, Pageable pageable);
+
+    // Only the columns needed for authentication, loaded on user profile cache misses
+    @Query("SELECT new com.petadoption.dto.UserProfile(u.id, u.username, u.password, u.rolesMask) FROM User u WHERE u.username = :username")
+    Optional<UserProfile> findProfileByUsername(@Param("username") String username);
+
+    @Query("SELECT new com.petadoption.dto.UserIdentityDTO(u.id, u.username, u.email) FROM User u WHERE u.id IN :ids")
+    List<UserIdentityDTO> findIdentitiesByIds(@Param("ids") Collection<Long> ids);
+
+    // Only replaces the hash it was computed from, so a concurrent password change wins
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int updatePasswordHash(@Param("id") Long id, @Param("oldHash") String oldHash, @Param("newHash") String newHash);
+
+    // Adoptions must be deleted first, see UserPurgeService
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM User u WHERE u.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination over the user table: pass the last id of the previous page
+    @Query("SELECT new com.petadoption.dto.UserIdentityDTO(u.id, u.username, u.email) FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserIdentityDTO> findIdentitiesAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
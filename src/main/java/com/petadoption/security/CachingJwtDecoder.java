@@ -0,0 +1,104 @@
+package com.petadoption.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * {@link JwtDecoder} remembering the tokens it has already verified, so a token reused
+ * across requests has its signature checked only once.
+
+ * Entries are keyed by the SHA-256 digest of the token, not the token itself, and expire
+ * at the token's "exp" (or after the maximum time to live, if sooner). A cached token is
+ * therefore never accepted after it would have been rejected as expired. Tokens without
+ * "exp", and tokens that fail to decode, are never cached.
+
+ * Hit ratio and evictions are published as the "cache.*" metrics with cache=verifiedJwts.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+    private final Clock clock;
+    private final Cache<TokenDigest, Jwt> verified;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration maximumTimeToLive, MeterRegistry meterRegistry) {
+        this(delegate, maximumSize, maximumTimeToLive, meterRegistry, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    // Lets tests move the wall clock (token expirations) and the cache's own clock separately
+    CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration maximumTimeToLive, MeterRegistry meterRegistry,
+                      Clock clock, Ticker ticker) {
+        this.delegate = delegate;
+        this.clock = clock;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new ExpiresWithToken(maximumTimeToLive, clock))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, verified, "verifiedJwts");
+        }
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        TokenDigest digest = TokenDigest.of(token);
+        Jwt jwt = verified.getIfPresent(digest);
+        if (jwt != null && jwt.getExpiresAt().isAfter(clock.instant())) {
+            return jwt;
+        }
+
+        jwt = delegate.decode(token);
+        if (jwt.getExpiresAt() != null) {
+            verified.put(digest, jwt);
+        }
+        return jwt;
+    }
+
+    private record ExpiresWithToken(Duration maximumTimeToLive, Clock clock) implements Expiry<TokenDigest, Jwt> {
+
+        @Override
+        public long expireAfterCreate(TokenDigest key, Jwt jwt, long currentTime) {
+            long untilExpiry = Duration.between(clock.instant(), jwt.getExpiresAt()).toNanos();
+            return Math.max(0, Math.min(untilExpiry, maximumTimeToLive.toNanos()));
+        }
+
+        @Override
+        public long expireAfterUpdate(TokenDigest key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(TokenDigest key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    // The 256-bit digest as four longs, so keys compare without holding arrays
+    private record TokenDigest(long a, long b, long c, long d) {
+
+        static TokenDigest of(String token) {
+            try {
+                ByteBuffer digest = ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                        .digest(token.getBytes(StandardCharsets.US_ASCII)));
+                return new TokenDigest(digest.getLong(), digest.getLong(), digest.getLong(), digest.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+        }
+    }
+}
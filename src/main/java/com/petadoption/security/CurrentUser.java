@@ -0,0 +1,30 @@
+package com.petadoption.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Optional;
+
+/**
+ * Access to the {@link UserPrincipal} of the current request, read from the security context
+ * without touching the database.
+ */
+public final class CurrentUser {
+
+    private CurrentUser() {}
+
+    public static Optional<UserPrincipal> get() {
+        return from(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    public static Optional<UserPrincipal> from(Authentication authentication) {
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return Optional.of(principal);
+        }
+        return Optional.empty();
+    }
+
+    public static Optional<Long> id() {
+        return get().map(UserPrincipal::getId);
+    }
+}
@@ -0,0 +1,51 @@
+package com.petadoption.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import org.springframework.security.oauth2.jose.jws.SignatureAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The JWT keys of the application: every key (used for verification and published as
+ * JWKS) and the active one, used to sign new tokens.
+ */
+public final class JwtSigningKeys {
+
+    private final JWKSet keys;
+    private final JWK activeKey;
+    private final SignatureAlgorithm activeAlgorithm;
+
+    public JwtSigningKeys(JWKSet keys, String activeKeyId) {
+        this.keys = keys;
+        this.activeKey = keys.getKeyByKeyId(activeKeyId);
+        if (activeKey == null || !activeKey.isPrivate()) {
+            throw new IllegalStateException("The active JWT key '" + activeKeyId + "' is not configured with a private key");
+        }
+        this.activeAlgorithm = SignatureAlgorithm.from(activeKey.getAlgorithm().getName());
+    }
+
+    public JWKSet getKeys() {
+        return keys;
+    }
+
+    // Public parts only, safe to publish
+    public Map<String, Object> toPublicJwks() {
+        return keys.toPublicJWKSet().toJSONObject();
+    }
+
+    public Set<JWSAlgorithm> getVerificationAlgorithms() {
+        return keys.getKeys().stream()
+                .map(key -> JWSAlgorithm.parse(key.getAlgorithm().getName()))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // Header selecting the active key, so NimbusJwtEncoder signs with it
+    public JwsHeader activeHeader() {
+        return JwsHeader.with(activeAlgorithm).keyId(activeKey.getKeyID()).build();
+    }
+}
@@ -0,0 +1,262 @@
+package com.petadoption.security;
+
+import com.petadoption.customexceptions.auth.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Counts failed logins per username and per client address, and rejects new attempts
+ * for keys that failed too often recently, before any password hash is computed.
+
+ * Each key has a sliding-window counter: the failures of the current fixed window plus
+ * the failures of the previous one, weighted by how much of it still overlaps the sliding
+ * window. That approximates a true sliding window with two numbers per key.
+
+ * Keys are spread over lock stripes, each guarding its own access-ordered map, so
+ * concurrent logins for different keys rarely contend. Every stripe holds at most its share
+ * of {@code app.login-throttle.max-entries} keys, dropping the least recently used one when
+ * full, and a periodic sweep removes keys idle for two windows.
+
+ * A successful login clears the counter of its username, not the one of its address.
+ * Blocked attempts are counted in "login.throttle.blocked", tagged by key type.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final Logger logger = LoggerFactory.getLogger(LoginThrottle.class);
+
+    private static final String USERNAME = "username";
+    private static final String ADDRESS = "address";
+
+    private final Stripe[] stripes;
+    private final LongSupplier clock;
+    private final long windowMillis;
+    private final int maxFailuresPerUsername;
+    private final int maxFailuresPerAddress;
+    private final Counter blockedByUsername;
+    private final Counter blockedByAddress;
+
+    @Autowired
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${app.login-throttle.window:15m}") Duration window,
+                         @Value("${app.login-throttle.max-failures-per-username:5}") int maxFailuresPerUsername,
+                         @Value("${app.login-throttle.max-failures-per-address:20}") int maxFailuresPerAddress,
+                         @Value("${app.login-throttle.max-entries:100000}") int maxEntries,
+                         @Value("${app.login-throttle.stripes:64}") int stripes) {
+        this(meterRegistry, window, maxFailuresPerUsername, maxFailuresPerAddress, maxEntries, stripes, System::currentTimeMillis);
+    }
+
+    // Lets tests move the time of the windows forward
+    LoginThrottle(MeterRegistry meterRegistry, Duration window, int maxFailuresPerUsername, int maxFailuresPerAddress,
+                  int maxEntries, int stripes, LongSupplier clock) {
+        this.clock = clock;
+        this.windowMillis = window.toMillis();
+        this.maxFailuresPerUsername = maxFailuresPerUsername;
+        this.maxFailuresPerAddress = maxFailuresPerAddress;
+
+        int stripeCount = stripes <= 1 ? 1 : Integer.highestOneBit((stripes - 1) << 1); // Next power of two
+        int entriesPerStripe = Math.max(1, maxEntries / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(entriesPerStripe);
+        }
+
+        this.blockedByUsername = blockedCounter(meterRegistry, USERNAME);
+        this.blockedByAddress = blockedCounter(meterRegistry, ADDRESS);
+        Gauge.builder("login.throttle.tracked.keys", this, LoginThrottle::trackedKeys)
+                .description("Usernames and client addresses with recent login failures")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Rejects the attempt if its username or client address has reached its failure limit.
+     *
+     * @throws LoginThrottledException with the number of seconds after which to retry.
+     */
+    public void checkAllowed(String username, String address) {
+        long now = clock.getAsLong();
+        if (username != null && failures(usernameKey(username), now) >= maxFailuresPerUsername) {
+            blockedByUsername.increment();
+            throw new LoginThrottledException("Too many failed logins for this user, please retry later", retryAfterSeconds(now));
+        }
+        if (address != null && failures(addressKey(address), now) >= maxFailuresPerAddress) {
+            blockedByAddress.increment();
+            throw new LoginThrottledException("Too many failed logins from this address, please retry later", retryAfterSeconds(now));
+        }
+    }
+
+    public void recordFailure(String username, String address) {
+        long now = clock.getAsLong();
+        if (username != null) {
+            increment(usernameKey(username), now);
+        }
+        if (address != null) {
+            increment(addressKey(address), now);
+        }
+    }
+
+    public void recordSuccess(String username) {
+        if (username != null) {
+            String key = usernameKey(username);
+            Stripe stripe = stripeFor(key);
+            stripe.lock.lock();
+            try {
+                stripe.windows.remove(key);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Removes the counters that saw no failure for two windows, as they no longer count.
+     */
+    @Scheduled(fixedDelayString = "${app.login-throttle.sweep-interval:PT1M}")
+    public void evictIdle() {
+        long now = clock.getAsLong();
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                Iterator<Window> windows = stripe.windows.values().iterator();
+                while (windows.hasNext()) {
+                    if (now - windows.next().lastFailure >= 2 * windowMillis) {
+                        windows.remove();
+                        evicted++;
+                    }
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle login throttling counters", evicted);
+        }
+    }
+
+    int trackedKeys() {
+        int keys = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                keys += stripe.windows.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return keys;
+    }
+
+    int stripeCount() {
+        return stripes.length;
+    }
+
+    private double failures(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            Window window = stripe.windows.get(key);
+            return window == null ? 0 : window.estimate(now, windowMillis);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void increment(String key, long now) {
+        Stripe stripe = stripeFor(key);
+        stripe.lock.lock();
+        try {
+            stripe.windows.computeIfAbsent(key, k -> new Window()).increment(now, windowMillis);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // A hint only: from the end of the current fixed window on, its failures weigh less and less
+    private long retryAfterSeconds(long now) {
+        long remainingInWindow = windowMillis - Math.floorMod(now, windowMillis);
+        return Math.max(1, remainingInWindow / 1000);
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return stripes[hash & (stripes.length - 1)];
+    }
+
+    private static String usernameKey(String username) {
+        return "u:" + username.toLowerCase(Locale.ROOT);
+    }
+
+    private static String addressKey(String address) {
+        return "a:" + address;
+    }
+
+    private static Counter blockedCounter(MeterRegistry meterRegistry, String keyType) {
+        return Counter.builder("login.throttle.blocked")
+                .description("Login attempts rejected by the throttle before authentication")
+                .tag("key", keyType)
+                .register(meterRegistry);
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, Window> windows;
+
+        private Stripe(int maxEntries) {
+            this.windows = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Window> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+
+    // Guarded by the lock of its stripe
+    private static final class Window {
+
+        private long windowStart;
+        private int previousCount;
+        private int currentCount;
+        private long lastFailure;
+
+        void increment(long now, long windowMillis) {
+            roll(now, windowMillis);
+            currentCount++;
+            lastFailure = now;
+        }
+
+        double estimate(long now, long windowMillis) {
+            roll(now, windowMillis);
+            double previousWeight = 1.0 - (double) (now - windowStart) / windowMillis;
+            return currentCount + previousCount * previousWeight;
+        }
+
+        private void roll(long now, long windowMillis) {
+            long start = now - Math.floorMod(now, windowMillis);
+            if (start == windowStart) {
+                return;
+            }
+            previousCount = start - windowStart == windowMillis ? currentCount : 0;
+            currentCount = 0;
+            windowStart = start;
+        }
+    }
+}
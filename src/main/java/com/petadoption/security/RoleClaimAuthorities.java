@@ -0,0 +1,89 @@
+package com.petadoption.security;
+
+import com.petadoption.model.enums.Role;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps the "roles" claim of access tokens to the principal's roles and granted authorities.
+
+ * Tokens only carry a handful of distinct role sets (["USER"], ["ADMIN"], ["USER", "ADMIN"]),
+ * so each distinct claim value is converted once and the resulting immutable lists are
+ * shared by every later request with the same claim. Authorities of known roles are the
+ * {@link Role} singletons; any other role name gets one interned authority. Entries are
+ * keyed by a copy of the claim as it was parsed from the token, not by the normalised
+ * roles, so a claim with "ROLE_" prefixes, duplicates, nulls or non-string elements hits
+ * its entry like any other and a cache hit builds nothing new.
+
+ * Both maps are bounded: the claim comes from signed tokens, but must not let them grow
+ * without limit. Once full, new claim values are converted on every request.
+ */
+public final class RoleClaimAuthorities {
+
+    /**
+     * The roles as they appear in the token (without "ROLE_" prefix) and their authorities,
+     * both immutable and shared.
+     */
+    public record Mapping(List<String> roles, List<GrantedAuthority> authorities) {}
+
+    private static final Mapping NO_ROLES = new Mapping(List.of(), List.of());
+
+    private final int maxEntries;
+    private final Map<List<?>, Mapping> mappings = new ConcurrentHashMap<>();
+    private final Map<String, GrantedAuthority> authorities = new ConcurrentHashMap<>();
+
+    public RoleClaimAuthorities(int maxEntries) {
+        this.maxEntries = maxEntries;
+        for (Role role : Role.values()) {
+            authorities.put(role.getAuthorityName(), role.getAuthority());
+        }
+    }
+
+    /**
+     * @param rolesClaim the raw value of the "roles" claim, normally a list of strings.
+     * @return the shared mapping for the claim; an empty one if the claim is missing or not a list.
+     */
+    public Mapping lookup(Object rolesClaim) {
+        if (!(rolesClaim instanceof List<?> claim) || claim.isEmpty()) {
+            return NO_ROLES;
+        }
+        Mapping mapping = mappings.get(claim);
+        if (mapping != null) {
+            return mapping;
+        }
+
+        mapping = convert(claim);
+        if (mappings.size() < maxEntries) {
+            // Keyed by a copy of the raw claim, never by the token's own list (List.copyOf rejects nulls)
+            mappings.putIfAbsent(Collections.unmodifiableList(new ArrayList<>(claim)), mapping);
+        }
+        return mapping;
+    }
+
+    private Mapping convert(List<?> claim) {
+        // Tokens issued before the claims were normalised may still carry "ROLE_" prefixes
+        List<String> roles = Role.plainNames(claim);
+        List<GrantedAuthority> granted = new ArrayList<>(roles.size());
+        for (String role : roles) {
+            granted.add(authority("ROLE_" + role));
+        }
+        return new Mapping(roles, List.copyOf(granted));
+    }
+
+    private GrantedAuthority authority(String authorityName) {
+        GrantedAuthority authority = authorities.get(authorityName);
+        if (authority != null) {
+            return authority;
+        }
+        if (authorities.size() >= maxEntries) {
+            return new SimpleGrantedAuthority(authorityName);
+        }
+        return authorities.computeIfAbsent(authorityName, SimpleGrantedAuthority::new);
+    }
+}
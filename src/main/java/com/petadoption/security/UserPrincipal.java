@@ -0,0 +1,68 @@
+package com.petadoption.security;
+
+import com.petadoption.model.enums.Role;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The authenticated user of a request, built from the claims of its access token.
+
+ * It carries everything authorization rules and "current user" lookups need (the user id,
+ * username and roles), so none of them has to load the user from the database. Roles are
+ * kept without the "ROLE_" prefix, as they appear in the tokens: the constructor strips it
+ * (see Role.plainNames), so principals built from the database and from tokens agree.
+
+ * Expressions such as {@code #id == principal.id} in @PreAuthorize resolve against this class.
+ */
+public final class UserPrincipal implements Principal {
+
+    private final Long id;
+    private final String username;
+    private final List<String> roles;
+
+    public UserPrincipal(Long id, String username, List<String> roles) {
+        this.id = id;
+        this.username = username;
+        this.roles = Role.plainNames(roles);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public boolean hasRole(String role) {
+        return roles.contains(role);
+    }
+
+    @Override
+    public String getName() {
+        return username;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof UserPrincipal that)) return false;
+        return Objects.equals(id, that.id) && Objects.equals(username, that.username) && Objects.equals(roles, that.roles);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, username, roles);
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{id=" + id + ", username='" + username + "', roles=" + roles + '}';
+    }
+}
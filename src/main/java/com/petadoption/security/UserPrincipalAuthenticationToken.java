@@ -0,0 +1,31 @@
+package com.petadoption.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.AbstractOAuth2TokenAuthenticationToken;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Authentication of a request carrying a valid access token, whose principal is the
+ * {@link UserPrincipal} built from the token claims. The decoded {@link Jwt} stays available
+ * through {@link #getToken()}.
+ */
+public class UserPrincipalAuthenticationToken extends AbstractOAuth2TokenAuthenticationToken<Jwt> {
+
+    public UserPrincipalAuthenticationToken(Jwt jwt, UserPrincipal principal, Collection<? extends GrantedAuthority> authorities) {
+        super(jwt, principal, jwt, authorities);
+        setAuthenticated(true);
+    }
+
+    @Override
+    public UserPrincipal getPrincipal() {
+        return (UserPrincipal) super.getPrincipal();
+    }
+
+    @Override
+    public Map<String, Object> getTokenAttributes() {
+        return getToken().getClaims();
+    }
+}
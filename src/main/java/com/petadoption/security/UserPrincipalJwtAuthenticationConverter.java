@@ -0,0 +1,47 @@
+package com.petadoption.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+
+/**
+ * Converts a decoded access token into a {@link UserPrincipalAuthenticationToken}.
+
+ * The principal is built only from the token claims: the user id ("uid"), the subject
+ * (username) and the roles. Tokens issued before the "uid" claim was added get a principal
+ * without id, so rules comparing ids simply do not match until the user logs in again.
+ * Refresh tokens (token_use "refresh") are rejected, so they can only be used to refresh.
+
+ * This runs on every authenticated request, so roles and authorities come from the shared
+ * mappings of {@link RoleClaimAuthorities} instead of being rebuilt, and nothing is logged.
+ */
+public class UserPrincipalJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    public static final String USER_ID_CLAIM = "uid";
+    public static final String ROLES_CLAIM = "roles";
+    public static final String TOKEN_USE_CLAIM = "token_use";
+    public static final String ACCESS_TOKEN_USE = "access";
+    public static final String REFRESH_TOKEN_USE = "refresh";
+
+    private final RoleClaimAuthorities roleClaimAuthorities;
+
+    public UserPrincipalJwtAuthenticationConverter(RoleClaimAuthorities roleClaimAuthorities) {
+        this.roleClaimAuthorities = roleClaimAuthorities;
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        if (REFRESH_TOKEN_USE.equals(jwt.getClaimAsString(TOKEN_USE_CLAIM))) {
+            throw new InvalidBearerTokenException("Refresh tokens can not be used as access tokens");
+        }
+
+        Object uid = jwt.getClaim(USER_ID_CLAIM);
+        Long id = uid instanceof Number number ? number.longValue() : null;
+
+        RoleClaimAuthorities.Mapping roles = roleClaimAuthorities.lookup(jwt.getClaim(ROLES_CLAIM));
+        UserPrincipal principal = new UserPrincipal(id, jwt.getSubject(), roles.roles());
+
+        return new UserPrincipalAuthenticationToken(jwt, principal, roles.authorities());
+    }
+}
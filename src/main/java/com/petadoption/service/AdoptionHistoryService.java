@@ -0,0 +1,240 @@
+package com.petadoption.service;
+
+import com.petadoption.dto.adoption.AdoptionStatusHistoryDTO;
+import com.petadoption.model.AdoptionStatusHistory;
+import com.petadoption.repository.AdoptionStatusHistoryRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service responsible for the append-only log of adoption status transitions.
+
+ * Transitions are not inserted inside the approve/reject transaction. Instead, they are
+ * queued once the surrounding transaction commits, and a single background writer drains
+ * the queue and inserts the pending entries as one JDBC batch in one transaction
+ * (group commit). Under load the batches grow, so the number of round trips to the
+ * database grows much slower than the number of transitions.
+
+ * The buffer is bounded. When it is full the configured overflow policy applies:
+ * - CALLER_RUNS: the entry is written synchronously by the calling thread (no entry is lost to the overflow).
+ * - DROP: the entry is discarded and counted, keeping request latency unaffected.
+
+ * A batch the writer fails to insert is retried with exponential backoff, starting at the
+ * flush interval. If the last attempt fails too, its entries are dropped and counted like
+ * overflowed ones, so every lost entry shows in "adoption.history.dropped".
+ */
+@Service
+public class AdoptionHistoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdoptionHistoryService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO adoption_status_history (adoption_id, from_status, to_status, actor, changed_at) VALUES (?, ?, ?, ?, ?)";
+
+    public enum OverflowPolicy {
+        CALLER_RUNS,
+        DROP
+    }
+
+    private final AdoptionStatusHistoryRepository historyRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AdoptionStatusHistory> buffer;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final int writeAttempts;
+    private final OverflowPolicy overflowPolicy;
+    private final AtomicLong droppedEntries = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public AdoptionHistoryService(AdoptionStatusHistoryRepository historyRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.adoption-history.buffer-capacity:10000}") int bufferCapacity,
+                                  @Value("${app.adoption-history.batch-size:200}") int batchSize,
+                                  @Value("${app.adoption-history.flush-interval-ms:250}") long flushIntervalMs,
+                                  @Value("${app.adoption-history.write-attempts:3}") int writeAttempts,
+                                  @Value("${app.adoption-history.overflow-policy:CALLER_RUNS}") OverflowPolicy overflowPolicy) {
+        this.historyRepository = historyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Writes may be triggered from afterCommit callbacks, so they always need their own transaction
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.writeAttempts = Math.max(1, writeAttempts);
+        this.overflowPolicy = overflowPolicy;
+
+        FunctionCounter.builder("adoption.history.dropped", droppedEntries, AtomicLong::get)
+                .description("Adoption history entries lost to a full buffer (DROP policy) or to failed writes")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "adoption-history-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        logger.info("Adoption history writer started (batch size {}, overflow policy {})", batchSize, overflowPolicy);
+    }
+
+    /**
+     * Stops the writer and flushes whatever is still buffered, so a graceful shutdown
+     * does not lose pending transitions.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        List<AdoptionStatusHistory> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            writeWithRetries(remaining);
+        }
+        logger.info("Adoption history writer stopped ({} entries dropped since startup)", droppedEntries.get());
+    }
+
+    /**
+     * Records a status transition of an adoption. If a transaction is active, the entry is
+     * only queued after it commits, so rolled back changes never reach the history.
+     *
+     * @param adoptionId the id of the adoption whose status changed.
+     * @param fromStatus the previous status, or null for a newly created adoption.
+     * @param toStatus the new status.
+     */
+    public void recordTransition(Long adoptionId, String fromStatus, String toStatus) {
+        if (adoptionId == null || Objects.equals(fromStatus, toStatus)) {
+            return;
+        }
+        AdoptionStatusHistory entry = new AdoptionStatusHistory(adoptionId, fromStatus, toStatus, currentActor(), new Date());
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(entry);
+                }
+            });
+        } else {
+            enqueue(entry);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Page<AdoptionStatusHistoryDTO> getHistory(Long adoptionId, Pageable pageable) {
+        return historyRepository.findByAdoptionId(adoptionId, pageable).map(AdoptionStatusHistoryDTO::of);
+    }
+
+    public int getPendingEntries() {
+        return buffer.size();
+    }
+
+    public long getDroppedEntries() {
+        return droppedEntries.get();
+    }
+
+    private void enqueue(AdoptionStatusHistory entry) {
+        if (buffer.offer(entry)) {
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            logger.warn("Adoption history buffer is full, writing entry for adoption {} synchronously", entry.getAdoptionId());
+            writeBatch(List.of(entry));
+        } else {
+            long dropped = droppedEntries.incrementAndGet();
+            logger.warn("Adoption history buffer is full, dropped entry for adoption {} ({} dropped so far)", entry.getAdoptionId(), dropped);
+        }
+    }
+
+    private void runWriter() {
+        List<AdoptionStatusHistory> batch = new ArrayList<>(batchSize);
+        while (running || !buffer.isEmpty()) {
+            try {
+                AdoptionStatusHistory first = buffer.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                buffer.drainTo(batch, batchSize - 1);
+                writeWithRetries(batch);
+            } catch (InterruptedException e) {
+                // Interrupted while polling (empty batch) or waiting to retry one that was not written
+                droppedEntries.addAndGet(batch.size());
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeWithRetries(List<AdoptionStatusHistory> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                writeBatch(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= writeAttempts) {
+                    long dropped = droppedEntries.addAndGet(batch.size());
+                    logger.error("Could not write {} adoption history entries after {} attempts, dropped them ({} dropped so far)",
+                            batch.size(), attempt, dropped, e);
+                    return;
+                }
+                long backoffMs = flushIntervalMs << (attempt - 1);
+                logger.warn("Error writing {} adoption history entries, retrying in {} ms", batch.size(), backoffMs, e);
+                Thread.sleep(backoffMs);
+            }
+        }
+    }
+
+    private void writeBatch(List<AdoptionStatusHistory> entries) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, entries, entries.size(), (ps, entry) -> {
+                    ps.setLong(1, entry.getAdoptionId());
+                    ps.setString(2, entry.getFromStatus());
+                    ps.setString(3, entry.getToStatus());
+                    ps.setString(4, entry.getActor());
+                    ps.setTimestamp(5, new Timestamp(entry.getChangedAt().getTime()));
+                }));
+        logger.debug("Wrote {} adoption history entries", entries.size());
+    }
+
+    private String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "system";
+    }
+}
@@ -1,6 +1,8 @@
 package com.petadoption.service;
 
 import com.petadoption.repository.AdoptionRepository;
+import com.petadoption.security.CurrentUser;
+import com.petadoption.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
@@ -12,7 +14,8 @@ import org.springframework.stereotype.Service;
 
  * This service uses the AdoptionRepository to interact with adoption data in the
  * persistence layer. It validates whether the authenticated user matches the owner of
- * a specific adoption.
+ * a specific adoption, comparing the user id from the token with the adoption's owner id,
+ * so the user itself is never loaded.
 
  * Components:
  * - AdoptionRepository: Repository for accessing adoption-related data.
@@ -33,9 +36,9 @@ public class AdoptionSecurityService {
     }
 
     public boolean isOwner(Authentication authentication, Long adoptionId) {
-        String username = authentication.getName(); // Current username
-        return adoptionRepository.findByIdWithUser(adoptionId)
-                .map(adoption -> adoption.getUser().getUsername().equals(username))
+        return CurrentUser.from(authentication)
+                .map(UserPrincipal::getId)
+                .flatMap(userId -> adoptionRepository.findOwnerIdById(adoptionId).map(userId::equals))
                 .orElse(false);
     }
 }
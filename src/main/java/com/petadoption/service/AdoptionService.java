@@ -1,10 +1,7 @@
 package com.petadoption.service;
 
 import com.petadoption.customexceptions.adoption.AdoptionNotFoundException;
-import com.petadoption.customexceptions.adoption.AdoptionStatusException;
-import com.petadoption.customexceptions.pet.PetIdValidationException;
 import com.petadoption.customexceptions.pet.PetNotFoundException;
-import com.petadoption.customexceptions.user.UserIdValidationException;
 import com.petadoption.customexceptions.user.UserNotFoundException;
 import com.petadoption.model.Adoption;
 import com.petadoption.model.Pet;
@@ -12,14 +9,19 @@ import com.petadoption.model.User;
 import com.petadoption.repository.AdoptionRepository;
 import com.petadoption.repository.PetRepository;
 import com.petadoption.repository.UserRepository;
+import com.petadoption.security.CurrentUser;
 import com.petadoption.model.enums.PetStatus;
+import com.petadoption.validation.AdoptionValidators;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Date;
 import java.util.Optional;
@@ -33,6 +35,9 @@ import java.util.Optional;
 
  * All methods in this service class are transactional to ensure
  * data consistency and integrity.
+
+ * Created, approved and rejected adoptions are counted in the "adoptions" counter (tag
+ * "event") once their transaction commits, so rolled back operations are not counted.
  */
 @Service
 @Transactional
@@ -43,12 +48,21 @@ public class AdoptionService {
     private final AdoptionRepository adoptionRepository;
     private final PetRepository petRepository; // Agregar esta línea
     private final UserRepository userRepository;
+    private final AdoptionHistoryService adoptionHistoryService;
+    private final Counter adoptionsCreated;
+    private final Counter adoptionsApproved;
+    private final Counter adoptionsRejected;
 
     @Autowired
-    public AdoptionService(AdoptionRepository adoptionRepository, PetRepository petRepository, UserRepository userRepository) {
+    public AdoptionService(AdoptionRepository adoptionRepository, PetRepository petRepository, UserRepository userRepository,
+                           AdoptionHistoryService adoptionHistoryService, MeterRegistry meterRegistry) {
         this.adoptionRepository = adoptionRepository;
         this.petRepository = petRepository;
         this.userRepository = userRepository;
+        this.adoptionHistoryService = adoptionHistoryService;
+        this.adoptionsCreated = adoptionCounter(meterRegistry, "created");
+        this.adoptionsApproved = adoptionCounter(meterRegistry, "approved");
+        this.adoptionsRejected = adoptionCounter(meterRegistry, "rejected");
     }
 
     public Adoption create(Adoption adoption) {
@@ -74,7 +88,10 @@ public class AdoptionService {
         }
 
         Adoption createdAdoption = adoptionRepository.save(adoption);
+        adoptionHistoryService.recordTransition(createdAdoption.getAdoptionId(), null, createdAdoption.getStatus());
         logger.info("Created adoption with id {}", createdAdoption.getAdoptionId());
+        countAfterCommit(adoptionsCreated);
+        PetService.withType(createdAdoption.getPet());
         return createdAdoption;
     }
 
@@ -85,13 +102,14 @@ public class AdoptionService {
             logger.warn("Adoption with ID {} not found", id);
             throw new AdoptionNotFoundException("Adoption not found with ID " + id);
         }
-        // Check if the authenticated user is the owner
-        String username = SecurityContextHolder.getContext().getAuthentication().getName(); // Actual user
-        if (!adoption.get().getUser().getUsername().equals(username)) {
+        // Check if the authenticated user is the owner (the id comes from the token)
+        Optional<Long> currentUserId = CurrentUser.id();
+        if (currentUserId.isEmpty() || !currentUserId.get().equals(adoption.get().getUser().getId())) {
             throw new AccessDeniedException("You are not authorized to access this adoption.");
         }
 
         logger.info("Retrieved adoption with ID {}", id);
+        PetService.withType(adoption.get().getPet());
         return adoption;
     }
 
@@ -100,6 +118,7 @@ public class AdoptionService {
     public Iterable<Adoption> getAllAdoptions() {
         Iterable<Adoption> adoptions = adoptionRepository.findAll();
         logger.info("Retrieved {} adoptions", adoptions.spliterator().getExactSizeIfKnown());
+        adoptions.forEach(adoption -> PetService.withType(adoption.getPet()));
         return adoptions;
     }
 
@@ -108,16 +127,19 @@ public class AdoptionService {
         validateAdoption(updateAdoption);
         return adoptionRepository.findById(id)
                 .map(adoption -> {
+                    String previousStatus = adoption.getStatus();
                     adoption.setPet(updateAdoption.getPet());
                     adoption.setUser(updateAdoption.getUser());
                     adoption.setStatus(updateAdoption.getStatus());
                     Adoption updatedAdoption = adoptionRepository.save(adoption);
+                    adoptionHistoryService.recordTransition(id, previousStatus, updatedAdoption.getStatus());
                     logger.info("Updated adoption with id {}", updateAdoption.getAdoptionId());
                     return updatedAdoption;
                 })
                 .orElseGet(() -> {
                     updateAdoption.setAdoptionId(id);
                     Adoption newAdoption = adoptionRepository.save(updateAdoption);
+                    adoptionHistoryService.recordTransition(newAdoption.getAdoptionId(), null, newAdoption.getStatus());
                     logger.info("New created adoption with id {}", newAdoption.getAdoptionId());
                     return newAdoption;
                 });
@@ -138,6 +160,7 @@ public class AdoptionService {
                 .map(adoption -> {
                     logger.info("Adoption retrieved: {}", adoption);
 
+                    String previousStatus = adoption.getStatus();
                     adoption.setStatus("APPROVED");
 
                     Pet pet = adoption.getPet();
@@ -153,7 +176,10 @@ public class AdoptionService {
                     }
 
                     Adoption approvedAdoption = adoptionRepository.save(adoption);
+                    adoptionHistoryService.recordTransition(id, previousStatus, approvedAdoption.getStatus());
                     logger.info("Approved adoption with id {}", approvedAdoption.getAdoptionId());
+                    countAfterCommit(adoptionsApproved);
+                    PetService.withType(approvedAdoption.getPet());
                     return approvedAdoption;
                 })
                 .orElseThrow(() -> new AdoptionNotFoundException("Adoption not found with id " + id));
@@ -164,6 +190,7 @@ public class AdoptionService {
         return adoptionRepository.findById(id)
                 .map(adoption -> {
                     // Change adoption status to REJECTED
+                    String previousStatus = adoption.getStatus();
                     adoption.setStatus("REJECTED");
                     logger.info("Adoption with id {} marked as REJECTED", id);
 
@@ -180,39 +207,39 @@ public class AdoptionService {
 
                     // Save adoption changes
                     Adoption updatedAdoption = adoptionRepository.save(adoption);
+                    adoptionHistoryService.recordTransition(id, previousStatus, updatedAdoption.getStatus());
                     logger.info("Rejected adoption with id {}", updatedAdoption.getAdoptionId());
+                    countAfterCommit(adoptionsRejected);
+                    PetService.withType(updatedAdoption.getPet());
                     return updatedAdoption;
                 })
                 .orElseThrow(() -> new AdoptionNotFoundException("Adoption not found with id " + id));
     }
 
-    private void validateAdoption(Adoption adoption) {
-        if (adoption == null) {
-            throw new IllegalArgumentException("Adoption object must not be null.");
-        }
-        validateUser(adoption.getUser());
-        validatePet(adoption.getPet());
-        validateAdoptionStatus(adoption.getStatus());
-    }
-
-    private void validateUser(User user) {
-        if (user == null) {
-            throw new UserIdValidationException("User object is null.");
-        }
-        if (user.getId() == null || user.getId() < 0) {
-            throw new UserIdValidationException("User ID " + user.getId() + " must not be null or negative.");
-        }
+    private static Counter adoptionCounter(MeterRegistry meterRegistry, String event) {
+        return Counter.builder("adoptions")
+                .description("Adoptions created, approved and rejected")
+                .tag("event", event)
+                .register(meterRegistry);
     }
 
-    private void validatePet(Pet pet) {
-        if (pet == null || pet.getId() == null || pet.getId() < 0) {
-            throw new PetIdValidationException("Pet ID must not be null or negative");
+    private static void countAfterCommit(Counter counter) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment();
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.increment();
+            }
+        });
     }
 
-    private void validateAdoptionStatus(String status) {
-        if (status == null || status.isBlank()) {
-            throw new AdoptionStatusException("Status must not be null or empty");
+    private void validateAdoption(Adoption adoption) {
+        if (adoption == null) {
+            throw new IllegalArgumentException("Adoption object must not be null.");
         }
+        AdoptionValidators.DEFAULT.validateOrThrow(adoption);
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,11 @@
 package com.petadoption.service;
 
+import com.petadoption.dto.token.TokenPair;
+import com.petadoption.model.enums.Role;
+import com.petadoption.security.JwtSigningKeys;
+import com.petadoption.security.UserPrincipalJwtAuthenticationConverter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.oauth2.jwt.*;
@@ -7,13 +13,22 @@ import org.springframework.stereotype.Service;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Service class responsible for generating, verifying, and refreshing JSON Web Tokens (JWTs).
 
  * This class encapsulates the logic for creating access and refresh tokens,
  * validating refresh tokens, and generating access tokens based on valid refresh tokens.
- * It uses RSA-based encryption to ensure secure signing and verification of tokens.
+ * Tokens are signed with the active key of `JwtSigningKeys` (RS256 or ES256), whose kid
+ * is written in the token header so verifiers can pick the matching key.
+
+ * Refresh tokens carry a unique id (jti) and the id of their family (fid), the chain of
+ * tokens started by one login. Every refresh rotates the token: the used jti is added to the
+ * revocation set and a new refresh token of the same family is returned, keeping the family's
+ * original expiration. Presenting a jti that was already used means the token was copied,
+ * so the whole family is revoked and its holder has to log in again.
 
  * The class depends on `JwtEncoder` for signing tokens and `JwtDecoder` for verifying tokens.
  */
@@ -22,47 +37,63 @@ public class JwtService {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
 
+    public static final String FAMILY_ID_CLAIM = "fid";
+
     /*
-    Used to sign tokens with the RSA private key
+    Used to sign tokens with the active private key
      */
     private final JwtEncoder jwtEncoder;
     /*
-    Used to verify tokens with the RSA public key
+    Used to verify tokens with the public key matching their kid
      */
     private final JwtDecoder jwtDecoder;
+    /*
+    Selects the active signing key and its algorithm
+     */
+    private final JwtSigningKeys signingKeys;
+    /*
+    Holds the used refresh tokens and the revoked token families
+     */
+    private final RefreshTokenRevocationService revocationService;
+    private final Counter reuseDetected;
 
-    public JwtService(JwtEncoder jwtEncoder, JwtDecoder jwtDecoder) {
+    public JwtService(JwtEncoder jwtEncoder, JwtDecoder jwtDecoder, JwtSigningKeys signingKeys,
+                      RefreshTokenRevocationService revocationService, MeterRegistry meterRegistry) {
         this.jwtEncoder = jwtEncoder;
         this.jwtDecoder = jwtDecoder;
+        this.signingKeys = signingKeys;
+        this.revocationService = revocationService;
+        this.reuseDetected = Counter.builder("refresh.token.reuse")
+                .description("Refresh tokens presented again after being rotated; their families were revoked")
+                .register(meterRegistry);
     }
 
     /**
      * Generates a JWT access token for a given user with their respective roles.
+     * The user id is stored in the "uid" claim, so requests can be authorized without loading the user.
      *
+     * @param userId the id of the user, may be null for users that are not persisted.
      * @param username the username of the user for whom the token is being generated.
      * @param roles the list of roles associated with the user. Duplicate roles will be sanitized,
      *              and the prefix "ROLE_" (if present) will be removed.
      * @return the generated JWT access token as a String.
      * @throws RuntimeException if there is an error during the token generation process.
      */
-    public String generateToken(String username, List<String> roles) {
+    public String generateToken(Long userId, String username, List<String> roles) {
         try {
             logger.info("Generating access token for the user: {}", username);
 
-            List<String> sanitizedRoles = roles.stream()
-                    .map(role -> role.replace("ROLE_", ""))
-                    .distinct()
-                    .toList();
-
             JwtClaimsSet claims = JwtClaimsSet.builder()
                     .issuer("self")
                     .issuedAt(Instant.now())
                     .expiresAt(Instant.now().plusSeconds(3600)) // Expire in one hour
                     .subject(username)
-                    .claim("roles", sanitizedRoles)
+                    .claims(claimsMap -> putUserId(claimsMap, userId))
+                    .claim("roles", Role.plainNames(roles))
+                    .claim(UserPrincipalJwtAuthenticationConverter.TOKEN_USE_CLAIM, UserPrincipalJwtAuthenticationConverter.ACCESS_TOKEN_USE)
                     .build();
 
-            return this.jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+            return this.jwtEncoder.encode(JwtEncoderParameters.from(signingKeys.activeHeader(), claims)).getTokenValue();
 
         } catch (Exception e) {
             logger.error("Error generating JWT token: {}", e.getMessage(), e);
@@ -71,27 +102,38 @@ public class JwtService {
     }
 
     /**
-     * Generates a JWT refresh token for a specified user with their associated roles.
+     * Generates a JWT refresh token for a specified user with their associated roles,
+     * starting a new token family that expires in seven days.
      *
+     * @param userId the id of the user, carried over to the access tokens refreshed from it.
      * @param username the username of the user for whom the refresh token is being generated.
-     * @param roles the list of roles associated with the user.
+     * @param roles the list of roles associated with the user. Like in the access token, duplicates
+     *              are removed and the prefix "ROLE_" (if present) is stripped.
      * @return the generated JWT refresh token as a String.
      * @throws RuntimeException if an error occurs during the token generation process.
      */
-    public String generateRefreshToken(String username, List<String> roles) {
+    public String generateRefreshToken(Long userId, String username, List<String> roles) {
+        Instant now = Instant.now();
+        return generateRefreshToken(userId, username, roles, UUID.randomUUID().toString(), now.plusSeconds(604800)); // Expira en 7 días
+    }
+
+    private String generateRefreshToken(Long userId, String username, List<String> roles, String familyId, Instant expiresAt) {
         try {
             logger.info("Generating refresh token for user: {}", username);
 
-            Instant now = Instant.now();
             JwtClaimsSet claims = JwtClaimsSet.builder()
+                    .id(UUID.randomUUID().toString())
                     .issuer("self")
-                    .issuedAt(now)
-                    .expiresAt(now.plusSeconds(604800)) // Expira en 7 días
+                    .issuedAt(Instant.now())
+                    .expiresAt(expiresAt)
                     .subject(username)
-                    .claim("roles", roles)
+                    .claims(claimsMap -> putUserId(claimsMap, userId))
+                    .claim("roles", Role.plainNames(roles))
+                    .claim(UserPrincipalJwtAuthenticationConverter.TOKEN_USE_CLAIM, UserPrincipalJwtAuthenticationConverter.REFRESH_TOKEN_USE)
+                    .claim(FAMILY_ID_CLAIM, familyId)
                     .build();
 
-            return this.jwtEncoder.encode(JwtEncoderParameters.from(claims)).getTokenValue();
+            return this.jwtEncoder.encode(JwtEncoderParameters.from(signingKeys.activeHeader(), claims)).getTokenValue();
 
         } catch (Exception e) {
             logger.error("Error generating JWT refresh token: {}", e.getMessage(), e);
@@ -100,36 +142,52 @@ public class JwtService {
     }
 
     /**
-     * Refreshes the access token using the provided refresh token.
+     * Refreshes the access token using the provided refresh token, and rotates the refresh token.
+     * The given refresh token can not be used again: presenting it a second time revokes its family.
      *
      * @param refreshToken the refresh token to be used for generating a new access token.
-     *                      It must be a valid and non-expired JWT containing the username and roles.
-     * @return the new access token as a String.
-     * @throws JwtException if the refresh token is invalid, expired, or lacks necessary claims.
+     *                      It must be a valid, non-expired and unused refresh token containing the username and roles.
+     * @return the new access token and the refresh token replacing the given one.
+     * @throws JwtException if the refresh token is invalid, expired, revoked, already used, or lacks necessary claims.
      * @throws RuntimeException if an unexpected error occurs during the process.
      */
-    public String refreshAccessToken(String refreshToken) {
+    public TokenPair refreshTokens(String refreshToken) {
         try {
             logger.info("Trying to refresh access token...");
 
-            var jwt = jwtDecoder.decode(refreshToken);
-
+            Jwt jwt = decodeRefreshToken(refreshToken);
             String username = jwt.getSubject();
-            if (username == null || username.isBlank()) {
-                throw new JwtException("Refresh token does not contain a valid user");
-            }
-
-            Instant expiration = jwt.getExpiresAt();
-            if (expiration == null || Instant.now().isAfter(expiration)) {
-                throw new JwtException("Refresh token has expired");
-            }
+            String familyId = jwt.getClaimAsString(FAMILY_ID_CLAIM);
 
             List<String> roles = jwt.getClaim("roles");
             if (roles == null || roles.isEmpty()) {
                 throw new JwtException("No roles found in refresh token");
             }
 
-            return generateToken(username, roles);
+            // Families revoked on this instance are refused by the in-memory filter without writing anything
+            if (revocationService.isRevoked(familyId)) {
+                throw new JwtException("Refresh token has been revoked");
+            }
+
+            // Marks the token as used; the insert is atomic and checks the family revocations of every
+            // instance, so only one of two concurrent uses gets through and a revoked family never does
+            RefreshTokenRevocationService.Rotation rotation = revocationService.markUsed(jwt.getId(), familyId, jwt.getExpiresAt());
+            if (rotation == RefreshTokenRevocationService.Rotation.FAMILY_REVOKED) {
+                throw new JwtException("Refresh token has been revoked");
+            }
+            if (rotation == RefreshTokenRevocationService.Rotation.ALREADY_USED) {
+                revocationService.revoke(familyId, jwt.getExpiresAt());
+                reuseDetected.increment();
+                logger.warn("Refresh token reuse detected for user {}, revoking its token family", username);
+                throw new JwtException("Refresh token has already been used");
+            }
+
+            Object uid = jwt.getClaim(UserPrincipalJwtAuthenticationConverter.USER_ID_CLAIM);
+            Long userId = uid instanceof Number number ? number.longValue() : null;
+
+            return new TokenPair(
+                    generateToken(userId, username, roles),
+                    generateRefreshToken(userId, username, roles, familyId, jwt.getExpiresAt()));
 
         } catch (JwtException e) {
             logger.error("Error refreshing the token: {}", e.getMessage());
@@ -139,4 +197,48 @@ public class JwtService {
             throw new RuntimeException("Error inesperado al refrescar el access token.");
         }
     }
+
+    /**
+     * Revokes the family of the provided refresh token (logout), so neither it nor any
+     * token rotated from it can be used again.
+     *
+     * @param refreshToken a valid, non-expired refresh token.
+     * @throws JwtException if the refresh token is invalid or expired.
+     */
+    public void revokeRefreshToken(String refreshToken) {
+        Jwt jwt = decodeRefreshToken(refreshToken);
+        revocationService.revoke(jwt.getClaimAsString(FAMILY_ID_CLAIM), jwt.getExpiresAt());
+        logger.info("Revoked the refresh token family of user {}", jwt.getSubject());
+    }
+
+    // Verifies the signature and checks the claims every refresh token must have
+    private Jwt decodeRefreshToken(String refreshToken) {
+        Jwt jwt = jwtDecoder.decode(refreshToken);
+
+        String username = jwt.getSubject();
+        if (username == null || username.isBlank()) {
+            throw new JwtException("Refresh token does not contain a valid user");
+        }
+
+        Instant expiration = jwt.getExpiresAt();
+        if (expiration == null || Instant.now().isAfter(expiration)) {
+            throw new JwtException("Refresh token has expired");
+        }
+
+        if (!UserPrincipalJwtAuthenticationConverter.REFRESH_TOKEN_USE.equals(jwt.getClaimAsString(UserPrincipalJwtAuthenticationConverter.TOKEN_USE_CLAIM))) {
+            throw new JwtException("Token is not a refresh token");
+        }
+
+        // Refresh tokens issued before rotation have no ids and can not be revoked, so they are refused
+        if (jwt.getId() == null || jwt.getClaimAsString(FAMILY_ID_CLAIM) == null) {
+            throw new JwtException("Refresh token can not be rotated, log in again");
+        }
+        return jwt;
+    }
+
+    private static void putUserId(Map<String, Object> claims, Long userId) {
+        if (userId != null) {
+            claims.put(UserPrincipalJwtAuthenticationConverter.USER_ID_CLAIM, userId);
+        }
+    }
 }
@@ -0,0 +1,182 @@
+package com.petadoption.service;
+
+import com.petadoption.customexceptions.auth.HashingCapacityExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service running every password hash (BCrypt) on a dedicated, bounded executor.
+
+ * Hashing is CPU bound and deliberately slow, so it is kept off the request threads' own
+ * budget: a fixed number of hashing threads take work from a bounded queue. When the queue
+ * is full, or a hash does not finish within the wait time, the caller gets a
+ * {@link HashingCapacityExceededException} (429) right away instead of piling up behind it.
+ * Callers must not hold a database connection while they wait.
+
+ * The wait timeout bounds the caller's latency, not the work: a queued hash that times out
+ * is cancelled before it starts, but BCrypt does not check interrupts, so a hash that is
+ * already running keeps its hashing thread until it completes and its result is discarded.
+ * Under sustained overload the pool therefore stays busy with abandoned hashes, and the
+ * queue limit, not the timeout, is what sheds the load.
+
+ * The hashing threads stay platform threads when request threads are virtual
+ * (spring.threads.virtual.enabled): a hash never blocks, so a virtual thread would hold its
+ * carrier for the whole hash, taking a carrier away from the requests waiting on I/O.
+
+ * Metrics: "password.hashing" (time spent hashing, by operation), "password.hashing.wait"
+ * (time from submission to completion, including the queue), "password.hashing.rejected"
+ * and the executor gauges tagged name=passwordHashing.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    // $2a$10$... : version, cost, salt and hash
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final Duration waitTimeout;
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Timer waitTimer;
+    private final Counter rejections;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.password.bcrypt-strength:10}") int strength,
+                                  @Value("${app.password-hashing.threads:0}") int threads,
+                                  @Value("${app.password-hashing.queue-capacity:64}") int queueCapacity,
+                                  @Value("${app.password-hashing.wait-timeout:5s}") Duration waitTimeout) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.waitTimeout = waitTimeout;
+        this.meterRegistry = meterRegistry;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.waitTimer = Timer.builder("password.hashing.wait")
+                .description("Time from submitting a password hash to its result, queueing included")
+                .register(meterRegistry);
+        this.rejections = Counter.builder("password.hashing.rejected")
+                .description("Password hashes rejected because the hashing executor was saturated")
+                .register(meterRegistry);
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing");
+        logger.info("Password hashing executor started with {} threads and a queue of {} (bcrypt strength {})", poolSize, queueCapacity, strength);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Checks a raw password against a stored hash, waiting for a hashing thread.
+     *
+     * @throws HashingCapacityExceededException if the executor is saturated.
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(submit("verify", () -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    /**
+     * Hashes a raw password with the configured cost, waiting for a hashing thread.
+     *
+     * @throws HashingCapacityExceededException if the executor is saturated.
+     */
+    public String encode(String rawPassword) {
+        return await(submit("encode", () -> passwordEncoder.encode(rawPassword)));
+    }
+
+    /**
+     * Hashes a raw password in the background and hands the hash to the callback on the
+     * hashing thread. If the executor is saturated the work is skipped and false is returned.
+     */
+    public boolean encodeInBackground(String rawPassword, Consumer<String> callback) {
+        Timer timer = hashTimer("rehash");
+        try {
+            executor.execute(() -> callback.accept(timer.record(() -> passwordEncoder.encode(rawPassword))));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Whether a stored hash was made with another cost than the configured one
+     * (or with another algorithm) and should be replaced on the next successful login.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    private <T> Future<T> submit(String operation, Callable<T> hash) {
+        Timer timer = hashTimer(operation);
+        try {
+            return executor.submit(() -> timer.recordCallable(hash));
+        } catch (RejectedExecutionException e) {
+            rejections.increment();
+            throw new HashingCapacityExceededException("Too many concurrent logins, please retry shortly");
+        }
+    }
+
+    private <T> T await(Future<T> result) {
+        long start = System.nanoTime();
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Drops the hash if it is still queued; a running one is not stopped by the interrupt
+            result.cancel(true);
+            rejections.increment();
+            throw new HashingCapacityExceededException("Too many concurrent logins, please retry shortly");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a password hash", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer hashTimer(String operation) {
+        return Timer.builder("password.hashing")
+                .description("Time spent computing password hashes")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+}
@@ -4,6 +4,8 @@ import com.petadoption.customexceptions.pet.*;
 import com.petadoption.model.Pet;
 import com.petadoption.repository.PetRepository;
 import com.petadoption.model.enums.PetStatus;
+import com.petadoption.validation.PetValidators;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,6 +31,10 @@ import java.util.Optional;
 
  * Marked as a transactional service to ensure atomicity and consistency during
  * database operations.
+
+ * Pets are returned with their type loaded. A pet served from the second-level cache can
+ * reference its type through a proxy even when the query fetched it, and responses are
+ * serialized after the transaction, where the proxy could not be loaded anymore.
  */
 @Service
 @Transactional
@@ -56,13 +62,13 @@ public class PetService {
 
     @Transactional(readOnly = true)
     public List<Pet> getAllAvailablePets() {
-        return petRepository.findByStatus(PetStatus.AVAILABLE);
+        return withTypes(petRepository.findByStatus(PetStatus.AVAILABLE));
     }
 
     //TODO add endpoint to check list of adopted pets
     @Transactional(readOnly = true)
     public List<Pet> getAllAdoptedPets() {
-        return petRepository.findByStatus(PetStatus.ADOPTED);
+        return withTypes(petRepository.findByStatus(PetStatus.ADOPTED));
     }
 
     @Transactional(readOnly = true)
@@ -73,13 +79,14 @@ public class PetService {
             throw new PetIdValidationException("Pet not found with ID " + id);
         }
         logger.info("Retrieve pet with ID {}", id);
+        pet.ifPresent(PetService::withType);
         return pet;
     }
 
     public List<Pet> getEnabledPetsByLocation(String location) {
         List<Pet> pets = petRepository.findByLocation(location);
         logger.info("Retrieved pets by location");
-        return pets;
+        return withTypes(pets);
     }
 
     public boolean hasAvailablePets(String location) {
@@ -111,48 +118,24 @@ public class PetService {
     }
 
     private void validatePetOnCreate(Pet pet) {
-        validateName(pet.getName());
-        validateAge(pet.getAge());
-        validateAvailability(pet.getStatus());
+        PetValidators.CREATE.validateOrThrow(pet);
     }
 
     private void validatePet(Pet pet) {
-        validateName(pet.getName());
-        validateAge(pet.getAge());
-        validateId(pet.getId());
-
-        validateAvailability(pet.getStatus());
-    }
-
-    private void validateId(Long id) {
-        if (id == null || id < 0) {
-            throw new PetIdValidationException("Pet ID must not be null or negative");
-        }
+        PetValidators.UPDATE.validateOrThrow(pet);
     }
 
-    private void validateName(String name) {
-        if (name == null || name.isBlank()) {
-            throw new PetNameValidationException("Pet name must not be null or empty");
-        }
-    }
-
-    private void validateAge(int age) {
-        if (age < 0) {
-            throw new PetAgeValidationException("Pet age must not be less than 0");
-        }
-    }
-
-    private void validateAvailability(PetStatus status) {
-        if (status == null) {
-            throw new PetAvailabilityValidationException("Pet is not available for adoption");
-        } else if (status != PetStatus.AVAILABLE) {
-            throw new PetAvailabilityValidationException("Pet is not available for adoption");
+    // Loads a pet and its type if they are still proxies; used for the adoptions' pets as well
+    static Pet withType(Pet pet) {
+        if (pet != null) {
+            Hibernate.initialize(pet);
+            Hibernate.initialize(pet.getTypeOfPet());
         }
+        return pet;
     }
 
-    private void validateLocationAvailability(String location, Boolean enable) {
-        if (enable == null || !enable) {
-            throw new PetAvailabilityValidationException("Pet is not available for adoption");
-        }
+    private static List<Pet> withTypes(List<Pet> pets) {
+        pets.forEach(PetService::withType);
+        return pets;
     }
 }
@@ -0,0 +1,190 @@
+package com.petadoption.service;
+
+import com.petadoption.repository.RevokedRefreshTokenRepository;
+import com.petadoption.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Service holding the refresh token revocation set: the jti of every refresh token that was
+ * already rotated and the id of every token family that was revoked.
+
+ * The set is persisted in the revoked_refresh_token table and fronted by an in-memory Bloom
+ * filter, loaded in the background once the application is ready. The table is shared by every
+ * instance, the filter is not: it only learns the revocations made by its own instance after
+ * loading. So a filter hit lets a revoked family be refused right away, but a miss is never
+ * final. Every refresh marks its token as used with one insert that also checks the family
+ * (see markUsed), which catches revocations made by any other instance without an extra query.
+
+ * Bloom filters can not remove values, so when expired entries are pruned the filter is
+ * rebuilt from the remaining rows and swapped in. Ids added during a rebuild are recorded in
+ * both filters, so none is missed.
+ */
+@Service
+public class RefreshTokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenRevocationService.class);
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+
+    private final RevokedRefreshTokenRepository revokedRefreshTokenRepository;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    // Filter being rebuilt by prune(), null otherwise
+    private volatile BloomFilter rebuilding;
+    private volatile boolean loaded;
+
+    public RefreshTokenRevocationService(RevokedRefreshTokenRepository revokedRefreshTokenRepository,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.refresh-token.expected-revocations:1000000}") long expectedRevocations,
+                                         @Value("${app.refresh-token.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.revokedRefreshTokenRepository = revokedRefreshTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new BloomFilter(expectedRevocations, falsePositiveRate);
+
+        Gauge.builder("refresh.token.revocation.loaded", this, service -> service.loaded ? 1 : 0)
+                .description("Whether the refresh token revocation filter is loaded (1) or checks go to the database (0)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the ids of every unexpired revocation into the filter.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFilter() {
+        Thread loader = new Thread(() -> {
+            try {
+                long start = System.nanoTime();
+                long count = loadInto(filter);
+                loaded = true;
+                logger.info("Loaded {} revoked refresh tokens into the revocation filter in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                logger.error("Could not load the refresh token revocation filter, falling back to database checks", e);
+            }
+        }, "refresh-token-revocation-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Tells whether this instance knows the id as revoked. Revocations made by other instances
+     * since the filter was loaded are only caught when the id is a possible hit, so a false
+     * answer is not definitive; markUsed is.
+     */
+    public boolean isRevoked(String tokenId) {
+        if (loaded && !filter.mightContain(tokenId)) {
+            return false;
+        }
+        return revokedRefreshTokenRepository.existsById(tokenId);
+    }
+
+    /**
+     * Adds an id to the revocation set until the given expiration.
+     *
+     * @return true if the id was added, false if it was already revoked.
+     */
+    public boolean revoke(String tokenId, Instant expiresAt) {
+        boolean added = revokedRefreshTokenRepository.insertIfAbsent(tokenId, Date.from(expiresAt)) == 1;
+        remember(tokenId);
+        return added;
+    }
+
+    /**
+     * Marks a refresh token as used, checking its family in the same statement against the
+     * table every instance writes to.
+     *
+     * @return ROTATED if the token was unused and its family valid, FAMILY_REVOKED if the family
+     *         was revoked (on any instance), ALREADY_USED if the token was used before.
+     */
+    public Rotation markUsed(String tokenId, String familyId, Instant expiresAt) {
+        if (revokedRefreshTokenRepository.insertUnlessFamilyRevoked(tokenId, familyId, Date.from(expiresAt)) == 1) {
+            remember(tokenId);
+            return Rotation.ROTATED;
+        }
+        // Rejected: only now is it worth a query to tell the two causes apart
+        if (revokedRefreshTokenRepository.existsById(familyId)) {
+            remember(familyId);
+            return Rotation.FAMILY_REVOKED;
+        }
+        return Rotation.ALREADY_USED;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Removes the entries whose tokens have expired and rebuilds the filter without them.
+     */
+    @Scheduled(fixedDelayString = "${app.refresh-token.prune-interval:PT1H}", initialDelayString = "${app.refresh-token.prune-interval:PT1H}")
+    public void prune() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            int deleted = revokedRefreshTokenRepository.deleteExpired(new Date());
+            if (deleted == 0) {
+                return;
+            }
+
+            BloomFilter next = new BloomFilter(expectedRevocations, falsePositiveRate);
+            rebuilding = next;
+            long count = loadInto(next);
+            filter = next;
+            rebuilding = null;
+            logger.info("Pruned {} expired refresh token revocations, {} remain", deleted, count);
+        } catch (RuntimeException e) {
+            rebuilding = null;
+            logger.error("Could not prune the refresh token revocations", e);
+        }
+    }
+
+    // Called after the insert committed, so a concurrent rebuild either reads the row or gets the put
+    private void remember(String tokenId) {
+        BloomFilter next = rebuilding;
+        filter.put(tokenId);
+        if (next != null) {
+            next.put(tokenId);
+        }
+    }
+
+    private long loadInto(BloomFilter target) {
+        Date now = new Date();
+        long count = 0;
+        String lastId = "";
+        List<String> page;
+        do {
+            page = revokedRefreshTokenRepository.findActiveIdsAfter(lastId, now, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (String tokenId : page) {
+                target.put(tokenId);
+                lastId = tokenId;
+            }
+            count += page.size();
+        } while (page.size() == LOAD_PAGE_SIZE);
+        return count;
+    }
+
+    /**
+     * Outcome of marking a refresh token as used.
+     */
+    public enum Rotation {
+        ROTATED,
+        ALREADY_USED,
+        FAMILY_REVOKED
+    }
+}
@@ -0,0 +1,123 @@
+package com.petadoption.service;
+
+import com.petadoption.dto.UserIdentityDTO;
+import com.petadoption.repository.UserRepository;
+import com.petadoption.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Service answering whether a username or email is still free, without a database round
+ * trip in the common case.
+
+ * Existing usernames and emails are kept in two in-memory Bloom filters, loaded in the
+ * background once the application is ready and updated whenever a user is created or
+ * changes its email.
+ * A negative answer from the filter is definitive, so the value is available. Only a
+ * possible hit (an existing value or a false positive) falls back to an indexed
+ * existence query. Until the filters are loaded every check goes to the database.
+ */
+@Service
+public class UserAvailabilityService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserAvailabilityService.class);
+
+    private static final int LOAD_PAGE_SIZE = 5000;
+
+    private final UserRepository userRepository;
+    private final BloomFilter usernames;
+    private final BloomFilter emails;
+
+    private volatile boolean loaded;
+
+    public UserAvailabilityService(UserRepository userRepository,
+                                   @Value("${app.availability.expected-users:1000000}") long expectedUsers,
+                                   @Value("${app.availability.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.usernames = new BloomFilter(expectedUsers, falsePositiveRate);
+        this.emails = new BloomFilter(expectedUsers, falsePositiveRate);
+    }
+
+    /**
+     * Loads every existing username and email into the filters, scanning the user table
+     * by id in pages. Users created meanwhile are recorded in the same filters, so none is missed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFilters() {
+        Thread loader = new Thread(() -> {
+            try {
+                long start = System.nanoTime();
+
+                long count = 0;
+                Long lastId = 0L;
+                List<UserIdentityDTO> page;
+                do {
+                    page = userRepository.findIdentitiesAfter(lastId, PageRequest.of(0, LOAD_PAGE_SIZE));
+                    for (UserIdentityDTO identity : page) {
+                        record(identity.username(), identity.email());
+                        lastId = identity.id();
+                    }
+                    count += page.size();
+                } while (page.size() == LOAD_PAGE_SIZE);
+
+                loaded = true;
+                logger.info("Loaded {} users into the availability filters in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                logger.error("Could not load the availability filters, falling back to database checks", e);
+            }
+        }, "user-availability-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    // Whether the filters are loaded and answer checks, see loadFilters()
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public boolean isUsernameAvailable(String username) {
+        if (username == null) {
+            return true;
+        }
+        if (loaded && !usernames.mightContain(normalize(username))) {
+            return true;
+        }
+        return !userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailAvailable(String email) {
+        if (email == null) {
+            return true;
+        }
+        if (loaded && !emails.mightContain(normalize(email))) {
+            return true;
+        }
+        return !userRepository.existsByEmail(email);
+    }
+
+    /**
+     * Records a newly created user, or the new email of an updated one, so later checks for its
+     * username and email go to the database.
+     */
+    public void record(String username, String email) {
+        if (username != null) {
+            usernames.put(normalize(username));
+        }
+        if (email != null) {
+            emails.put(normalize(email));
+        }
+    }
+
+    // Case-folding only widens the possible hits; the database check stays exact
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,82 @@
+package com.petadoption.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.petadoption.dto.UserProfile;
+import com.petadoption.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded cache of {@link UserProfile}s (id, username, password hash and roles), keyed by
+ * username, in front of the remote database. It serves logins and the user-details lookups
+ * of the security filters, which only know the username.
+
+ * Entries are evicted by size and expire a fixed time after being loaded, which bounds how
+ * long a change made outside the application can stay invisible. Changes made through
+ * UserService invalidate the affected user precisely: the eviction runs once the
+ * surrounding transaction commits, so a concurrent miss can not reload the old row after it.
+ * Unknown usernames are not cached.
+
+ * Hit ratio, evictions and sizes are published on actuator as the "cache.*" metrics,
+ * tagged cache=userProfiles.byUsername.
+ */
+@Service
+public class UserProfileCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserProfileCache.class);
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserProfile> byUsername;
+
+    public UserProfileCache(UserRepository userRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.user-cache.maximum-size:10000}") long maximumSize,
+                            @Value("${app.user-cache.time-to-live:10m}") Duration timeToLive) {
+        this.userRepository = userRepository;
+        this.byUsername = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "userProfiles.byUsername");
+    }
+
+    public Optional<UserProfile> getByUsername(String username) {
+        return Optional.ofNullable(byUsername.get(username, key -> userRepository.findProfileByUsername(key).orElse(null)));
+    }
+
+    /**
+     * Evicts a user once the current transaction commits (or right away without one).
+     *
+     * @param username the username of the user.
+     */
+    public void invalidate(String username) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(username);
+                }
+            });
+        } else {
+            evict(username);
+        }
+    }
+
+    private void evict(String username) {
+        if (username != null) {
+            byUsername.invalidate(username);
+        }
+        logger.debug("Evicted user profile username={}", username);
+    }
+}
@@ -0,0 +1,124 @@
+package com.petadoption.service;
+
+import com.petadoption.dto.UserIdentityDTO;
+import com.petadoption.repository.AdoptionRepository;
+import com.petadoption.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Service removing users together with the rows that reference them, using a few
+ * set-based statements instead of loading and cascading entities.
+
+ * For a set of users it deletes, in order: their adoptions, their rows in the legacy
+ * "user_roles" table (if it still exists) and the users themselves. Pets keep their current
+ * status. The status history of the removed adoptions is append-only and only refers to them
+ * by id, so it is kept. The cached profiles of the removed users are evicted after the commit.
+
+ * {@link #purge(Collection)} removes many users in chunks, committing each chunk in its own
+ * transaction, so a large purge never holds locks on more than one chunk of rows at a time.
+ * A failing chunk stops the purge; the chunks committed before it stay deleted.
+ */
+@Service
+public class UserPurgeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserPurgeService.class);
+
+    private final UserRepository userRepository;
+    private final AdoptionRepository adoptionRepository;
+    private final UserProfileCache userProfileCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    private volatile Boolean legacyRolesTable;
+
+    public UserPurgeService(UserRepository userRepository,
+                            AdoptionRepository adoptionRepository,
+                            UserProfileCache userProfileCache,
+                            JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.user-purge.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.adoptionRepository = adoptionRepository;
+        this.userProfileCache = userProfileCache;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Removes the given users and everything referencing them within the current
+     * transaction (or a new one).
+     *
+     * @param userIds the ids of the users to remove; unknown ids are ignored.
+     * @return the number of users deleted.
+     */
+    @Transactional(propagation = Propagation.REQUIRED)
+    public int removeUsers(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        List<UserIdentityDTO> users = userRepository.findIdentitiesByIds(userIds);
+        if (users.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = users.stream().map(UserIdentityDTO::id).toList();
+
+        int adoptions = adoptionRepository.deleteByUserIds(ids);
+        if (hasLegacyRolesTable()) {
+            namedJdbcTemplate.update("DELETE FROM user_roles WHERE user_id IN (:ids)", new MapSqlParameterSource("ids", ids));
+        }
+        int deleted = userRepository.deleteByIds(ids);
+
+        users.forEach(user -> userProfileCache.invalidate(user.username()));
+        logger.info("Removed {} users with {} adoptions", deleted, adoptions);
+        return deleted;
+    }
+
+    /**
+     * Removes many users, committing every chunk of {@code app.user-purge.chunk-size} ids separately.
+     *
+     * @param userIds the ids of the users to remove; duplicates and unknown ids are ignored.
+     * @return the number of users deleted.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int purge(Collection<Long> userIds) {
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(userIds));
+        int deleted = 0;
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            Integer chunkDeleted = transactionTemplate.execute(status -> removeUsers(chunk));
+            deleted += chunkDeleted != null ? chunkDeleted : 0;
+        }
+        logger.info("Purged {} of {} requested users in chunks of {}", deleted, ids.size(), chunkSize);
+        return deleted;
+    }
+
+    // The legacy table is left in place by RoleMaskMigration until it is dropped manually
+    private boolean hasLegacyRolesTable() {
+        Boolean present = legacyRolesTable;
+        if (present == null) {
+            Integer tables = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM information_schema.tables WHERE lower(table_name) = 'user_roles'", Integer.class);
+            present = tables != null && tables > 0;
+            legacyRolesTable = present;
+        }
+        return present;
+    }
+}
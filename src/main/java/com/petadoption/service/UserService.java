@@ -1,15 +1,27 @@
 package com.petadoption.service;
 
 import com.petadoption.customexceptions.user.*;
+import com.petadoption.dto.UserDTO;
+import com.petadoption.dto.UserProfile;
 import com.petadoption.model.User;
+import com.petadoption.model.enums.Role;
+import com.petadoption.model.enums.SearchMode;
 import com.petadoption.repository.UserRepository;
+import com.petadoption.security.UserPrincipal;
+import com.petadoption.validation.UserValidators;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.*;
 
@@ -29,67 +41,126 @@ public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+    // Properties of UserDTO that listings may be sorted by
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "email", "phone");
+
     private final UserRepository userRepository;
     private final PetService petService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final UserAvailabilityService userAvailabilityService;
+    private final UserProfileCache userProfileCache;
+    private final UserPurgeService userPurgeService;
     @Value("${app.admin-key}")
     private String adminSecretKey;
 
     @Autowired
-    public UserService(UserRepository userRepository, PetService petService, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PetService petService, PasswordHashingService passwordHashingService,
+                       UserAvailabilityService userAvailabilityService, UserProfileCache userProfileCache,
+                       UserPurgeService userPurgeService) {
         this.userRepository = userRepository;
         this.petService = petService;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
+        this.userAvailabilityService = userAvailabilityService;
+        this.userProfileCache = userProfileCache;
+        this.userPurgeService = userPurgeService;
     }
 
-    public List<String> authenticate(String username, String password) {
+    /**
+     * Verifies the credentials of a user. It runs without a transaction, so no database
+     * connection is held while the password hash is checked on the hashing executor.
+     * A hash made with another cost than the configured one is replaced in the background.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserPrincipal authenticate(String username, String password) {
 
-        User user = userRepository.findByUsername(username)
+        UserProfile user = userProfileCache.getByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.passwordHash())) {
             throw new RuntimeException("Invalid password");
         }
 
-        if (user.getRoles() == null || user.getRoles().isEmpty()) {
+        if (passwordHashingService.needsRehash(user.passwordHash())) {
+            passwordHashingService.encodeInBackground(password, newHash -> rehash(user, newHash));
+        }
+
+        List<String> roles = user.roles();
+        if (roles.isEmpty()) {
             throw new RuntimeException("User has no roles assigned");
         }
 
-        logger.info("Authenticated user: {} with roles: {}", username, user.getRoles());
+        logger.info("Authenticated user: {} with roles: {}", username, roles);
 
+        return new UserPrincipal(user.id(), user.username(), roles);
+    }
 
-        for (String role : user.getRoles()) {
-            System.out.println("Role: " + role);
+    private void rehash(UserProfile user, String newHash) {
+        if (userRepository.updatePasswordHash(user.id(), user.passwordHash(), newHash) > 0) {
+            userProfileCache.invalidate(user.username());
+            logger.info("Rehashed password of user {} with the configured cost", user.username());
         }
-
-        return new ArrayList<>(user.getRoles());
     }
 
-    private Set<String> determineRoles(Optional<String> adminKey) {
+    private Role determineRole(Optional<String> adminKey) {
         if (adminKey.isPresent() && adminKey.get().equals(adminSecretKey)) {
-            return Set.of("ROLE_ADMIN");
+            return Role.ADMIN;
         }
-        return Set.of("ROLE_USER");
+        return Role.USER;
     }
 
 
+    // No transaction around the password hash; the save runs in the repository's own transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public User createUser(User user, Optional<String> adminKey) {
         validateUser(user, false);
 
-        user.setRoles(determineRoles(adminKey));
+        // Rejects taken usernames and emails before spending a password hash on them
+        if (!userAvailabilityService.isUsernameAvailable(user.getUsername())) {
+            throw new UserAlreadyExistsException("Username is already taken: " + user.getUsername());
+        }
+        if (!userAvailabilityService.isEmailAvailable(user.getEmail())) {
+            throw new UserAlreadyExistsException("Email is already registered: " + user.getEmail());
+        }
+
+        user.setRolesMask(0);
+        user.grantRole(determineRole(adminKey));
 
         // Encriptar la contraseña antes de guardar
-        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setPassword(passwordHashingService.encode(user.getPassword()));
 
         User createdUser = userRepository.save(user);
+        userAvailabilityService.record(createdUser.getUsername(), createdUser.getEmail());
+        userProfileCache.invalidate(createdUser.getUsername());
         logger.info("Created user with id {}", createdUser.getId());
         return createdUser;
     }
 
     @Transactional(readOnly = true)
-    public List<User> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        logger.info("Retrieved {} users", users.size());
+    public Page<UserDTO> getUserPage(Pageable pageable) {
+        Page<UserDTO> users = userRepository.findAllUserDTOs(withSortableProperties(pageable));
+        logger.info("Retrieved page {} of users ({} of {})", users.getNumber(), users.getNumberOfElements(), users.getTotalElements());
+        return users;
+    }
+
+    /**
+     * Case-insensitive search on name, email and phone. Blank terms and terms shorter
+     * than the mode allows are rejected with an IllegalArgumentException.
+     */
+    @Transactional(readOnly = true)
+    public Page<UserDTO> searchUsers(String term, SearchMode mode, Pageable pageable) {
+        String trimmed = term == null ? "" : term.trim();
+        if (trimmed.length() < mode.getMinimumTermLength()) {
+            throw new IllegalArgumentException("Search term must have at least " + mode.getMinimumTermLength() + " characters");
+        }
+
+        String escaped = trimmed.toLowerCase(Locale.ROOT)
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        String pattern = mode == SearchMode.PREFIX ? escaped + "%" : "%" + escaped + "%";
+
+        Page<UserDTO> users = userRepository.searchUserDTOs(pattern, withSortableProperties(pageable));
+        logger.info("Search '{}' ({}) matched {} users", trimmed, mode, users.getTotalElements());
         return users;
     }
 
@@ -104,8 +175,9 @@ public class UserService {
         return user;
     }
 
-    public User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
+    // Cached credentials and roles of a user, as needed to authenticate it
+    public UserProfile getUserProfile(String username) {
+        return userProfileCache.getByUsername(username)
                 .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
     }
 
@@ -119,19 +191,41 @@ public class UserService {
         userToUpdate.setPhone(user.getPhone());
 
         User updatedUser = userRepository.save(userToUpdate);
+        userProfileCache.invalidate(updatedUser.getUsername());
+        recordAfterCommit(updatedUser.getUsername(), updatedUser.getEmail());
         logger.info("Updated user with id {}", updatedUser.getId());
         return updatedUser;
     }
 
+    // A changed email must reach the availability filters, or they would report it as free
+    private void recordAfterCommit(String username, String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userAvailabilityService.record(username, email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userAvailabilityService.record(username, email);
+            }
+        });
+    }
+
+    // Also deletes the user's adoptions, see UserPurgeService
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
+        if (userPurgeService.removeUsers(List.of(id)) == 0) {
             logger.warn("User with ID {} not found for deletion", id);
             throw new UserNotFoundException("User not found with ID " + id);
         }
-        userRepository.deleteById(id);
         logger.info("Deleted user with ID {}", id);
     }
 
+    // Runs outside of a transaction so every chunk commits on its own
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int purgeUsers(Collection<Long> ids) {
+        return userPurgeService.purge(ids);
+    }
+
     @Transactional(readOnly = true)
     public boolean hasAvailablePets(String location) {
         boolean available = petService.hasAvailablePets(location);
@@ -143,18 +237,17 @@ public class UserService {
         return available;
     }
 
+    // Drops sort orders on unknown properties instead of failing the query
+    private Pageable withSortableProperties(Pageable pageable) {
+        List<Sort.Order> orders = pageable.getSort().stream()
+                .filter(order -> SORTABLE_PROPERTIES.contains(order.getProperty()))
+                .toList();
+        Sort sort = orders.isEmpty() ? Sort.by("id") : Sort.by(orders);
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
     private void validateUser(User user, boolean isUpdating) {
-        if (user.getName() == null || user.getName().isBlank()) {
-            throw new UserNameValidationException("Name must not be null or empty");
-        }
-        if (user.getEmail() == null || user.getEmail().isBlank() || !user.getEmail().matches("^[\\w-.]+@([\\w-]+.)+[\\w-]{2,4}$")) {
-            throw new UserEmailValidationException("Email is invalid");
-        }
-        if (user.getPhone() == null || user.getPhone().isBlank()) {
-            throw new UserPhoneValidationException("Phone must not be null or empty");
-        }
-        if (isUpdating && (user.getId() == null || user.getId() < 0)) {
-            throw new UserIdValidationException("User ID must not be null or negative");
-        }
+        // Collects every field error in one pass, see UserValidators
+        (isUpdating ? UserValidators.UPDATE : UserValidators.CREATE).validateOrThrow(user);
     }
 }
@@ -0,0 +1,93 @@
+package com.petadoption.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter over strings.
+
+ * {@link #mightContain(String)} never returns false for a value that was added, but it
+ * may return true for a value that was not (a false positive), with roughly the probability
+ * given at construction time as long as no more than the expected number of values are added.
+ * Values can not be removed; callers that need removal rebuild the filter.
+
+ * Bits are stored in an {@link AtomicLongArray}, so concurrent {@link #put(String)} and
+ * {@link #mightContain(String)} calls need no locking. Probing uses double hashing
+ * (Kirsch-Mitzenmacher) over a single 64-bit hash of the value, so checks do not allocate.
+ */
+public final class BloomFilter {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    public BloomFilter(long expectedInsertions, double falsePositiveProbability) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive");
+        }
+        if (falsePositiveProbability <= 0 || falsePositiveProbability >= 1) {
+            throw new IllegalArgumentException("False positive probability must be between 0 and 1");
+        }
+        long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.max(1, (optimalBits + 63) / 64);
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ FNV_OFFSET_BASIS) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bitIndex = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            long mask = 1L << bitIndex;
+            int word = (int) (bitIndex >>> 6);
+            if ((bits.get(word) & mask) == 0) {
+                bits.accumulateAndGet(word, mask, (current, bit) -> current | bit);
+            }
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = hash;
+        long h2 = mix(hash ^ FNV_OFFSET_BASIS) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            long bitIndex = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get((int) (bitIndex >>> 6)) & (1L << bitIndex)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitCount() {
+        return bitCount;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    // FNV-1a over the UTF-16 chars, finalized with the MurmurHash3 mixer for a good bit spread
+    private static long hash(String value) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,24 @@
+package com.petadoption.validation;
+
+import com.petadoption.model.Adoption;
+import com.petadoption.model.Pet;
+import com.petadoption.model.User;
+
+/**
+ * Precompiled validators for {@link Adoption} entities.
+ * An adoption only references its user and pet, so just their ids are checked here;
+ * their existence is verified by the service.
+ */
+public final class AdoptionValidators {
+
+    private static final Rule<User> USER_ID = Rule.notNegative(User::getId, "user.id", "User ID must not be null or negative.");
+    private static final Rule<Pet> PET_ID = Rule.notNegative(Pet::getId, "pet.id", "Pet ID must not be null or negative");
+
+    private static final Rule<Adoption> USER = Rule.nested(Adoption::getUser, "user", "User object is null.", USER_ID);
+    private static final Rule<Adoption> PET = Rule.nested(Adoption::getPet, "pet.id", "Pet ID must not be null or negative", PET_ID);
+    private static final Rule<Adoption> STATUS = Rule.notBlank(Adoption::getStatus, "status", "Status must not be null or empty");
+
+    public static final EntityValidator<Adoption> DEFAULT = EntityValidator.of(USER, PET, STATUS);
+
+    private AdoptionValidators() {}
+}
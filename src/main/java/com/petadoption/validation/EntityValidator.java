@@ -0,0 +1,66 @@
+package com.petadoption.validation;
+
+import com.petadoption.customexceptions.validation.EntityValidationException;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, reusable list of {@link Rule}s for one kind of entity.
+ * Validators are built once and shared; they hold no state between calls, so the same
+ * instance serves single-entity endpoints and bulk import paths concurrently.
+ */
+public final class EntityValidator<T> {
+
+    private final List<Rule<T>> rules;
+
+    private EntityValidator(List<Rule<T>> rules) {
+        this.rules = rules;
+    }
+
+    @SafeVarargs
+    public static <T> EntityValidator<T> of(Rule<T>... rules) {
+        return new EntityValidator<>(List.of(rules));
+    }
+
+    /**
+     * Runs every rule and returns all field errors found.
+     */
+    public ValidationErrors validate(T target) {
+        ValidationErrors errors = new ValidationErrors();
+        for (int i = 0; i < rules.size(); i++) {
+            rules.get(i).check(target, errors);
+        }
+        return errors;
+    }
+
+    /**
+     * Runs every rule and throws if any of them failed.
+     *
+     * @throws EntityValidationException carrying every field error found.
+     */
+    public void validateOrThrow(T target) {
+        ValidationErrors errors = validate(target);
+        if (errors.hasErrors()) {
+            throw new EntityValidationException(errors.asMap());
+        }
+    }
+
+    /**
+     * Validates a batch of entities, e.g. for bulk imports.
+     *
+     * @return the field errors of each invalid entity, keyed by its index in the list;
+     *         an empty map if every entity is valid.
+     */
+    public Map<Integer, Map<String, String>> validateAll(List<? extends T> targets) {
+        Map<Integer, Map<String, String>> failures = new LinkedHashMap<>();
+        for (int i = 0; i < targets.size(); i++) {
+            ValidationErrors errors = validate(targets.get(i));
+            if (errors.hasErrors()) {
+                failures.put(i, errors.asMap());
+            }
+        }
+        return failures;
+    }
+}
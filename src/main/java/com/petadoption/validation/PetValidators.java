@@ -0,0 +1,21 @@
+package com.petadoption.validation;
+
+import com.petadoption.model.Pet;
+import com.petadoption.model.enums.PetStatus;
+
+/**
+ * Precompiled validators for {@link Pet} entities.
+ */
+public final class PetValidators {
+
+    private static final Rule<Pet> NAME = Rule.notBlank(Pet::getName, "name", "Pet name must not be null or empty");
+    private static final Rule<Pet> AGE = Rule.notNegative(Pet::getAge, "age", "Pet age must not be less than 0");
+    private static final Rule<Pet> AVAILABLE = Rule.that(Pet::getStatus, status -> status == PetStatus.AVAILABLE,
+            "status", "Pet is not available for adoption");
+    private static final Rule<Pet> ID = Rule.notNegative(Pet::getId, "id", "Pet ID must not be null or negative");
+
+    public static final EntityValidator<Pet> CREATE = EntityValidator.of(NAME, AGE, AVAILABLE);
+    public static final EntityValidator<Pet> UPDATE = EntityValidator.of(NAME, AGE, ID, AVAILABLE);
+
+    private PetValidators() {}
+}
@@ -0,0 +1,70 @@
+package com.petadoption.validation;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * A single validation check over an entity. Rules report problems to the given
+ * {@link ValidationErrors} instead of throwing, so every rule of a validator runs in one pass.
+
+ * The factory methods build rules once (typically in static fields of a validator class);
+ * evaluating them does not allocate.
+ */
+@FunctionalInterface
+public interface Rule<T> {
+
+    void check(T target, ValidationErrors errors);
+
+    static <T> Rule<T> notBlank(Function<T, String> getter, String field, String message) {
+        return (target, errors) -> {
+            String value = getter.apply(target);
+            if (value == null || value.isBlank()) {
+                errors.reject(field, message);
+            }
+        };
+    }
+
+    /**
+     * Rejects null, blank and non-matching values. The pattern is compiled once by the caller.
+     */
+    static <T> Rule<T> matches(Function<T, String> getter, Pattern pattern, String field, String message) {
+        return (target, errors) -> {
+            String value = getter.apply(target);
+            if (value == null || value.isBlank() || !pattern.matcher(value).matches()) {
+                errors.reject(field, message);
+            }
+        };
+    }
+
+    static <T> Rule<T> notNegative(Function<T, ? extends Number> getter, String field, String message) {
+        return (target, errors) -> {
+            Number value = getter.apply(target);
+            if (value == null || value.longValue() < 0) {
+                errors.reject(field, message);
+            }
+        };
+    }
+
+    static <T, V> Rule<T> that(Function<T, V> getter, Predicate<V> condition, String field, String message) {
+        return (target, errors) -> {
+            if (!condition.test(getter.apply(target))) {
+                errors.reject(field, message);
+            }
+        };
+    }
+
+    /**
+     * Applies the rule to a nested value, rejecting the field if the value itself is missing.
+     */
+    static <T, V> Rule<T> nested(Function<T, V> getter, String field, String missingMessage, Rule<V> rule) {
+        return (target, errors) -> {
+            V value = getter.apply(target);
+            if (value == null) {
+                errors.reject(field, missingMessage);
+            } else {
+                rule.check(value, errors);
+            }
+        };
+    }
+}
@@ -0,0 +1,24 @@
+package com.petadoption.validation;
+
+import com.petadoption.model.User;
+
+import java.util.regex.Pattern;
+
+/**
+ * Precompiled validators for {@link User} entities.
+ */
+public final class UserValidators {
+
+    // Compiled once; the dot before the top level domain is escaped so the pattern cannot backtrack exponentially
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[\\w.-]+@(?:[\\w-]+\\.)+[\\w-]{2,4}$");
+
+    private static final Rule<User> NAME = Rule.notBlank(User::getName, "name", "Name must not be null or empty");
+    private static final Rule<User> EMAIL = Rule.matches(User::getEmail, EMAIL_PATTERN, "email", "Email is invalid");
+    private static final Rule<User> PHONE = Rule.notBlank(User::getPhone, "phone", "Phone must not be null or empty");
+    private static final Rule<User> ID = Rule.notNegative(User::getId, "id", "User ID must not be null or negative");
+
+    public static final EntityValidator<User> CREATE = EntityValidator.of(NAME, EMAIL, PHONE);
+    public static final EntityValidator<User> UPDATE = EntityValidator.of(NAME, EMAIL, PHONE, ID);
+
+    private UserValidators() {}
+}
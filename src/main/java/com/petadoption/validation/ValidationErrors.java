@@ -0,0 +1,43 @@
+package com.petadoption.validation;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Collects the field errors found while validating one entity.
+ * The underlying map is only allocated when the first error is reported, so validating
+ * a valid entity allocates nothing besides this object.
+ * Only the first error of each field is kept.
+ */
+public final class ValidationErrors {
+
+    private Map<String, String> errors;
+
+    public void reject(String field, String message) {
+        if (errors == null) {
+            errors = new LinkedHashMap<>(4);
+        }
+        errors.putIfAbsent(field, message);
+    }
+
+    public boolean hasErrors() {
+        return errors != null;
+    }
+
+    public boolean hasError(String field) {
+        return errors != null && errors.containsKey(field);
+    }
+
+    /**
+     * @return the errors as an unmodifiable field-to-message map, in the order they were found.
+     */
+    public Map<String, String> asMap() {
+        return errors == null ? Map.of() : Collections.unmodifiableMap(errors);
+    }
+
+    @Override
+    public String toString() {
+        return "ValidationErrors" + asMap();
+    }
+}
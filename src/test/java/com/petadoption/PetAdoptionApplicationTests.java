@@ -0,0 +1,71 @@
+package com.petadoption;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.config.ScheduledTask;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Boots the whole application on an in-memory H2 database, so configuration errors that only
+ * show up at startup (e.g. a @Scheduled interval Spring cannot parse) fail here rather than
+ * behind an unreachable database.
+ */
+@SpringBootTest(properties = {
+        "server.port=0",
+        "management.server.port=0",
+        "spring.datasource.url=jdbc:h2:mem:context;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class PetAdoptionApplicationTests {
+
+    @Autowired
+    private List<ScheduledTaskHolder> scheduledTaskHolders;
+
+    @Test
+    void contextLoadsWithItsScheduledTasks() {
+        List<String> tasks = scheduledTasks(scheduledTaskHolders);
+
+        assertTrue(tasks.stream().anyMatch(task -> task.contains("LoginThrottle.evictIdle")), tasks::toString);
+        assertTrue(tasks.stream().anyMatch(task -> task.contains("RefreshTokenRevocationService.prune")), tasks::toString);
+    }
+
+    // The components that are off by default, which bring scheduled tasks of their own
+    @Nested
+    @TestPropertySource(properties = {
+            "spring.datasource.url=jdbc:h2:mem:context-optional;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+            "app.db-pool.adaptive.enabled=true",
+            // The same database stands in for the replica
+            "app.read-replicas.enabled=true",
+            "app.read-replicas.instances[0].url=jdbc:h2:mem:context-optional;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE"
+    })
+    class WithOptionalComponents {
+
+        @Autowired
+        private List<ScheduledTaskHolder> scheduledTaskHolders;
+
+        @Test
+        void contextLoadsWithTheirScheduledTasks() {
+            List<String> tasks = scheduledTasks(scheduledTaskHolders);
+
+            assertTrue(tasks.stream().anyMatch(task -> task.contains("AdaptivePoolSizer.resize")), tasks::toString);
+            assertTrue(tasks.stream().anyMatch(task -> task.contains("ReadReplicaDataSource.checkReplicas")), tasks::toString);
+        }
+    }
+
+    private static List<String> scheduledTasks(List<ScheduledTaskHolder> holders) {
+        return holders.stream()
+                .flatMap(holder -> holder.getScheduledTasks().stream())
+                .map(ScheduledTask::toString)
+                .toList();
+    }
+}
@@ -0,0 +1,155 @@
+package com.petadoption.adoption;
+
+import com.petadoption.model.Adoption;
+import com.petadoption.model.Pet;
+import com.petadoption.model.TypeOfPet;
+import com.petadoption.model.User;
+import com.petadoption.model.enums.PetStatus;
+import com.petadoption.repository.AdoptionRepository;
+import com.petadoption.repository.PetRepository;
+import com.petadoption.repository.TypeOfPetRepository;
+import com.petadoption.repository.UserRepository;
+import com.petadoption.service.AdoptionService;
+import com.petadoption.service.PetService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Second-level and query cache behaviour on an in-memory H2 database: cached reads are served
+ * by the cache, and the catalog stays correct when approving or rejecting an adoption changes
+ * a cached pet. Cached pets are also read through the controllers, as their JSON is written
+ * after the transaction that loaded them.
+ */
+@SpringBootTest(properties = {
+        "server.port=0",
+        "management.server.port=0",
+        "spring.datasource.url=jdbc:h2:mem:adoption-cache;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureMockMvc
+public class AdoptionCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AdoptionService adoptionService;
+
+    @Autowired
+    private PetService petService;
+
+    @Autowired
+    private AdoptionRepository adoptionRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private TypeOfPetRepository typeOfPetRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Pet pet;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        TypeOfPet type = typeOfPetRepository.save(new TypeOfPet("Dog", null));
+        pet = petRepository.save(new Pet(null, "Rex", 3, PetStatus.AVAILABLE, type, "Madrid"));
+
+        String username = "cache_" + System.nanoTime();
+        User newUser = new User();
+        newUser.setUsername(username);
+        newUser.setEmail(username + "@example.com");
+        newUser.setPassword("password123");
+        newUser.setName("Cache User");
+        newUser.setPhone("123456789");
+        user = userRepository.save(newUser);
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromTheCache() {
+        petService.getPetById(pet.getId());
+        petService.getAllAvailablePets();
+        statistics.clear();
+
+        petService.getPetById(pet.getId());
+        petService.getAllAvailablePets();
+
+        assertTrue(statistics.getCacheRegionStatistics("pet").getHitCount() > 0, "pet read from the entity cache");
+        assertTrue(statistics.getQueryCacheHitCount() > 0, "available pets read from the query cache");
+    }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void cachedPets_shouldBeSerializedWithTheirType() throws Exception {
+        // Fills the entity and query caches, so the reads below are cache hits
+        petService.getPetById(pet.getId());
+        petService.getAllAvailablePets();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/pets/{id}", pet.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.typeOfPet.name").value("Dog"))
+                .andExpect(jsonPath("$.typeOfPet.hibernateLazyInitializer").doesNotExist());
+        mockMvc.perform(get("/api/pets"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == " + pet.getId() + ")].typeOfPet.name").value("Dog"));
+
+        assertTrue(statistics.getCacheRegionStatistics("pet").getHitCount() > 0, "pet read from the entity cache");
+        assertTrue(statistics.getQueryCacheHitCount() > 0, "available pets read from the query cache");
+    }
+
+    @Test
+    void approveAdoption_shouldRemovePetFromTheCachedCatalog() {
+        Adoption adoption = adoptionRepository.save(new Adoption(null, pet, user, new Date(), "PENDING"));
+        assertTrue(availablePetIds().contains(pet.getId()));
+
+        adoptionService.approveAdoption(adoption.getAdoptionId());
+
+        assertFalse(availablePetIds().contains(pet.getId()));
+        assertEquals(PetStatus.ADOPTED, petService.getPetById(pet.getId()).orElseThrow().getStatus());
+    }
+
+    @Test
+    void rejectAdoption_shouldReturnPetToTheCachedCatalog() {
+        Adoption adoption = adoptionRepository.save(new Adoption(null, pet, user, new Date(), "PENDING"));
+        adoptionService.approveAdoption(adoption.getAdoptionId());
+        assertEquals(PetStatus.ADOPTED, petService.getPetById(pet.getId()).orElseThrow().getStatus());
+
+        adoptionService.rejectAdoption(adoption.getAdoptionId());
+
+        assertTrue(availablePetIds().contains(pet.getId()));
+        assertEquals(PetStatus.AVAILABLE, petService.getPetById(pet.getId()).orElseThrow().getStatus());
+    }
+
+    private List<Long> availablePetIds() {
+        return petService.getAllAvailablePets().stream().map(Pet::getId).toList();
+    }
+}
@@ -3,20 +3,26 @@ package com.petadoption.adoption;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.petadoption.controller.AdoptionController;
 import com.petadoption.customexceptions.adoption.AdoptionNotFoundException;
+import com.petadoption.dto.adoption.AdoptionStatusHistoryDTO;
 import com.petadoption.model.Adoption;
 import com.petadoption.model.Pet;
 import com.petadoption.model.User;
 import com.petadoption.model.enums.PetStatus;
+import com.petadoption.service.AdoptionHistoryService;
 import com.petadoption.service.AdoptionService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import java.util.Date;
+import java.util.List;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -31,6 +37,9 @@ public class AdoptionControllerTests {
     @MockBean
     private AdoptionService adoptionService;
 
+    @MockBean
+    private AdoptionHistoryService adoptionHistoryService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -163,4 +172,27 @@ public class AdoptionControllerTests {
 
         verify(adoptionService, times(1)).getAdoptionById(adoptionId);
     }
-}
\ No newline at end of file
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void getAdoptionHistory_shouldReturnTransitionsPage() throws Exception {
+        Long adoptionId = 7L;
+        List<AdoptionStatusHistoryDTO> history = List.of(
+                new AdoptionStatusHistoryDTO(adoptionId, null, "PENDING", "salome", new Date()),
+                new AdoptionStatusHistoryDTO(adoptionId, "PENDING", "APPROVED", "admin", new Date())
+        );
+        when(adoptionHistoryService.getHistory(eq(adoptionId), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(history, PageRequest.of(0, 20), history.size()));
+
+        mockMvc.perform(get("/api/adoption/{id}/history", adoptionId)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.size()").value(2))
+                .andExpect(jsonPath("$.content[1].fromStatus").value("PENDING"))
+                .andExpect(jsonPath("$.content[1].toStatus").value("APPROVED"))
+                .andExpect(jsonPath("$.content[1].actor").value("admin"))
+                .andExpect(jsonPath("$.totalElements").value(2));
+
+        verify(adoptionHistoryService, times(1)).getHistory(eq(adoptionId), any(Pageable.class));
+    }
+}
@@ -0,0 +1,250 @@
+package com.petadoption.adoption;
+
+import com.petadoption.dto.adoption.AdoptionStatusHistoryDTO;
+import com.petadoption.repository.AdoptionStatusHistoryRepository;
+import com.petadoption.service.AdoptionHistoryService;
+import com.petadoption.service.AdoptionHistoryService.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Adoption history writer on an in-memory H2 database: transitions are written in the
+ * background only once their transaction commits, and a full buffer either writes on the
+ * calling thread or drops the entry, depending on the overflow policy.
+
+ * The overflow tests use their own services with a one-entry buffer, created without a
+ * running writer so the buffer stays full. The write failure tests use services whose
+ * JdbcTemplate fails a given number of batches.
+ */
+@SpringBootTest(properties = {
+        "server.port=0",
+        "management.server.port=0",
+        "spring.datasource.url=jdbc:h2:mem:adoption-history;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class AdoptionHistoryServiceTests {
+
+    // History entries only keep the adoption id, so every test uses ids of its own
+    private static final AtomicLong adoptionIds = new AtomicLong(System.nanoTime());
+
+    @Autowired
+    private AdoptionHistoryService adoptionHistoryService;
+
+    @Autowired
+    private AdoptionStatusHistoryRepository historyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<AdoptionHistoryService> startedServices = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (AdoptionHistoryService service : startedServices) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void committedTransition_shouldBeWrittenInTheBackground() throws InterruptedException {
+        long adoptionId = adoptionIds.incrementAndGet();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            adoptionHistoryService.recordTransition(adoptionId, "PENDING", "APPROVED");
+            // Not even queued until the transaction commits
+            assertEquals(0, adoptionHistoryService.getPendingEntries());
+        });
+
+        awaitRows(adoptionId, 1);
+        Page<AdoptionStatusHistoryDTO> history = adoptionHistoryService.getHistory(adoptionId, PageRequest.of(0, 20));
+        assertEquals("PENDING", history.getContent().get(0).fromStatus());
+        assertEquals("APPROVED", history.getContent().get(0).toStatus());
+        assertEquals("system", history.getContent().get(0).actor());
+    }
+
+    @Test
+    void rolledBackTransition_shouldNotBeWritten() throws InterruptedException {
+        long rolledBackId = adoptionIds.incrementAndGet();
+        long committedId = adoptionIds.incrementAndGet();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            adoptionHistoryService.recordTransition(rolledBackId, "PENDING", "APPROVED");
+            status.setRollbackOnly();
+        });
+        // The writer keeps the order of the queue, so once this one is written the other one would be too
+        adoptionHistoryService.recordTransition(committedId, "PENDING", "REJECTED");
+
+        awaitRows(committedId, 1);
+        assertEquals(0, rows(rolledBackId));
+    }
+
+    @Test
+    void queuedTransitions_shouldBeWrittenInBatchesByTheWriter() throws InterruptedException {
+        AdoptionHistoryService service = newService(10, OverflowPolicy.CALLER_RUNS);
+        long adoptionId = adoptionIds.incrementAndGet();
+
+        service.recordTransition(adoptionId, null, "PENDING");
+        service.recordTransition(adoptionId, "PENDING", "APPROVED");
+        service.recordTransition(adoptionId, "APPROVED", "REJECTED");
+        assertEquals(3, service.getPendingEntries());
+        assertEquals(0, rows(adoptionId));
+
+        start(service);
+
+        awaitRows(adoptionId, 3);
+        assertEquals(0, service.getPendingEntries());
+    }
+
+    @Test
+    void pendingTransitions_shouldBeFlushedOnStop() throws InterruptedException {
+        AdoptionHistoryService service = newService(10, OverflowPolicy.CALLER_RUNS);
+        long adoptionId = adoptionIds.incrementAndGet();
+
+        service.recordTransition(adoptionId, null, "PENDING");
+        service.recordTransition(adoptionId, "PENDING", "APPROVED");
+        service.stop();
+
+        assertEquals(2, rows(adoptionId));
+    }
+
+    @Test
+    void fullBufferWithCallerRuns_shouldWriteOnTheCallingThread() {
+        AdoptionHistoryService service = newService(1, OverflowPolicy.CALLER_RUNS);
+        long queuedId = adoptionIds.incrementAndGet();
+        long overflowId = adoptionIds.incrementAndGet();
+
+        service.recordTransition(queuedId, null, "PENDING");
+        service.recordTransition(overflowId, null, "PENDING");
+
+        assertEquals(1, service.getPendingEntries());
+        assertEquals(0, rows(queuedId));
+        assertEquals(1, rows(overflowId));
+        assertEquals(0, service.getDroppedEntries());
+    }
+
+    @Test
+    void fullBufferWithDrop_shouldDiscardAndCountTheEntry() {
+        AdoptionHistoryService service = newService(1, OverflowPolicy.DROP);
+        long queuedId = adoptionIds.incrementAndGet();
+        long overflowId = adoptionIds.incrementAndGet();
+
+        service.recordTransition(queuedId, null, "PENDING");
+        service.recordTransition(overflowId, null, "PENDING");
+
+        assertEquals(1, service.getPendingEntries());
+        assertEquals(0, rows(overflowId));
+        assertEquals(1, service.getDroppedEntries());
+    }
+
+    @Test
+    void failedBatch_shouldBeRetried() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdoptionHistoryService service = newService(failingJdbcTemplate(2), meterRegistry);
+        long adoptionId = adoptionIds.incrementAndGet();
+
+        service.recordTransition(adoptionId, null, "PENDING");
+        start(service);
+
+        awaitRows(adoptionId, 1);
+        assertEquals(0, service.getDroppedEntries());
+        assertEquals(0, meterRegistry.get("adoption.history.dropped").functionCounter().count());
+    }
+
+    @Test
+    void batchFailingEveryAttempt_shouldBeDroppedAndCounted() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AdoptionHistoryService service = newService(failingJdbcTemplate(3), meterRegistry);
+        long adoptionId = adoptionIds.incrementAndGet();
+
+        service.recordTransition(adoptionId, null, "PENDING");
+        service.recordTransition(adoptionId, "PENDING", "APPROVED");
+        start(service);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (service.getDroppedEntries() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, service.getDroppedEntries());
+        assertEquals(2, meterRegistry.get("adoption.history.dropped").functionCounter().count());
+        assertEquals(0, rows(adoptionId));
+    }
+
+    @Test
+    void unchangedStatus_shouldNotBeRecorded() {
+        AdoptionHistoryService service = newService(1, OverflowPolicy.DROP);
+
+        service.recordTransition(adoptionIds.incrementAndGet(), "PENDING", "PENDING");
+        service.recordTransition(null, "PENDING", "APPROVED");
+
+        assertEquals(0, service.getPendingEntries());
+    }
+
+    // A service whose writer is not started until the test does it
+    private AdoptionHistoryService newService(int bufferCapacity, OverflowPolicy overflowPolicy) {
+        return new AdoptionHistoryService(historyRepository, jdbcTemplate, transactionManager, new SimpleMeterRegistry(),
+                bufferCapacity, 200, 50, 3, overflowPolicy);
+    }
+
+    // Three attempts per batch, retried after 50 and 100 ms
+    private AdoptionHistoryService newService(JdbcTemplate jdbcTemplate, SimpleMeterRegistry meterRegistry) {
+        return new AdoptionHistoryService(historyRepository, jdbcTemplate, transactionManager, meterRegistry,
+                10, 200, 50, 3, OverflowPolicy.CALLER_RUNS);
+    }
+
+    // Fails the first batches it is asked to write, then writes normally
+    private JdbcTemplate failingJdbcTemplate(int failures) {
+        AtomicInteger remainingFailures = new AtomicInteger(failures);
+        return new JdbcTemplate(jdbcTemplate.getDataSource()) {
+            @Override
+            public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                           ParameterizedPreparedStatementSetter<T> pss) {
+                if (remainingFailures.getAndDecrement() > 0) {
+                    throw new DataAccessResourceFailureException("Simulated write failure");
+                }
+                return super.batchUpdate(sql, batchArgs, batchSize, pss);
+            }
+        };
+    }
+
+    private void start(AdoptionHistoryService service) {
+        service.start();
+        startedServices.add(service);
+    }
+
+    private int rows(long adoptionId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM adoption_status_history WHERE adoption_id = ?",
+                Integer.class, adoptionId);
+    }
+
+    private void awaitRows(long adoptionId, int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (rows(adoptionId) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, rows(adoptionId));
+    }
+}
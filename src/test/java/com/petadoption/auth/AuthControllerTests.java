@@ -1,8 +1,11 @@
 package com.petadoption.auth;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.petadoption.dto.auth.LoginDTO;
 import com.petadoption.dto.auth.RegisterDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -10,6 +13,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Base64;
+import java.util.Map;
+
+import static com.petadoption.querybudget.QueryBudgetMatchers.withinQueryBudget;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -23,6 +35,9 @@ public class AuthControllerTests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void shouldRegisterUserSuccessfully() throws Exception {
         // Crear un DTO válido para la prueba
@@ -37,6 +52,7 @@ public class AuthControllerTests {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(registerDTO)))
                 .andExpect(status().isCreated()) // Respuesta esperada: 201 Created
+                .andExpect(withinQueryBudget())
                 .andExpect(jsonPath("$.id").exists()) // Verificar que el ID del usuario sea parte de la respuesta
                 .andExpect(jsonPath("$.username").value("new_user"))
                 .andExpect(jsonPath("$.roles").isArray()); // Los roles del usuario deben ser devueltos en un array
@@ -63,6 +79,81 @@ public class AuthControllerTests {
                 .andExpect(jsonPath("$.phone").value("El número de teléfono es obligatorio.")); // Validar el error específico de phone
     }
 
+    @Test
+    void shouldAttributeConnectionUsageToServiceMethodAndRequest() throws Exception {
+        String username = "pool_" + System.nanoTime();
+        RegisterDTO registerDTO = new RegisterDTO();
+        registerDTO.setUsername(username);
+        registerDTO.setPassword("password123");
+        registerDTO.setName("Pool User");
+        registerDTO.setEmail(username + "@example.com");
+        registerDTO.setPhone("123456789");
+
+        mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerDTO)))
+                .andExpect(status().isCreated());
+
+        Timer hold = meterRegistry.find("db.connection.hold").tag("method", "UserService.createUser").timer();
+        assertNotNull(hold);
+        assertTrue(hold.count() > 0);
+        assertNotNull(meterRegistry.find("db.pool.request.wait").tag("uri", "/api/auth/register").timer());
+        assertNotNull(meterRegistry.find("db.pool.saturation").gauge());
+    }
+
+    @Test
+    void shouldCountLoginOutcomesAndTimeTheirPhases() throws Exception {
+        double succeeded = meterRegistry.counter("logins", "outcome", "success").count();
+        double failed = meterRegistry.counter("logins", "outcome", "failure").count();
+
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setUsername("salome");
+        loginDTO.setPassword("password123");
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDTO)))
+                .andExpect(status().isOk());
+
+        loginDTO.setPassword("wrong_password");
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDTO)))
+                .andExpect(status().isUnauthorized());
+
+        assertEquals(succeeded + 1, meterRegistry.counter("logins", "outcome", "success").count());
+        assertEquals(failed + 1, meterRegistry.counter("logins", "outcome", "failure").count());
+        Timer authenticate = meterRegistry.find("service.method").tags("class", "UserService", "method", "authenticate", "exception", "none").timer();
+        assertNotNull(authenticate);
+        assertTrue(authenticate.count() > 0);
+        assertNotNull(meterRegistry.find("http.server.serialization").tag("uri", "/api/auth/login").timer());
+    }
+
+    @Test
+    void shouldReportUnknownUsernameAsAvailable() throws Exception {
+        mockMvc.perform(get("/api/auth/availability")
+                        .param("username", "unused_" + System.nanoTime()))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget())
+                .andExpect(jsonPath("$.usernameAvailable").value(true))
+                .andExpect(jsonPath("$.emailAvailable").doesNotExist());
+    }
+
+    @Test
+    void shouldRequireUsernameOrEmailForAvailability() throws Exception {
+        mockMvc.perform(get("/api/auth/availability"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void shouldPublishPublicSigningKeys() throws Exception {
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget())
+                .andExpect(jsonPath("$.keys[0].kid").value("rsa-key"))
+                .andExpect(jsonPath("$.keys[0].alg").value("RS256"))
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist());
+    }
+
     @Test
     void shouldLoginUserSuccessfully() throws Exception {
         // Crear credenciales de usuario válidas
@@ -74,10 +165,65 @@ public class AuthControllerTests {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(loginDTO)))
                 .andExpect(status().isOk()) // Respuesta esperada: 200 OK
+                .andExpect(withinQueryBudget())
                 .andExpect(jsonPath("$.accessToken").exists()) // El accessToken debe estar presente en la respuesta
                 .andExpect(jsonPath("$.refreshToken").exists()); // El refreshToken debe estar presente en la respuesta
     }
 
+    @Test
+    void shouldIssueTheSameRolesInAccessAndRefreshTokens() throws Exception {
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setUsername("salome");
+        loginDTO.setPassword("password123");
+
+        String loginResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDTO)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode accessRoles = claims(objectMapper.readTree(loginResponse).get("accessToken").asText()).get("roles");
+        JsonNode refreshRoles = claims(objectMapper.readTree(loginResponse).get("refreshToken").asText()).get("roles");
+
+        assertEquals(accessRoles, refreshRoles);
+        assertFalse(accessRoles.isEmpty());
+        accessRoles.forEach(role -> assertFalse(role.asText().startsWith("ROLE_"), "Role with prefix: " + role));
+    }
+
+    @Test
+    void shouldRotateRefreshTokenAndRejectReuse() throws Exception {
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setUsername("salome");
+        loginDTO.setPassword("password123");
+
+        String loginResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDTO)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String refreshToken = objectMapper.readTree(loginResponse).get("refreshToken").asText();
+        String refreshRequest = objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken));
+
+        String refreshResponse = mockMvc.perform(post("/api/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(refreshRequest))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget())
+                .andExpect(jsonPath("$.accessToken").exists())
+                .andExpect(jsonPath("$.refreshToken").exists())
+                .andReturn().getResponse().getContentAsString();
+        String rotatedToken = objectMapper.readTree(refreshResponse).get("refreshToken").asText();
+
+        // Reusing the first token revokes the family, so the rotated one stops working too
+        mockMvc.perform(post("/api/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(refreshRequest))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/token/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("refreshToken", rotatedToken))))
+                .andExpect(status().isForbidden());
+    }
+
     @Test
     void shouldFailToLoginWithInvalidData() throws Exception {
         // Login con credenciales inválidas
@@ -91,4 +237,31 @@ public class AuthControllerTests {
                 .andExpect(status().isUnauthorized()) // Respuesta esperada: 401 Unauthorized
                 .andExpect(jsonPath("$.error").value("User not found with username: nonexistent_user")); // Cambiar para reflejar el mensaje real
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldThrottleLoginAfterRepeatedFailures() throws Exception {
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setUsername("throttled_" + System.nanoTime());
+        loginDTO.setPassword("wrongpassword");
+        String content = objectMapper.writeValueAsString(loginDTO);
+
+        // The default limit is 5 failures per username
+        for (int attempt = 0; attempt < 5; attempt++) {
+            mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(content))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+
+    // The payload of a JWT, read without verifying its signature
+    private JsonNode claims(String token) throws Exception {
+        return objectMapper.readTree(Base64.getUrlDecoder().decode(token.split("\\.")[1]));
+    }
+}
@@ -0,0 +1,209 @@
+package com.petadoption.auth;
+
+import com.petadoption.controller.AuthController;
+import com.petadoption.customexceptions.GlobalExceptionHandler;
+import com.petadoption.customexceptions.auth.HashingCapacityExceededException;
+import com.petadoption.dto.UserProfile;
+import com.petadoption.model.enums.Role;
+import com.petadoption.repository.UserRepository;
+import com.petadoption.security.LoginThrottle;
+import com.petadoption.security.UserPrincipal;
+import com.petadoption.service.JwtService;
+import com.petadoption.service.PasswordHashingService;
+import com.petadoption.service.PetService;
+import com.petadoption.service.UserAvailabilityService;
+import com.petadoption.service.UserProfileCache;
+import com.petadoption.service.UserPurgeService;
+import com.petadoption.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The bounded hashing executor with a single thread, a one-slot queue and an encoder that
+ * blocks until the test releases it: a full queue is rejected right away (429 on login),
+ * a hash that does not finish in time is abandoned by its caller but keeps its thread, and
+ * a login with a hash of another cost triggers a rehash.
+ */
+public class PasswordHashingServiceTests {
+
+    private static final BCryptPasswordEncoder CHEAP_ENCODER = new BCryptPasswordEncoder(4);
+
+    private final List<PasswordHashingService> services = new ArrayList<>();
+    private final BlockingEncoder blockingEncoder = new BlockingEncoder();
+
+    @AfterEach
+    void tearDown() {
+        blockingEncoder.release.countDown();
+        services.forEach(PasswordHashingService::shutdown);
+    }
+
+    @Test
+    void fullQueue_shouldBeRejectedRightAway() {
+        PasswordHashingService service = newService(blockingEncoder, 4, Duration.ofSeconds(5));
+        // One hash on the thread, one in the queue
+        assertTrue(service.encodeInBackground("first", hash -> {}));
+        assertTrue(service.encodeInBackground("second", hash -> {}));
+
+        long start = System.nanoTime();
+        assertThrows(HashingCapacityExceededException.class, () -> service.matches("password", "hash"));
+        assertThrows(HashingCapacityExceededException.class, () -> service.encode("password"));
+        assertFalse(service.encodeInBackground("third", hash -> {}));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 1000, "rejected without waiting");
+    }
+
+    @Test
+    void fullQueueOnLogin_shouldAnswer429WithRetryAfter() throws Exception {
+        PasswordHashingService service = newService(blockingEncoder, 4, Duration.ofSeconds(5));
+        service.encodeInBackground("first", hash -> {});
+        service.encodeInBackground("second", hash -> {});
+
+        UserService userService = mock(UserService.class);
+        when(userService.authenticate("ana", "secret")).thenAnswer(invocation -> {
+            service.matches("secret", CHEAP_ENCODER.encode("secret"));
+            return new UserPrincipal(1L, "ana", List.of("USER"));
+        });
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LoginThrottle loginThrottle = new LoginThrottle(meterRegistry, Duration.ofMinutes(15), 5, 20, 1000, 4);
+        AuthController authController = new AuthController(mock(JwtService.class), userService,
+                mock(UserAvailabilityService.class), loginThrottle, meterRegistry);
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(authController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"ana\",\"password\":\"secret\"}"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+        // Saturation is not the client's fault, so it does not count as a failed login
+        assertEquals(0, meterRegistry.get("logins").tag("outcome", "failure").counter().count());
+    }
+
+    @Test
+    void slowHash_shouldTimeOutButKeepItsThread() throws InterruptedException {
+        PasswordHashingService service = newService(blockingEncoder, 4, Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        assertThrows(HashingCapacityExceededException.class, () -> service.matches("password", "hash"));
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() >= 200);
+
+        // The caller gave up, but BCrypt ignores the interrupt: the hash still holds the only thread
+        assertEquals(1, blockingEncoder.running.get());
+        assertTrue(service.encodeInBackground("queued", hash -> {}));
+        assertFalse(service.encodeInBackground("rejected", hash -> {}));
+
+        blockingEncoder.release.countDown();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (blockingEncoder.completed.get() < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(2, blockingEncoder.completed.get());
+    }
+
+    @Test
+    void hashOfAnotherCost_shouldBeReplacedOnLogin() {
+        PasswordHashingService service = newService(new BCryptPasswordEncoder(5), 5, Duration.ofSeconds(5));
+        String oldHash = CHEAP_ENCODER.encode("secret");
+        UserRepository userRepository = mock(UserRepository.class);
+        UserProfileCache userProfileCache = mock(UserProfileCache.class);
+        when(userProfileCache.getByUsername("ana"))
+                .thenReturn(Optional.of(new UserProfile(7L, "ana", oldHash, Role.maskOf(Set.of(Role.USER)))));
+        when(userRepository.updatePasswordHash(eq(7L), eq(oldHash), anyString())).thenReturn(1);
+        UserService userService = newUserService(userRepository, service, userProfileCache);
+
+        UserPrincipal principal = userService.authenticate("ana", "secret");
+
+        assertEquals(7L, principal.getId());
+        verify(userRepository, timeout(5000)).updatePasswordHash(eq(7L), eq(oldHash),
+                argThat(newHash -> newHash.startsWith("$2a$05$") && CHEAP_ENCODER.matches("secret", newHash)));
+        verify(userProfileCache, timeout(5000)).invalidate("ana");
+    }
+
+    @Test
+    void hashOfTheConfiguredCost_shouldBeKept() {
+        PasswordHashingService service = newService(CHEAP_ENCODER, 4, Duration.ofSeconds(5));
+        UserRepository userRepository = mock(UserRepository.class);
+        UserProfileCache userProfileCache = mock(UserProfileCache.class);
+        when(userProfileCache.getByUsername("ana"))
+                .thenReturn(Optional.of(new UserProfile(7L, "ana", CHEAP_ENCODER.encode("secret"), Role.maskOf(Set.of(Role.USER)))));
+
+        newUserService(userRepository, service, userProfileCache).authenticate("ana", "secret");
+
+        assertFalse(service.needsRehash(CHEAP_ENCODER.encode("secret")));
+        verify(userRepository, never()).updatePasswordHash(anyLong(), anyString(), anyString());
+    }
+
+    // One hashing thread and a one-slot queue
+    private PasswordHashingService newService(PasswordEncoder encoder, int strength, Duration waitTimeout) {
+        PasswordHashingService service = new PasswordHashingService(encoder, new SimpleMeterRegistry(), strength, 1, 1, waitTimeout);
+        services.add(service);
+        return service;
+    }
+
+    private static UserService newUserService(UserRepository userRepository, PasswordHashingService service,
+                                              UserProfileCache userProfileCache) {
+        return new UserService(userRepository, mock(PetService.class), service, mock(UserAvailabilityService.class),
+                userProfileCache, mock(UserPurgeService.class));
+    }
+
+    // Blocks every hash until released and, like BCrypt, does not stop when interrupted
+    private static final class BlockingEncoder implements PasswordEncoder {
+
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger completed = new AtomicInteger();
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            block();
+            return CHEAP_ENCODER.encode(rawPassword);
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            block();
+            return false;
+        }
+
+        private void block() {
+            running.incrementAndGet();
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    release.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            running.decrementAndGet();
+            completed.incrementAndGet();
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.petadoption.auth;
+
+import com.petadoption.dto.token.TokenPair;
+import com.petadoption.repository.RevokedRefreshTokenRepository;
+import com.petadoption.security.JwtSigningKeys;
+import com.petadoption.service.JwtService;
+import com.petadoption.service.RefreshTokenRevocationService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Refresh token rotation on an in-memory H2 database, seen from two instances of the
+ * application: the context's JwtService and a second one with its own revocation filter,
+ * sharing the same table. A family revoked by one instance must be refused by the other
+ * even though its filter never saw the revocation.
+ */
+@SpringBootTest(properties = {
+        "server.port=0",
+        "management.server.port=0",
+        "spring.datasource.url=jdbc:h2:mem:refresh-token-rotation;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class RefreshTokenRotationTests {
+
+    private static final List<String> ROLES = List.of("USER");
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private RefreshTokenRevocationService revocationService;
+
+    @Autowired
+    private RevokedRefreshTokenRepository revokedRefreshTokenRepository;
+
+    @Autowired
+    private JwtEncoder jwtEncoder;
+
+    @Autowired
+    private JwtDecoder jwtDecoder;
+
+    @Autowired
+    private JwtSigningKeys signingKeys;
+
+    // The other instance, with a filter of its own loaded before each test
+    private JwtService otherInstance;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        RefreshTokenRevocationService otherRevocations =
+                new RefreshTokenRevocationService(revokedRefreshTokenRepository, new SimpleMeterRegistry(), 10_000, 0.01);
+        otherRevocations.loadFilter();
+        awaitLoaded(otherRevocations);
+        awaitLoaded(revocationService);
+        otherInstance = new JwtService(jwtEncoder, jwtDecoder, signingKeys, otherRevocations, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void refresh_shouldRotateTheRefreshToken() {
+        String refreshToken = jwtService.generateRefreshToken(1L, "rotating_user", ROLES);
+
+        TokenPair first = jwtService.refreshTokens(refreshToken);
+        TokenPair second = otherInstance.refreshTokens(first.refreshToken());
+
+        assertNotEquals(refreshToken, first.refreshToken());
+        assertNotEquals(first.refreshToken(), second.refreshToken());
+        assertNotNull(second.accessToken());
+    }
+
+    @Test
+    void reusedToken_shouldRevokeTheFamilyOnEveryInstance() {
+        String refreshToken = jwtService.generateRefreshToken(1L, "reused_user", ROLES);
+        TokenPair rotated = jwtService.refreshTokens(refreshToken);
+
+        JwtException reuse = assertThrows(JwtException.class, () -> jwtService.refreshTokens(refreshToken));
+        assertEquals("Refresh token has already been used", reuse.getMessage());
+
+        // The rotated token belongs to the revoked family
+        JwtException revoked = assertThrows(JwtException.class, () -> otherInstance.refreshTokens(rotated.refreshToken()));
+        assertEquals("Refresh token has been revoked", revoked.getMessage());
+    }
+
+    @Test
+    void tokenUsedOnAnotherInstance_shouldBeDetectedAsReuse() {
+        String refreshToken = jwtService.generateRefreshToken(1L, "copied_user", ROLES);
+        otherInstance.refreshTokens(refreshToken);
+
+        JwtException reuse = assertThrows(JwtException.class, () -> jwtService.refreshTokens(refreshToken));
+        assertEquals("Refresh token has already been used", reuse.getMessage());
+    }
+
+    @Test
+    void familyRevokedOnAnotherInstance_shouldBeRefused() {
+        String refreshToken = jwtService.generateRefreshToken(1L, "logged_out_user", ROLES);
+        TokenPair rotated = jwtService.refreshTokens(refreshToken);
+
+        jwtService.revokeRefreshToken(rotated.refreshToken());
+
+        JwtException revoked = assertThrows(JwtException.class, () -> otherInstance.refreshTokens(rotated.refreshToken()));
+        assertEquals("Refresh token has been revoked", revoked.getMessage());
+        // Refused without being marked as used, so a retry is not taken for a reuse either
+        JwtException retried = assertThrows(JwtException.class, () -> otherInstance.refreshTokens(rotated.refreshToken()));
+        assertEquals("Refresh token has been revoked", retried.getMessage());
+    }
+
+    private static void awaitLoaded(RefreshTokenRevocationService service) throws InterruptedException {
+        // The filters are loaded in the background
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!service.isLoaded() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(service.isLoaded());
+    }
+}
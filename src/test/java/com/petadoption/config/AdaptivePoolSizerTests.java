@@ -0,0 +1,103 @@
+package com.petadoption.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The resizing decision of the adaptive pool sizer on made-up windows, without a pool: when it
+ * grows, when it shrinks, the size bounds, and how the baseline hold time drifts.
+ */
+public class AdaptivePoolSizerTests {
+
+    // Pools between 5 and 30 connections, steps of 2, 10 ms target wait, 1.5x latency tolerance, 20 samples
+    private final AdaptivePoolSizer sizer = new AdaptivePoolSizer(null, 5, 30, 2, Duration.ofMillis(10), 1.5, 20);
+
+    @Test
+    void longWaits_shouldGrowThePool() {
+        assertEquals(12, sizer.target("main", 10, window(25, 5, 0, 10)));
+    }
+
+    @Test
+    void timeouts_shouldGrowThePoolEvenWithShortWaits() {
+        assertEquals(12, sizer.target("main", 10, window(1, 5, 3, 10)));
+    }
+
+    @Test
+    void negligibleWaitsWithUnusedConnections_shouldShrinkThePool() {
+        assertEquals(8, sizer.target("main", 10, window(1, 5, 0, 8)));
+        // The busiest moment needed more than current - step connections
+        assertEquals(10, sizer.target("main", 10, window(1, 5, 0, 9)));
+    }
+
+    @Test
+    void waitsBetweenThresholds_shouldKeepTheSize() {
+        assertEquals(10, sizer.target("main", 10, window(5, 5, 0, 2)));
+    }
+
+    @Test
+    void slowerHolds_shouldShrinkThePoolEvenWhenRequestsWait() {
+        sizer.target("main", 10, window(5, 10, 0, 10));
+
+        // The database answers twice as slow: more connections would only queue inside it
+        assertEquals(8, sizer.target("main", 10, window(50, 20, 4, 10)));
+    }
+
+    @Test
+    void target_shouldStayWithinTheBounds() {
+        assertEquals(30, sizer.target("main", 30, window(25, 5, 0, 30)));
+        assertEquals(30, sizer.target("main", 29, window(25, 5, 0, 29)));
+        assertEquals(5, sizer.target("main", 5, window(1, 5, 0, 0)));
+        assertEquals(5, sizer.target("main", 6, window(1, 5, 0, 0)));
+    }
+
+    @Test
+    void smallSample_shouldBeIgnored() {
+        ConnectionPoolMonitor.Window fewAcquisitions = new ConnectionPoolMonitor.Window(19, 100, 19, 5, 2, 10);
+
+        assertEquals(10, sizer.target("main", 10, fewAcquisitions));
+        assertTrue(Double.isNaN(sizer.baselineHoldMs("main")));
+    }
+
+    @Test
+    void baseline_shouldDriftUpUntilALastingSlowdownIsLearned() {
+        sizer.target("main", 20, window(5, 10, 0, 20));
+        assertEquals(10, sizer.baselineHoldMs("main"), 1e-9);
+
+        // Holds double for good: the baseline rises 5% per interval, so after five shrinks
+        // the new hold time is within the tolerance and the size is left alone
+        for (int interval = 1; interval <= 5; interval++) {
+            assertEquals(18, sizer.target("main", 20, window(5, 20, 0, 20)), "interval " + interval);
+        }
+        assertEquals(20, sizer.target("main", 20, window(5, 20, 0, 20)));
+        assertEquals(10 * Math.pow(1.05, 6), sizer.baselineHoldMs("main"), 1e-9);
+    }
+
+    @Test
+    void fasterHolds_shouldLowerTheBaselineRightAway() {
+        sizer.target("main", 20, window(5, 10, 0, 20));
+
+        sizer.target("main", 20, window(5, 4, 0, 20));
+
+        assertEquals(4, sizer.baselineHoldMs("main"), 1e-9);
+    }
+
+    @Test
+    void eachPool_shouldHaveItsOwnBaseline() {
+        sizer.target("main", 10, window(5, 10, 0, 10));
+        sizer.target("replica", 10, window(5, 40, 0, 10));
+
+        assertEquals(10, sizer.baselineHoldMs("main"), 1e-9);
+        assertEquals(40, sizer.baselineHoldMs("replica"), 1e-9);
+        // Slow for the primary, normal for the replica
+        assertEquals(8, sizer.target("main", 10, window(5, 40, 0, 10)));
+        assertEquals(10, sizer.target("replica", 10, window(5, 40, 0, 10)));
+    }
+
+    // An interval with enough acquisitions to be taken into account
+    private static ConnectionPoolMonitor.Window window(double averageWaitMs, double averageHoldMs, long timeouts, int peakBorrowed) {
+        return new ConnectionPoolMonitor.Window(100, averageWaitMs, 100, averageHoldMs, timeouts, peakBorrowed);
+    }
+}
@@ -0,0 +1,142 @@
+package com.petadoption.nativeimage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Smoke tests run against the native executable built with {@code ./mvnw -Pnative native:compile}.
+ * They only run when {@code native.binary} points to the executable, e.g.
+ * {@code ./mvnw test -Dtest=NativeSmokeTests -Dnative.binary=target/pet-adoption}, and cover the
+ * paths that depend on native-image hints: JPA entities and query projections, JWT signing and
+ * verification, and the key resources.
+ */
+@EnabledIfSystemProperty(named = "native.binary", matches = ".+")
+public class NativeSmokeTests {
+
+    private static final int PORT = Integer.getInteger("native.port", 17777);
+    private static final int MANAGEMENT_PORT = Integer.getInteger("native.management-port", 17778);
+
+    private static final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static Process application;
+
+    @BeforeAll
+    static void startBinary() throws Exception {
+        application = new ProcessBuilder(System.getProperty("native.binary"),
+                "--server.port=" + PORT,
+                "--management.server.port=" + MANAGEMENT_PORT,
+                "--spring.jpa.show-sql=false")
+                .redirectErrorStream(true)
+                .start();
+
+        // Keeps draining the output after startup so the application never blocks on a full pipe
+        CompletableFuture<Boolean> started = new CompletableFuture<>();
+        Thread drain = new Thread(() -> {
+            try (BufferedReader output = new BufferedReader(new InputStreamReader(application.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = output.readLine()) != null) {
+                    System.out.println(line);
+                    if (line.contains("Started PetAdoptionApplication")) {
+                        started.complete(true);
+                    }
+                }
+            } catch (IOException e) {
+                // The process was stopped
+            }
+            started.complete(false);
+        }, "native-output");
+        drain.setDaemon(true);
+        drain.start();
+
+        assertTrue(started.get(60, TimeUnit.SECONDS), "The native executable did not start");
+    }
+
+    @AfterAll
+    static void stopBinary() throws InterruptedException {
+        if (application != null) {
+            application.destroy();
+            application.waitFor(30, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void shouldReportHealthUp() throws Exception {
+        HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create("http://localhost:" + MANAGEMENT_PORT + "/actuator/health")));
+
+        assertEquals(200, response.statusCode());
+        assertEquals("UP", objectMapper.readTree(response.body()).get("status").asText());
+    }
+
+    @Test
+    void shouldPublishSigningKeys() throws Exception {
+        HttpResponse<String> response = send(request("/.well-known/jwks.json"));
+
+        assertEquals(200, response.statusCode());
+        assertEquals("rsa-key", objectMapper.readTree(response.body()).get("keys").get(0).get("kid").asText());
+    }
+
+    @Test
+    void shouldQueryUsersThroughProjections() throws Exception {
+        HttpResponse<String> response = send(request("/api/auth/availability?username=unused_" + System.nanoTime()));
+
+        assertEquals(200, response.statusCode());
+        assertTrue(objectMapper.readTree(response.body()).get("usernameAvailable").asBoolean());
+    }
+
+    @Test
+    void shouldRegisterLoginAndCallProtectedEndpoint() throws Exception {
+        String username = "native_" + System.nanoTime();
+        HttpResponse<String> registered = send(post("/api/auth/register", Map.of(
+                "username", username,
+                "password", "password123",
+                "name", "Native Smoke",
+                "email", username + "@example.com",
+                "phone", "123456789")));
+        assertEquals(201, registered.statusCode());
+
+        HttpResponse<String> login = send(post("/api/auth/login", Map.of("username", username, "password", "password123")));
+        assertEquals(200, login.statusCode());
+        JsonNode tokens = objectMapper.readTree(login.body());
+
+        HttpResponse<String> pets = send(request("/api/pets")
+                .header("Authorization", "Bearer " + tokens.get("accessToken").asText()));
+        assertEquals(200, pets.statusCode());
+
+        HttpResponse<String> anonymous = send(request("/api/pets"));
+        assertEquals(401, anonymous.statusCode());
+    }
+
+    private static HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + path)).timeout(Duration.ofSeconds(10));
+    }
+
+    private static HttpRequest.Builder post(String path, Map<String, String> body) throws Exception {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,201 @@
+package com.petadoption.querybudget;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.petadoption.dto.auth.LoginDTO;
+import com.petadoption.dto.auth.RegisterDTO;
+import com.petadoption.model.Adoption;
+import com.petadoption.model.Pet;
+import com.petadoption.model.TypeOfPet;
+import com.petadoption.model.User;
+import com.petadoption.model.enums.PetStatus;
+import com.petadoption.repository.AdoptionRepository;
+import com.petadoption.repository.PetRepository;
+import com.petadoption.repository.TypeOfPetRepository;
+import com.petadoption.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static com.petadoption.querybudget.QueryBudgetMatchers.withinQueryBudget;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query budgets of the pet, adoption and user endpoints, on an in-memory H2 database with
+ * several rows per listing, so an N+1 load shows up as a budget overrun. The second-level
+ * and query caches are emptied before every request, so the counts are those of a cold cache.
+
+ * The controller tests of these endpoints mock the services and issue no SQL, so the budgets
+ * are checked here; the auth endpoints are checked in AuthControllerTests.
+ */
+@SpringBootTest(properties = {
+        "server.port=0",
+        "management.server.port=0",
+        "spring.datasource.url=jdbc:h2:mem:query-budget;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.admin-key=query-budget-admin-key"
+})
+@AutoConfigureMockMvc
+public class EndpointQueryBudgetTests {
+
+    private static final int ROWS = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TypeOfPetRepository typeOfPetRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdoptionRepository adoptionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private String adminToken;
+    private Long adminId;
+    private TypeOfPet type;
+    private final List<Pet> pets = new ArrayList<>();
+    private final List<Adoption> adoptions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        String username = "budget_" + System.nanoTime();
+        RegisterDTO registerDTO = new RegisterDTO();
+        registerDTO.setUsername(username);
+        registerDTO.setPassword("password123");
+        registerDTO.setName("Budget Admin");
+        registerDTO.setEmail(username + "@example.com");
+        registerDTO.setPhone("123456789");
+        registerDTO.setAdminKey("query-budget-admin-key");
+        String registerResponse = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerDTO)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        adminId = objectMapper.readTree(registerResponse).get("id").asLong();
+
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setUsername(username);
+        loginDTO.setPassword("password123");
+        String loginResponse = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDTO)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        adminToken = "Bearer " + objectMapper.readTree(loginResponse).get("accessToken").asText();
+
+        // Every pet and adopter is a different row, so loading them one by one costs one select each
+        for (int i = 0; i < ROWS; i++) {
+            type = typeOfPetRepository.save(new TypeOfPet("Type " + i + " " + username, null));
+            Pet pet = petRepository.save(new Pet(null, "Pet " + i, i, PetStatus.AVAILABLE, type, "Madrid"));
+            User adopter = new User();
+            adopter.setUsername(username + "_" + i);
+            adopter.setEmail(username + "_" + i + "@example.com");
+            adopter.setPassword("password123");
+            adopter.setName("Adopter " + i);
+            adopter.setPhone("123456789");
+            User owner = i == 0 ? userRepository.findById(adminId).orElseThrow() : userRepository.save(adopter);
+            pets.add(pet);
+            adoptions.add(adoptionRepository.save(new Adoption(null, pet, owner, new Date(), "PENDING")));
+        }
+        evictSecondLevelCache();
+    }
+
+    @Test
+    void getPets_shouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/pets").header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+        mockMvc.perform(get("/api/pets").param("location", "Madrid").header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+    }
+
+    @Test
+    void getPetById_shouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/pets/{id}", pets.get(0).getId()).header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+    }
+
+    @Test
+    void registerPet_shouldStayWithinBudget() throws Exception {
+        Map<String, Object> pet = Map.of("name", "Budget", "age", 2, "status", "AVAILABLE", "location", "Madrid",
+                "typeOfPet", Map.of("id", type.getId()));
+        mockMvc.perform(post("/api/pets")
+                        .header(HttpHeaders.AUTHORIZATION, adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(pet)))
+                .andExpect(status().isCreated())
+                .andExpect(withinQueryBudget());
+    }
+
+    @Test
+    void getAllAdoptions_shouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/adoption").header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+    }
+
+    @Test
+    void getAdoptionById_shouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/adoption/{id}", adoptions.get(0).getAdoptionId()).header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+    }
+
+    @Test
+    void approveAndRejectAdoption_shouldStayWithinBudget() throws Exception {
+        Long adoptionId = adoptions.get(1).getAdoptionId();
+        mockMvc.perform(post("/api/adoption/{id}/approve", adoptionId).header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+        evictSecondLevelCache();
+        mockMvc.perform(post("/api/adoption/{id}/reject", adoptionId).header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+    }
+
+    @Test
+    void getUsers_shouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/users").header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(withinQueryBudget());
+        mockMvc.perform(get("/api/users/{id}", adminId).header(HttpHeaders.AUTHORIZATION, adminToken))
+                .andExpect(status().isOk())
+                .andExpect(withinQueryBudget());
+    }
+
+    // Also empties the query cache regions (the cached catalog ids), which JPA's evictAll() need not do
+    private void evictSecondLevelCache() {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+}
@@ -0,0 +1,38 @@
+package com.petadoption.querybudget;
+
+import com.petadoption.config.QueryBudgetFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MockMvc matchers on the number of SQL statements a request issued, as counted by
+ * QueryBudgetFilter. They need the application filters, i.e. @SpringBootTest with
+ * @AutoConfigureMockMvc.
+ */
+public final class QueryBudgetMatchers {
+
+    private QueryBudgetMatchers() {}
+
+    // The request stayed within the budget configured for its endpoint (app.query-budget.*)
+    public static ResultMatcher withinQueryBudget() {
+        return result -> {
+            int statements = attribute(result.getRequest().getAttribute(QueryBudgetFilter.STATEMENTS_ATTRIBUTE));
+            int budget = attribute(result.getRequest().getAttribute(QueryBudgetFilter.BUDGET_ATTRIBUTE));
+            assertTrue(statements <= budget, "Request issued " + statements + " SQL statements, over its budget of " + budget);
+        };
+    }
+
+    public static ResultMatcher statementCountAtMost(int maximum) {
+        return result -> {
+            int statements = attribute(result.getRequest().getAttribute(QueryBudgetFilter.STATEMENTS_ATTRIBUTE));
+            assertTrue(statements <= maximum, "Request issued " + statements + " SQL statements, expected at most " + maximum);
+        };
+    }
+
+    private static int attribute(Object value) {
+        assertNotNull(value, "No statement count on the request, is QueryBudgetFilter registered?");
+        return (Integer) value;
+    }
+}
@@ -0,0 +1,76 @@
+package com.petadoption.replica;
+
+import com.petadoption.config.ReadReplicaDataSource;
+import com.petadoption.security.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Routing tests run against the local primary and streaming replica of compose-replicas.yml.
+ * They only run when {@code replicas.test} is set, e.g.
+ * {@code docker compose -f compose-replicas.yml up -d} and then
+ * {@code ./mvnw test -Dtest=ReadReplicaRoutingTests -Dreplicas.test=true}. Every check asks the
+ * server whether it is in recovery, which is only true on the replica.
+ */
+@SpringBootTest
+@ActiveProfiles("replicas")
+@EnabledIfSystemProperty(named = "replicas.test", matches = "true")
+public class ReadReplicaRoutingTests {
+
+    private static final String IN_RECOVERY = "SELECT pg_is_in_recovery()";
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReadReplicaDataSource readReplicaDataSource;
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldSendReadOnlyTransactionsToTheReplica() {
+        readReplicaDataSource.checkReplicas();
+
+        assertTrue(inRecovery(true));
+        assertFalse(inRecovery(false));
+    }
+
+    @Test
+    void shouldReadFromThePrimaryAfterOwnWrite() {
+        readReplicaDataSource.checkReplicas();
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(
+                new UserPrincipal(Long.MAX_VALUE, "replica_writer", List.of("ROLE_USER")), null, "ROLE_USER"));
+        assertTrue(inRecovery(true));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> jdbcTemplate.queryForObject("SELECT 1", Integer.class));
+
+        assertFalse(inRecovery(true));
+        SecurityContextHolder.clearContext();
+        assertTrue(inRecovery(true));
+    }
+
+    private boolean inRecovery(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> jdbcTemplate.queryForObject(IN_RECOVERY, Boolean.class)));
+    }
+}
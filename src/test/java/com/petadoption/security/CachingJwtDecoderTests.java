@@ -0,0 +1,172 @@
+package com.petadoption.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.petadoption.config.JwtConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The verified token cache in front of a stub decoder that counts its calls. The wall clock
+ * (compared with "exp") and the cache's ticker are moved by hand, separately, so the expiry
+ * of the entries and the check of "exp" on a hit are tested on their own.
+ */
+public class CachingJwtDecoderTests {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    private final MutableClock clock = new MutableClock();
+    private final AtomicInteger decodes = new AtomicInteger();
+    private final Map<String, Instant> expirations = new HashMap<>();
+    private long tickerNanos;
+
+    // Decodes tokens registered with their expiration, rejects any other
+    private final JwtDecoder stub = token -> {
+        decodes.incrementAndGet();
+        if (!expirations.containsKey(token)) {
+            throw new BadJwtException("Unknown token");
+        }
+        Jwt.Builder jwt = Jwt.withTokenValue(token).header("alg", "RS256").subject("ana");
+        Instant expiresAt = expirations.get(token);
+        return expiresAt != null ? jwt.expiresAt(expiresAt).build() : jwt.build();
+    };
+
+    @Test
+    void repeatedToken_shouldBeDecodedOnce() {
+        CachingJwtDecoder decoder = newDecoder(Duration.ofHours(1));
+        expirations.put("token", NOW.plusSeconds(60));
+
+        Jwt first = decoder.decode("token");
+        Jwt second = decoder.decode("token");
+
+        assertSame(first, second);
+        assertEquals(1, decodes.get());
+    }
+
+    @Test
+    void entry_shouldExpireWithTheToken() {
+        CachingJwtDecoder decoder = newDecoder(Duration.ofHours(1));
+        expirations.put("token", NOW.plusSeconds(60));
+        decoder.decode("token");
+
+        // Only the cache's clock moves: the entry itself must be gone at exp
+        advanceTicker(Duration.ofSeconds(59));
+        decoder.decode("token");
+        assertEquals(1, decodes.get());
+        advanceTicker(Duration.ofSeconds(1));
+        decoder.decode("token");
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void entry_shouldNotOutliveTheMaximumTimeToLive() {
+        CachingJwtDecoder decoder = newDecoder(Duration.ofSeconds(10));
+        expirations.put("token", NOW.plusSeconds(3600));
+        decoder.decode("token");
+
+        advanceTicker(Duration.ofSeconds(10));
+        decoder.decode("token");
+
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void hit_shouldBeCheckedAgainstExp() {
+        CachingJwtDecoder decoder = newDecoder(Duration.ofHours(1));
+        expirations.put("token", NOW.plusSeconds(60));
+        decoder.decode("token");
+
+        // The cache still holds the entry, but the token has expired in the meantime
+        clock.instant = NOW.plusSeconds(60);
+        decoder.decode("token");
+
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void failedDecode_shouldNotBeCached() {
+        CachingJwtDecoder decoder = newDecoder(Duration.ofHours(1));
+
+        assertThrows(BadJwtException.class, () -> decoder.decode("forged"));
+        assertThrows(BadJwtException.class, () -> decoder.decode("forged"));
+
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void tokenWithoutExp_shouldNotBeCached() {
+        CachingJwtDecoder decoder = newDecoder(Duration.ofHours(1));
+        expirations.put("token", null);
+
+        decoder.decode("token");
+        decoder.decode("token");
+
+        assertEquals(2, decodes.get());
+    }
+
+    @Test
+    void disabledCache_shouldVerifyEveryToken() throws Exception {
+        JWKSet keys = new JWKSet(new RSAKeyGenerator(2048).keyID("test-key").algorithm(JWSAlgorithm.RS256)
+                .keyUse(KeyUse.SIGNATURE).generate());
+        JwtSigningKeys signingKeys = new JwtSigningKeys(keys, "test-key");
+        JwtConfig jwtConfig = new JwtConfig();
+
+        JwtDecoder uncached = jwtConfig.jwtDecoder(signingKeys, new SimpleMeterRegistry(), false, 100, Duration.ofHours(1));
+        JwtDecoder cached = jwtConfig.jwtDecoder(signingKeys, new SimpleMeterRegistry(), true, 100, Duration.ofHours(1));
+
+        assertFalse(uncached instanceof CachingJwtDecoder);
+        assertInstanceOf(CachingJwtDecoder.class, cached);
+        String token = new NimbusJwtEncoder(new ImmutableJWKSet<>(keys)).encode(JwtEncoderParameters.from(signingKeys.activeHeader(),
+                JwtClaimsSet.builder().subject("ana").expiresAt(Instant.now().plusSeconds(60)).build())).getTokenValue();
+        assertEquals("ana", uncached.decode(token).getSubject());
+        assertEquals("ana", cached.decode(token).getSubject());
+    }
+
+    private CachingJwtDecoder newDecoder(Duration maximumTimeToLive) {
+        return new CachingJwtDecoder(stub, 100, maximumTimeToLive, new SimpleMeterRegistry(), clock, () -> tickerNanos);
+    }
+
+    private void advanceTicker(Duration duration) {
+        tickerNanos += duration.toNanos();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant = NOW;
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.petadoption.security;
+
+import com.petadoption.config.JwtConfig;
+import com.petadoption.config.JwtProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Loading the configured JWT keys and signing with them, on keys generated by the test:
+ * RS256 and ES256 keys sign and verify, a token signed with a key that is no longer active
+ * still verifies by its kid, and a configuration that can not sign fails at startup.
+ */
+public class JwtSigningKeysTests {
+
+    private final JwtConfig jwtConfig = new JwtConfig();
+
+    private final KeyPair rsaKeys = generate("RSA", null);
+    private final KeyPair ecKeys = generate("EC", new ECGenParameterSpec("secp256r1"));
+
+    @Test
+    void rsaKey_shouldSignAndVerify() {
+        JwtSigningKeys signingKeys = jwtConfig.jwtSigningKeys(properties("rsa-1", key("rsa-1", "RS256", rsaKeys, true)));
+
+        Jwt jwt = decoder(signingKeys).decode(sign(signingKeys));
+
+        assertEquals("ana", jwt.getSubject());
+        assertEquals("RS256", jwt.getHeaders().get("alg").toString());
+        assertEquals("rsa-1", jwt.getHeaders().get("kid"));
+    }
+
+    @Test
+    void ecKey_shouldSignAndVerifyWithES256() {
+        JwtSigningKeys signingKeys = jwtConfig.jwtSigningKeys(properties("ec-1", key("ec-1", "ES256", ecKeys, true)));
+
+        Jwt jwt = decoder(signingKeys).decode(sign(signingKeys));
+
+        assertEquals("ana", jwt.getSubject());
+        assertEquals("ES256", jwt.getHeaders().get("alg").toString());
+        assertEquals("ec-1", jwt.getHeaders().get("kid"));
+    }
+
+    @Test
+    void tokenSignedWithTheRetiredKey_shouldStillVerify() {
+        JwtSigningKeys before = jwtConfig.jwtSigningKeys(properties("rsa-1", key("rsa-1", "RS256", rsaKeys, true)));
+        String oldToken = sign(before);
+
+        // Rotated: a new active ES256 key, the old one kept without its private key to verify only
+        JwtSigningKeys after = jwtConfig.jwtSigningKeys(properties("ec-1",
+                key("rsa-1", "RS256", rsaKeys, false), key("ec-1", "ES256", ecKeys, true)));
+        JwtDecoder decoder = decoder(after);
+
+        assertEquals("rsa-1", decoder.decode(oldToken).getHeaders().get("kid"));
+        assertEquals("ec-1", decoder.decode(sign(after)).getHeaders().get("kid"));
+    }
+
+    @Test
+    void publishedKeys_shouldNotContainPrivateParts() {
+        JwtSigningKeys signingKeys = jwtConfig.jwtSigningKeys(properties("ec-1",
+                key("rsa-1", "RS256", rsaKeys, true), key("ec-1", "ES256", ecKeys, true)));
+
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) signingKeys.toPublicJwks().get("keys");
+
+        assertEquals(2, keys.size());
+        keys.forEach(key -> assertFalse(key.containsKey("d"), key::toString));
+    }
+
+    @Test
+    void activeKeyWithoutPrivateKey_shouldFailStartup() {
+        JwtProperties properties = properties("rsa-1", key("rsa-1", "RS256", rsaKeys, false));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> jwtConfig.jwtSigningKeys(properties));
+        assertTrue(e.getMessage().contains("rsa-1"));
+    }
+
+    @Test
+    void unknownActiveKey_shouldFailStartup() {
+        JwtProperties properties = properties("missing", key("rsa-1", "RS256", rsaKeys, true));
+
+        assertThrows(IllegalStateException.class, () -> jwtConfig.jwtSigningKeys(properties));
+    }
+
+    @Test
+    void unsupportedAlgorithm_shouldFailStartup() {
+        JwtProperties properties = properties("ec-1", key("ec-1", "ES384", ecKeys, true));
+
+        assertThrows(IllegalStateException.class, () -> jwtConfig.jwtSigningKeys(properties));
+    }
+
+    private String sign(JwtSigningKeys signingKeys) {
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .subject("ana")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plusSeconds(60))
+                .build();
+        return jwtConfig.jwtEncoder(signingKeys).encode(JwtEncoderParameters.from(signingKeys.activeHeader(), claims)).getTokenValue();
+    }
+
+    private JwtDecoder decoder(JwtSigningKeys signingKeys) {
+        return jwtConfig.jwtDecoder(signingKeys, new SimpleMeterRegistry(), false, 100, Duration.ofHours(1));
+    }
+
+    private static JwtProperties properties(String activeKeyId, JwtProperties.Key... keys) {
+        JwtProperties properties = new JwtProperties();
+        properties.setActiveKeyId(activeKeyId);
+        properties.setKeys(List.of(keys));
+        return properties;
+    }
+
+    private static JwtProperties.Key key(String id, String algorithm, KeyPair keyPair, boolean withPrivateKey) {
+        JwtProperties.Key key = new JwtProperties.Key();
+        key.setId(id);
+        key.setAlgorithm(algorithm);
+        key.setPublicKey(pem("PUBLIC KEY", keyPair.getPublic().getEncoded()));
+        if (withPrivateKey) {
+            key.setPrivateKey(pem("PRIVATE KEY", keyPair.getPrivate().getEncoded()));
+        }
+        return key;
+    }
+
+    // Same layout as the files in resources/keys
+    private static Resource pem(String type, byte[] der) {
+        String content = "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+        return new ByteArrayResource(content.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static KeyPair generate(String algorithm, ECGenParameterSpec spec) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm);
+            if (spec != null) {
+                generator.initialize(spec);
+            } else {
+                generator.initialize(2048);
+            }
+            return generator.generateKeyPair();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.petadoption.security;
+
+import com.petadoption.customexceptions.auth.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Login throttling with a manual clock: the sliding window, the eviction of idle counters
+ * and the bounds of the lock stripes.
+ */
+public class LoginThrottleTests {
+
+    private static final long WINDOW = 10_000;
+    // Aligned with the fixed windows, so the offsets below are easy to follow
+    private static final long START = 100 * WINDOW;
+
+    private long now = START;
+
+    @Test
+    void failuresOverTheLimit_shouldBlockTheUsername() {
+        LoginThrottle throttle = newThrottle(100, 4);
+        failures(throttle, "alice", 3);
+        throttle.checkAllowed("alice", null);
+
+        failures(throttle, "alice", 1);
+
+        LoginThrottledException e = assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("alice", null));
+        assertEquals(WINDOW / 1000, e.getRetryAfterSeconds());
+        // Usernames are not case sensitive
+        assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("ALICE", null));
+        throttle.checkAllowed("bob", null);
+    }
+
+    @Test
+    void previousWindow_shouldWeighLessAsItSlidesOut() {
+        LoginThrottle throttle = newThrottle(100, 4);
+        failures(throttle, "alice", 4);
+
+        // Start of the next fixed window: the previous one still fully overlaps
+        now = START + WINDOW;
+        assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("alice", null));
+
+        // A quarter of it has slid out: 4 * 0.75 = 3 failures
+        now = START + WINDOW + WINDOW / 4;
+        throttle.checkAllowed("alice", null);
+
+        // One more failure in the current window reaches the limit again
+        failures(throttle, "alice", 1);
+        assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("alice", null));
+
+        // Two windows later nothing counts anymore
+        now = START + 3 * WINDOW;
+        failures(throttle, "alice", 3);
+        throttle.checkAllowed("alice", null);
+    }
+
+    @Test
+    void address_shouldHaveItsOwnLimit() {
+        LoginThrottle throttle = newThrottle(100, 4);
+        for (int i = 0; i < 6; i++) {
+            throttle.recordFailure("user" + i, "10.0.0.1");
+        }
+
+        LoginThrottledException e = assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("other", "10.0.0.1"));
+        assertTrue(e.getMessage().contains("address"));
+        throttle.checkAllowed("other", "10.0.0.2");
+    }
+
+    @Test
+    void success_shouldClearTheUsernameButNotTheAddress() {
+        LoginThrottle throttle = newThrottle(100, 4);
+        for (int i = 0; i < 6; i++) {
+            throttle.recordFailure("alice", "10.0.0.1");
+        }
+
+        throttle.recordSuccess("alice");
+
+        throttle.checkAllowed("alice", null);
+        assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("alice", "10.0.0.1"));
+    }
+
+    @Test
+    void idleCounters_shouldBeEvictedAfterTwoWindows() {
+        LoginThrottle throttle = newThrottle(100, 4);
+        failures(throttle, "alice", 1);
+        now += WINDOW;
+        failures(throttle, "bob", 1);
+
+        now = START + 2 * WINDOW - 1;
+        throttle.evictIdle();
+        assertEquals(2, throttle.trackedKeys());
+
+        now = START + 2 * WINDOW;
+        throttle.evictIdle();
+        assertEquals(1, throttle.trackedKeys());
+
+        now = START + 3 * WINDOW;
+        throttle.evictIdle();
+        assertEquals(0, throttle.trackedKeys());
+    }
+
+    @Test
+    void fullStripe_shouldDropTheLeastRecentlyUsedKey() {
+        LoginThrottle throttle = newThrottle(3, 1);
+        failures(throttle, "alice", 4);
+        failures(throttle, "bob", 4);
+        failures(throttle, "carol", 4);
+        // Reading alice makes bob the least recently used key
+        assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("alice", null));
+
+        failures(throttle, "dave", 1);
+
+        assertEquals(3, throttle.trackedKeys());
+        assertThrows(LoginThrottledException.class, () -> throttle.checkAllowed("alice", null));
+        throttle.checkAllowed("bob", null);
+        assertEquals(3, throttle.trackedKeys());
+    }
+
+    @Test
+    void trackedKeys_shouldNeverExceedMaxEntries() {
+        LoginThrottle throttle = newThrottle(64, 16);
+        for (int i = 0; i < 10_000; i++) {
+            throttle.recordFailure("user" + i, null);
+        }
+
+        assertTrue(throttle.trackedKeys() <= 64, () -> "tracked " + throttle.trackedKeys());
+    }
+
+    @Test
+    void stripes_shouldBeRoundedUpToAPowerOfTwo() {
+        assertEquals(1, newThrottle(100, 1).stripeCount());
+        assertEquals(4, newThrottle(100, 3).stripeCount());
+        assertEquals(64, newThrottle(100, 64).stripeCount());
+        assertEquals(128, newThrottle(1000, 65).stripeCount());
+    }
+
+    // Four failures per username and six per address within a ten second window
+    private LoginThrottle newThrottle(int maxEntries, int stripes) {
+        return new LoginThrottle(new SimpleMeterRegistry(), Duration.ofMillis(WINDOW), 4, 6, maxEntries, stripes, () -> now);
+    }
+
+    private static void failures(LoginThrottle throttle, String username, int count) {
+        for (int i = 0; i < count; i++) {
+            throttle.recordFailure(username, null);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.petadoption.security;
+
+import com.petadoption.model.enums.Role;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The shared mappings of the "roles" claim: a repeated claim reuses the same instances, the
+ * claim is normalised the way tokens may carry it, and both maps stop growing at maxEntries.
+ */
+public class RoleClaimAuthoritiesTests {
+
+    @Test
+    void repeatedClaim_shouldReuseTheSameMapping() {
+        RoleClaimAuthorities roleClaimAuthorities = new RoleClaimAuthorities(100);
+
+        RoleClaimAuthorities.Mapping first = roleClaimAuthorities.lookup(List.of("USER", "ADMIN"));
+        // Another token, so another list with the same elements
+        RoleClaimAuthorities.Mapping second = roleClaimAuthorities.lookup(new ArrayList<>(List.of("USER", "ADMIN")));
+
+        assertSame(first, second);
+        assertEquals(List.of("USER", "ADMIN"), first.roles());
+    }
+
+    @Test
+    void knownRoles_shouldMapToTheRoleSingletons() {
+        RoleClaimAuthorities.Mapping mapping = new RoleClaimAuthorities(100).lookup(List.of("USER", "ADMIN"));
+
+        assertSame(Role.USER.getAuthority(), mapping.authorities().get(0));
+        assertSame(Role.ADMIN.getAuthority(), mapping.authorities().get(1));
+    }
+
+    @Test
+    void unknownRole_shouldGetOneInternedAuthority() {
+        RoleClaimAuthorities roleClaimAuthorities = new RoleClaimAuthorities(100);
+
+        GrantedAuthority alone = roleClaimAuthorities.lookup(List.of("AUDITOR")).authorities().get(0);
+        GrantedAuthority withUser = roleClaimAuthorities.lookup(List.of("USER", "AUDITOR")).authorities().get(1);
+
+        assertEquals("ROLE_AUDITOR", alone.getAuthority());
+        assertSame(alone, withUser);
+    }
+
+    @Test
+    void prefixedAndDuplicatedRoles_shouldBeNormalisedAndCached() {
+        RoleClaimAuthorities roleClaimAuthorities = new RoleClaimAuthorities(100);
+
+        RoleClaimAuthorities.Mapping mapping = roleClaimAuthorities.lookup(List.of("ROLE_USER", "USER"));
+
+        assertEquals(List.of("USER"), mapping.roles());
+        assertEquals(List.of(Role.USER.getAuthority()), mapping.authorities());
+        assertSame(mapping, roleClaimAuthorities.lookup(List.of("ROLE_USER", "USER")));
+    }
+
+    @Test
+    void claimWithNullElement_shouldBeCachedUnderTheRawClaim() {
+        RoleClaimAuthorities roleClaimAuthorities = new RoleClaimAuthorities(100);
+
+        RoleClaimAuthorities.Mapping first = roleClaimAuthorities.lookup(Arrays.asList("USER", null));
+        RoleClaimAuthorities.Mapping second = roleClaimAuthorities.lookup(Arrays.asList("USER", null));
+
+        assertEquals(List.of("USER"), first.roles());
+        assertSame(first, second);
+    }
+
+    @Test
+    void nonStringElements_shouldBeSkipped() {
+        RoleClaimAuthorities roleClaimAuthorities = new RoleClaimAuthorities(100);
+
+        RoleClaimAuthorities.Mapping first = roleClaimAuthorities.lookup(List.of(1, "ADMIN", Map.of("name", "USER")));
+        RoleClaimAuthorities.Mapping second = roleClaimAuthorities.lookup(List.of(1, "ADMIN", Map.of("name", "USER")));
+
+        assertEquals(List.of("ADMIN"), first.roles());
+        assertEquals(List.of(Role.ADMIN.getAuthority()), first.authorities());
+        assertSame(first, second);
+        assertTrue(roleClaimAuthorities.lookup(List.of(1, 2)).roles().isEmpty());
+    }
+
+    @Test
+    void missingOrInvalidClaim_shouldMapToNoRoles() {
+        RoleClaimAuthorities roleClaimAuthorities = new RoleClaimAuthorities(100);
+
+        for (Object claim : Arrays.asList(null, "USER", List.of(), Map.of("roles", "USER"))) {
+            RoleClaimAuthorities.Mapping mapping = roleClaimAuthorities.lookup(claim);
+            assertTrue(mapping.roles().isEmpty(), () -> String.valueOf(claim));
+            assertTrue(mapping.authorities().isEmpty(), () -> String.valueOf(claim));
+        }
+    }
+
+    @Test
+    void fullMappings_shouldConvertNewClaimsOnEveryLookup() {
+        RoleClaimAuthorities roleClaimAuthorities = new RoleClaimAuthorities(2);
+        RoleClaimAuthorities.Mapping user = roleClaimAuthorities.lookup(List.of("USER"));
+        RoleClaimAuthorities.Mapping admin = roleClaimAuthorities.lookup(List.of("ADMIN"));
+
+        RoleClaimAuthorities.Mapping first = roleClaimAuthorities.lookup(List.of("USER", "ADMIN"));
+        RoleClaimAuthorities.Mapping second = roleClaimAuthorities.lookup(List.of("USER", "ADMIN"));
+
+        // Still correct, just not shared
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        // The claims cached before the map filled up are still shared
+        assertSame(user, roleClaimAuthorities.lookup(List.of("USER")));
+        assertSame(admin, roleClaimAuthorities.lookup(List.of("ADMIN")));
+    }
+
+    @Test
+    void fullAuthorities_shouldCreateNewAuthoritiesForUnknownRoles() {
+        // Two slots for the Role singletons, two for other role names
+        RoleClaimAuthorities roleClaimAuthorities = new RoleClaimAuthorities(Role.values().length + 2);
+        GrantedAuthority first = roleClaimAuthorities.lookup(List.of("FIRST")).authorities().get(0);
+        GrantedAuthority second = roleClaimAuthorities.lookup(List.of("SECOND")).authorities().get(0);
+        GrantedAuthority third = roleClaimAuthorities.lookup(List.of("THIRD")).authorities().get(0);
+
+        List<GrantedAuthority> again = roleClaimAuthorities.lookup(List.of("FIRST", "SECOND", "THIRD", "USER")).authorities();
+
+        assertSame(first, again.get(0));
+        assertSame(second, again.get(1));
+        assertEquals(third, again.get(2));
+        assertNotSame(third, again.get(2));
+        assertSame(Role.USER.getAuthority(), again.get(3));
+    }
+}
@@ -0,0 +1,88 @@
+package com.petadoption.user;
+
+import com.petadoption.model.User;
+import com.petadoption.service.UserAvailabilityService;
+import com.petadoption.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Username and email availability on an in-memory H2 database, once the Bloom filters are
+ * loaded: a changed email is reported as taken as soon as the update commits, and not at all
+ * if the update rolls back.
+ */
+@SpringBootTest(properties = {
+        "server.port=0",
+        "management.server.port=0",
+        "spring.datasource.url=jdbc:h2:mem:user-availability;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+public class UserAvailabilityTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserAvailabilityService userAvailabilityService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // The filters are loaded in the background once the application is ready
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!userAvailabilityService.isLoaded() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(userAvailabilityService.isLoaded());
+
+        String username = "available_" + System.nanoTime();
+        User newUser = new User();
+        newUser.setUsername(username);
+        newUser.setPassword("password123");
+        newUser.setName("Available User");
+        newUser.setEmail(username + "@example.com");
+        newUser.setPhone("123456789");
+        user = userService.createUser(newUser, Optional.empty());
+    }
+
+    @Test
+    void updatedEmail_shouldNoLongerBeAvailable() {
+        String newEmail = "changed_" + user.getUsername() + "@example.com";
+        assertTrue(userAvailabilityService.isEmailAvailable(newEmail));
+
+        userService.updateUser(changes(newEmail));
+
+        assertFalse(userAvailabilityService.isEmailAvailable(newEmail));
+    }
+
+    @Test
+    void rolledBackEmailChange_shouldStayAvailable() {
+        String newEmail = "rolled_back_" + user.getUsername() + "@example.com";
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.updateUser(changes(newEmail));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(userAvailabilityService.isEmailAvailable(newEmail));
+    }
+
+    private User changes(String email) {
+        return new User(user.getId(), user.getName(), user.getPhone(), email, null);
+    }
+}
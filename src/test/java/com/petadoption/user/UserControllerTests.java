@@ -2,7 +2,9 @@ package com.petadoption.user;
 
 import com.petadoption.controller.UserController;
 import com.petadoption.customexceptions.user.UserNotFoundException;
+import com.petadoption.dto.UserDTO;
 import com.petadoption.model.User;
+import com.petadoption.model.enums.SearchMode;
 import com.petadoption.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -10,6 +12,10 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -37,30 +43,63 @@ class UserControllerTests {
 
     @BeforeEach
     void setUp() {
-        mockMvc = MockMvcBuilders.standaloneSetup(userController).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(userController)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
     }
 
     @Test
     void getAllUsers_ShouldReturnListOfUsers() throws Exception {
         // Test data
-        List<User> users = Arrays.asList(
-                new User(1L, "John Doe", "123456789", "john.doe@example.com", Set.of("ROLE_USER")),
-                new User(2L, "Jane Smith", "987654321", "jane.smith@example.com", Set.of("ROLE_USER"))
+        List<UserDTO> users = Arrays.asList(
+                new UserDTO(1L, "John Doe", "john.doe@example.com", "123456789"),
+                new UserDTO(2L, "Jane Smith", "jane.smith@example.com", "987654321")
         );
 
         // Mock the service behavior
-        when(userService.getAllUsers()).thenReturn(users);
+        when(userService.getUserPage(any(Pageable.class))).thenReturn(new PageImpl<>(users, PageRequest.of(0, 20), users.size()));
 
         // Perform the mock HTTP GET request
         mockMvc.perform(get("/api/users")
+                        .param("page", "0")
+                        .param("size", "20")
                         .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk()) // Expect HTTP 200 OK
-                .andExpect(jsonPath("$.size()").value(2)) // Check response array size
-                .andExpect(jsonPath("$[0].name").value("John Doe")) // Check the first user's name
-                .andExpect(jsonPath("$[1].email").value("jane.smith@example.com")); // Check the second user's email
+                .andExpect(jsonPath("$.content.size()").value(2)) // Check page content size
+                .andExpect(jsonPath("$.content[0].name").value("John Doe")) // Check the first user's name
+                .andExpect(jsonPath("$.content[1].email").value("jane.smith@example.com")) // Check the second user's email
+                .andExpect(jsonPath("$.totalElements").value(2)) // Check the total number of users
+                .andExpect(jsonPath("$.size").value(20)) // Check the requested page size
+                .andExpect(jsonPath("$.pageable").doesNotExist()); // Serialized as a page DTO, not as a PageImpl
 
         // Verify that the service was called exactly once
-        verify(userService, times(1)).getAllUsers();
+        verify(userService, times(1)).getUserPage(any(Pageable.class));
+    }
+
+    @Test
+    void searchUsers_ShouldReturnMatchingPage() throws Exception {
+        List<UserDTO> users = List.of(new UserDTO(1L, "John Doe", "john.doe@example.com", "123456789"));
+        when(userService.searchUsers(eq("jo"), eq(SearchMode.PREFIX), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(users, PageRequest.of(0, 20), users.size()));
+
+        mockMvc.perform(get("/api/users/search")
+                        .param("q", "jo")
+                        .param("mode", "prefix"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("John Doe"))
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+    }
+
+    @Test
+    void searchUsers_TermTooShort_ShouldReturn400() throws Exception {
+        when(userService.searchUsers(eq("jo"), eq(SearchMode.CONTAINS), any(Pageable.class)))
+                .thenThrow(new IllegalArgumentException("Search term must have at least 3 characters"));
+
+        mockMvc.perform(get("/api/users/search")
+                        .param("q", "jo")
+                        .param("mode", "contains"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -149,4 +188,20 @@ class UserControllerTests {
         mockMvc.perform(delete("/api/users/99"))
                 .andExpect(status().isNotFound()); // Validamos estado 404
     }
-}
\ No newline at end of file
+
+    @Test
+    void purgeUsers_ShouldReturnDeletedCount() throws Exception {
+        when(userService.purgeUsers(List.of(2L, 3L, 4L))).thenReturn(2);
+
+        mockMvc.perform(post("/api/users/purge")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                {
+                    "userIds": [2, 3, 4]
+                }
+            """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.requested").value(3))
+                .andExpect(jsonPath("$.deleted").value(2));
+    }
+}
@@ -0,0 +1,147 @@
+package com.petadoption.user;
+
+import com.petadoption.model.Adoption;
+import com.petadoption.model.Pet;
+import com.petadoption.model.TypeOfPet;
+import com.petadoption.model.User;
+import com.petadoption.model.enums.PetStatus;
+import com.petadoption.repository.AdoptionRepository;
+import com.petadoption.repository.PetRepository;
+import com.petadoption.repository.TypeOfPetRepository;
+import com.petadoption.repository.UserRepository;
+import com.petadoption.service.AdoptionService;
+import com.petadoption.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deleting and purging users with adoptions on an in-memory H2 database: their adoptions go
+ * with them, while the append-only status history of those adoptions is kept.
+
+ * The purge runs in chunks of two users, so purging five users commits three chunks.
+ */
+@SpringBootTest(properties = {
+        "server.port=0",
+        "management.server.port=0",
+        "spring.datasource.url=jdbc:h2:mem:user-purge;DB_CLOSE_DELAY=-1;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.user-purge.chunk-size=2"
+})
+public class UserPurgeTests {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AdoptionService adoptionService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private AdoptionRepository adoptionRepository;
+
+    @Autowired
+    private PetRepository petRepository;
+
+    @Autowired
+    private TypeOfPetRepository typeOfPetRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TypeOfPet type;
+
+    @BeforeEach
+    void setUp() {
+        type = typeOfPetRepository.save(new TypeOfPet("Cat", null));
+    }
+
+    @Test
+    void deleteUser_shouldRemoveTheAdoptionsAndKeepTheirHistory() throws InterruptedException {
+        User user = newUser();
+        Adoption adoption = newAdoption(user);
+        awaitHistory(adoption.getAdoptionId());
+
+        userService.deleteUser(user.getId());
+
+        assertFalse(userRepository.existsById(user.getId()));
+        assertFalse(adoptionRepository.existsById(adoption.getAdoptionId()));
+        assertEquals(1, historyRows(adoption.getAdoptionId()));
+    }
+
+    @Test
+    void purgeUsers_shouldRemoveEveryUserInChunks() throws InterruptedException {
+        List<Long> userIds = new ArrayList<>();
+        List<Long> adoptionIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            User user = newUser();
+            userIds.add(user.getId());
+            adoptionIds.add(newAdoption(user).getAdoptionId());
+            adoptionIds.add(newAdoption(user).getAdoptionId());
+        }
+        for (Long adoptionId : adoptionIds) {
+            awaitHistory(adoptionId);
+        }
+        User kept = newUser();
+        Adoption keptAdoption = newAdoption(kept);
+
+        // Duplicates and unknown ids are ignored
+        List<Long> requested = new ArrayList<>(userIds);
+        requested.add(userIds.get(0));
+        requested.add(-1L);
+        assertEquals(5, userService.purgeUsers(requested));
+
+        for (Long userId : userIds) {
+            assertFalse(userRepository.existsById(userId));
+        }
+        for (Long adoptionId : adoptionIds) {
+            assertFalse(adoptionRepository.existsById(adoptionId));
+            assertEquals(1, historyRows(adoptionId));
+        }
+        assertTrue(userRepository.existsById(kept.getId()));
+        assertTrue(adoptionRepository.existsById(keptAdoption.getAdoptionId()));
+    }
+
+    private User newUser() {
+        String username = "purged_" + System.nanoTime();
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password123");
+        user.setName("Purged User");
+        user.setPhone("123456789");
+        return userRepository.save(user);
+    }
+
+    // Created through the service, so its first status is written to the history
+    private Adoption newAdoption(User user) {
+        Pet pet = petRepository.save(new Pet(null, "Misu", 2, PetStatus.AVAILABLE, type, "Sevilla"));
+        return adoptionService.create(new Adoption(null, pet, user, null, "PENDING"));
+    }
+
+    private int historyRows(long adoptionId) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM adoption_status_history WHERE adoption_id = ?",
+                Integer.class, adoptionId);
+    }
+
+    private void awaitHistory(long adoptionId) throws InterruptedException {
+        // The history is written in the background
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (historyRows(adoptionId) == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(1, historyRows(adoptionId));
+    }
+}
@@ -0,0 +1,100 @@
+package com.petadoption.validation;
+
+import com.petadoption.model.Adoption;
+import com.petadoption.model.Pet;
+import com.petadoption.model.User;
+import com.petadoption.model.enums.PetStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The validators of users, pets and adoptions: the fields each one checks and the messages
+ * reported, every invalid field at once.
+ */
+public class DomainValidatorsTests {
+
+    @Test
+    void validUser_shouldPassCreateAndUpdate() {
+        User user = new User(1L, "Ana", "123456789", "ana.lopez@example.com", Set.of("ROLE_USER"));
+
+        assertFalse(UserValidators.CREATE.validate(user).hasErrors());
+        assertFalse(UserValidators.UPDATE.validate(user).hasErrors());
+    }
+
+    @Test
+    void invalidUser_shouldReportEveryField() {
+        User user = new User(null, " ", null, "not-an-email", Set.of());
+
+        assertEquals(Map.of(
+                "name", "Name must not be null or empty",
+                "email", "Email is invalid",
+                "phone", "Phone must not be null or empty"), UserValidators.CREATE.validate(user).asMap());
+        // Only updates need an id
+        assertEquals("User ID must not be null or negative", UserValidators.UPDATE.validate(user).asMap().get("id"));
+    }
+
+    @Test
+    void userEmail_shouldNeedADomainWithATopLevelDomain() {
+        assertTrue(emailRejected("ana@example"));
+        assertTrue(emailRejected("ana@@example.com"));
+        assertTrue(emailRejected("ana@example.toolong"));
+        assertFalse(emailRejected("ana-maria.lopez@mail.example.es"));
+    }
+
+    @Test
+    void validPet_shouldPassCreateAndUpdate() {
+        Pet pet = new Pet(1L, "Rex", 3, PetStatus.AVAILABLE, null, "Madrid");
+
+        assertFalse(PetValidators.CREATE.validate(pet).hasErrors());
+        assertFalse(PetValidators.UPDATE.validate(pet).hasErrors());
+    }
+
+    @Test
+    void invalidPet_shouldReportEveryField() {
+        Pet pet = new Pet(-1L, "", -2, PetStatus.ADOPTED, null, "Madrid");
+
+        assertEquals(Map.of(
+                "name", "Pet name must not be null or empty",
+                "age", "Pet age must not be less than 0",
+                "status", "Pet is not available for adoption"), PetValidators.CREATE.validate(pet).asMap());
+        assertEquals(List.of("name", "age", "id", "status"), List.copyOf(PetValidators.UPDATE.validate(pet).asMap().keySet()));
+    }
+
+    @Test
+    void validAdoption_shouldPass() {
+        assertFalse(AdoptionValidators.DEFAULT.validate(adoption(1L, 2L, "PENDING")).hasErrors());
+    }
+
+    @Test
+    void invalidAdoption_shouldReportEveryField() {
+        assertEquals(Map.of(
+                "user.id", "User ID must not be null or negative.",
+                "pet.id", "Pet ID must not be null or negative",
+                "status", "Status must not be null or empty"), AdoptionValidators.DEFAULT.validate(adoption(null, -1L, " ")).asMap());
+    }
+
+    @Test
+    void adoptionWithoutUserOrPet_shouldReportThem() {
+        Adoption adoption = new Adoption(null, null, null, new Date(), "PENDING");
+
+        assertEquals(Map.of(
+                "user", "User object is null.",
+                "pet.id", "Pet ID must not be null or negative"), AdoptionValidators.DEFAULT.validate(adoption).asMap());
+    }
+
+    private static boolean emailRejected(String email) {
+        return UserValidators.CREATE.validate(new User(null, "Ana", "123456789", email, Set.of())).hasError("email");
+    }
+
+    private static Adoption adoption(Long userId, Long petId, String status) {
+        User user = new User(userId, "Ana", "123456789", "ana@example.com", Set.of());
+        Pet pet = new Pet(petId, "Rex", 3, PetStatus.AVAILABLE, null, "Madrid");
+        return new Adoption(null, pet, user, new Date(), status);
+    }
+}
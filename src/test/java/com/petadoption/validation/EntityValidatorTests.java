@@ -0,0 +1,133 @@
+package com.petadoption.validation;
+
+import com.petadoption.customexceptions.validation.EntityValidationException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The building blocks of the validators, on a small record: every rule factory, the error
+ * collection, and running several rules over one entity or a batch of them.
+ */
+public class EntityValidatorTests {
+
+    private record Item(String name, String code, Integer quantity, Item parent) {}
+
+    private static final Rule<Item> NAME = Rule.notBlank(Item::name, "name", "Name is required");
+    private static final Rule<Item> CODE = Rule.matches(Item::code, Pattern.compile("[A-Z]{3}"), "code", "Code is invalid");
+    private static final Rule<Item> QUANTITY = Rule.notNegative(Item::quantity, "quantity", "Quantity must not be negative");
+    private static final Rule<Item> EVEN = Rule.that(Item::quantity, quantity -> quantity == null || quantity % 2 == 0,
+            "quantity", "Quantity must be even");
+    private static final Rule<Item> PARENT = Rule.nested(Item::parent, "parent", "Parent is required",
+            Rule.notBlank(Item::name, "parent.name", "Parent name is required"));
+
+    private static final EntityValidator<Item> VALIDATOR = EntityValidator.of(NAME, CODE, QUANTITY, EVEN, PARENT);
+
+    private static final Item ROOT = new Item("root", "ROT", 0, null);
+
+    @Test
+    void notBlank_shouldRejectNullAndBlankValues() {
+        assertTrue(check(NAME, new Item(null, "ABC", 1, ROOT)).hasError("name"));
+        assertTrue(check(NAME, new Item("  ", "ABC", 1, ROOT)).hasError("name"));
+        assertFalse(check(NAME, new Item("a", "ABC", 1, ROOT)).hasErrors());
+    }
+
+    @Test
+    void matches_shouldRejectMissingAndNonMatchingValues() {
+        assertTrue(check(CODE, new Item("a", null, 1, ROOT)).hasError("code"));
+        assertTrue(check(CODE, new Item("a", "", 1, ROOT)).hasError("code"));
+        assertTrue(check(CODE, new Item("a", "ABCD", 1, ROOT)).hasError("code"));
+        assertFalse(check(CODE, new Item("a", "ABC", 1, ROOT)).hasErrors());
+    }
+
+    @Test
+    void notNegative_shouldRejectNullAndNegativeValues() {
+        assertTrue(check(QUANTITY, new Item("a", "ABC", null, ROOT)).hasError("quantity"));
+        assertTrue(check(QUANTITY, new Item("a", "ABC", -1, ROOT)).hasError("quantity"));
+        assertFalse(check(QUANTITY, new Item("a", "ABC", 0, ROOT)).hasErrors());
+    }
+
+    @Test
+    void that_shouldRejectValuesFailingTheCondition() {
+        assertEquals(Map.of("quantity", "Quantity must be even"), check(EVEN, new Item("a", "ABC", 3, ROOT)).asMap());
+        assertFalse(check(EVEN, new Item("a", "ABC", 4, ROOT)).hasErrors());
+    }
+
+    @Test
+    void nested_shouldRejectAMissingValueOrCheckIt() {
+        assertEquals(Map.of("parent", "Parent is required"), check(PARENT, new Item("a", "ABC", 0, null)).asMap());
+        assertEquals(Map.of("parent.name", "Parent name is required"),
+                check(PARENT, new Item("a", "ABC", 0, new Item(" ", null, null, null))).asMap());
+        assertFalse(check(PARENT, new Item("a", "ABC", 0, ROOT)).hasErrors());
+    }
+
+    @Test
+    void validationErrors_shouldKeepTheFirstErrorOfEachFieldInOrder() {
+        ValidationErrors errors = new ValidationErrors();
+        assertFalse(errors.hasErrors());
+        assertEquals(Map.of(), errors.asMap());
+
+        errors.reject("b", "first b");
+        errors.reject("a", "first a");
+        errors.reject("b", "second b");
+
+        assertTrue(errors.hasErrors());
+        assertTrue(errors.hasError("a"));
+        assertFalse(errors.hasError("c"));
+        assertEquals(List.of("b", "a"), List.copyOf(errors.asMap().keySet()));
+        assertEquals("first b", errors.asMap().get("b"));
+        assertThrows(UnsupportedOperationException.class, () -> errors.asMap().put("c", "c"));
+    }
+
+    @Test
+    void validate_shouldReportEveryInvalidFieldTogether() {
+        ValidationErrors errors = VALIDATOR.validate(new Item(" ", "abc", -3, null));
+
+        assertEquals(Map.of(
+                "name", "Name is required",
+                "code", "Code is invalid",
+                "quantity", "Quantity must not be negative",
+                "parent", "Parent is required"), errors.asMap());
+        assertFalse(VALIDATOR.validate(new Item("a", "ABC", 2, ROOT)).hasErrors());
+    }
+
+    @Test
+    void validateOrThrow_shouldCarryEveryFieldError() {
+        EntityValidationException e = assertThrows(EntityValidationException.class,
+                () -> VALIDATOR.validateOrThrow(new Item(null, "ABC", 1, ROOT)));
+
+        assertEquals(Map.of("name", "Name is required", "quantity", "Quantity must be even"), e.getFieldErrors());
+        VALIDATOR.validateOrThrow(new Item("a", "ABC", 2, ROOT));
+    }
+
+    @Test
+    void validateAll_shouldReportTheErrorsOfEachInvalidEntityByIndex() {
+        List<Item> items = List.of(
+                new Item("a", "ABC", 2, ROOT),
+                new Item(null, "ABC", 2, ROOT),
+                new Item("c", "ABC", 2, ROOT),
+                new Item("d", "bad", -2, ROOT));
+
+        Map<Integer, Map<String, String>> failures = VALIDATOR.validateAll(items);
+
+        assertEquals(List.of(1, 3), List.copyOf(failures.keySet()));
+        assertEquals(Map.of("name", "Name is required"), failures.get(1));
+        assertEquals(Map.of("code", "Code is invalid", "quantity", "Quantity must not be negative"), failures.get(3));
+    }
+
+    @Test
+    void validateAll_shouldReturnAnEmptyMapForValidEntities() {
+        assertTrue(VALIDATOR.validateAll(List.of(new Item("a", "ABC", 0, ROOT), new Item("b", "ABC", 4, ROOT))).isEmpty());
+        assertTrue(VALIDATOR.validateAll(List.of()).isEmpty());
+    }
+
+    private static ValidationErrors check(Rule<Item> rule, Item item) {
+        ValidationErrors errors = new ValidationErrors();
+        rule.check(item, errors);
+        return errors;
+    }
+}